@@ -0,0 +1,188 @@
+package org.iqkv.boutique.config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.iqkv.boutique.domain.CustomerDetails;
+import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.ProductCategory;
+import org.iqkv.boutique.domain.ProductOrder;
+import org.iqkv.boutique.domain.ShoppingCart;
+import org.iqkv.boutique.domain.enumeration.Gender;
+import org.iqkv.boutique.domain.enumeration.OrderStatus;
+import org.iqkv.boutique.domain.enumeration.PaymentMethod;
+import org.iqkv.boutique.domain.enumeration.Size;
+
+/**
+ * Entities read from the fake data loaded by Liquibase in the {@code faker} context, with their relationships set like the
+ * eager selects of the repositories set them.
+ */
+final class FakeData {
+
+    private static final String LOCATION = "config/liquibase/fake-data/";
+
+    private final Map<Long, ProductCategory> productCategories;
+
+    private final Map<Long, CustomerDetails> customerDetails;
+
+    private final Map<Long, Product> products;
+
+    private final Map<Long, Product> productSummaries = new LinkedHashMap<>();
+
+    private final Map<Long, ShoppingCart> shoppingCarts;
+
+    private final Map<Long, ProductOrder> productOrders;
+
+    FakeData() {
+        productCategories = read("product_category", FakeData::productCategory);
+        customerDetails = read("customer_details", FakeData::customerDetails);
+        products = read("product", this::product);
+        products.forEach((id, product) -> productSummaries.put(id, summary(product)));
+        shoppingCarts = read("shopping_cart", this::shoppingCart);
+        productOrders = read("product_order", this::productOrder);
+    }
+
+    List<Product> products() {
+        return List.copyOf(products.values());
+    }
+
+    /**
+     * The products as listed, without their image but with its size.
+     */
+    List<Product> productSummaries() {
+        return List.copyOf(productSummaries.values());
+    }
+
+    List<ProductOrder> productOrders() {
+        return List.copyOf(productOrders.values());
+    }
+
+    List<ShoppingCart> shoppingCarts() {
+        return List.copyOf(shoppingCarts.values());
+    }
+
+    /**
+     * Repeats the entities up to the given count, as in a page or a stream longer than the fake data.
+     */
+    static <T> List<T> repeat(List<T> entities, int count) {
+        List<T> repeated = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            repeated.add(entities.get(i % entities.size()));
+        }
+        return repeated;
+    }
+
+    private static ProductCategory productCategory(Map<String, String> row) {
+        return new ProductCategory().id(Long.valueOf(row.get("id"))).name(row.get("name")).description(row.get("description"));
+    }
+
+    private static CustomerDetails customerDetails(Map<String, String> row) {
+        return new CustomerDetails()
+            .id(Long.valueOf(row.get("id")))
+            .gender(Gender.valueOf(row.get("gender")))
+            .phone(row.get("phone"))
+            .addressLine1(row.get("address_line_1"))
+            .addressLine2(row.get("address_line_2"))
+            .city(row.get("city"))
+            .country(row.get("country"));
+    }
+
+    private Product product(Map<String, String> row) {
+        byte[] image = blob(row.get("image"));
+        Product product = new Product()
+            .id(Long.valueOf(row.get("id")))
+            .name(row.get("name"))
+            .description(row.get("description"))
+            .price(new BigDecimal(row.get("price")))
+            .productSize(Size.valueOf(row.get("product_size")))
+            .image(image)
+            .imageContentType(row.get("image_content_type"))
+            .productCategory(productCategories.get(Long.valueOf(row.get("product_category_id"))));
+        product.setImageSize((long) image.length);
+        return product;
+    }
+
+    private ShoppingCart shoppingCart(Map<String, String> row) {
+        return new ShoppingCart()
+            .id(Long.valueOf(row.get("id")))
+            .placedDate(LocalDateTime.parse(row.get("placed_date")).toInstant(ZoneOffset.UTC))
+            .status(OrderStatus.valueOf(row.get("status")))
+            .totalPrice(new BigDecimal(row.get("total_price")))
+            .paymentMethod(PaymentMethod.valueOf(row.get("payment_method")))
+            .paymentReference(row.get("payment_reference"))
+            .customerDetails(customerDetails.get(Long.valueOf(row.get("customer_details_id"))));
+    }
+
+    private ProductOrder productOrder(Map<String, String> row) {
+        ProductOrder productOrder = new ProductOrder()
+            .id(Long.valueOf(row.get("id")))
+            .quantity(Integer.valueOf(row.get("quantity")))
+            .totalPrice(new BigDecimal(row.get("total_price")));
+        productOrder.setProduct(productSummaries.get(Long.valueOf(row.get("product_id"))));
+        shoppingCarts.get(Long.valueOf(row.get("cart_id"))).addOrder(productOrder);
+        return productOrder;
+    }
+
+    private static Product summary(Product product) {
+        Product summary = new Product()
+            .id(product.getId())
+            .name(product.getName())
+            .description(product.getDescription())
+            .price(product.getPrice())
+            .productSize(product.getProductSize())
+            .imageContentType(product.getImageContentType())
+            .productCategory(product.getProductCategory());
+        summary.setImageSize(product.getImageSize());
+        return summary;
+    }
+
+    private static <T> Map<Long, T> read(String table, Function<Map<String, String>, T> entity) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource(table + ".csv"), StandardCharsets.UTF_8))) {
+            String[] header = reader.readLine().split(";");
+            Map<Long, T> entities = new LinkedHashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] values = line.split(";", -1);
+                Map<String, String> row = new HashMap<>();
+                for (int column = 0; column < header.length; column++) {
+                    row.put(header[column], values[column]);
+                }
+                entities.put(Long.valueOf(row.get("id")), entity.apply(row));
+            }
+            return entities;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a blob referenced, like in the Liquibase changelogs, relatively to the fake data directory.
+     */
+    private static byte[] blob(String path) {
+        try (InputStream blob = resource(path.replace("../fake-data/", ""))) {
+            return blob.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static InputStream resource(String name) {
+        InputStream resource = FakeData.class.getClassLoader().getResourceAsStream(LOCATION + name);
+        if (resource == null) {
+            throw new IllegalStateException("Missing fake data " + LOCATION + name);
+        }
+        return resource;
+    }
+}
@@ -0,0 +1,157 @@
+package org.iqkv.boutique.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.ProductOrder;
+import org.iqkv.boutique.domain.ShoppingCart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Flux;
+
+/**
+ * Serialization of the entities returned by the REST resources, through the Jackson encoder of WebFlux: a single entity with
+ * its relationships, a page of 50 entities, and a stream of 50 entities as NDJSON.
+ * <p>
+ * The entities are built from the Liquibase fake data, products with their image. Each {@link Configuration} of the
+ * {@link ObjectMapper} is compared with the current one, built like Spring Boot builds it with the modules of
+ * {@link JacksonConfiguration}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JacksonSerializationBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final ResolvableType PRODUCT = ResolvableType.forClass(Product.class);
+    private static final ResolvableType PRODUCT_ORDER = ResolvableType.forClass(ProductOrder.class);
+    private static final ResolvableType SHOPPING_CART = ResolvableType.forClass(ShoppingCart.class);
+    private static final ResolvableType PRODUCT_LIST = ResolvableType.forClassWithGenerics(List.class, Product.class);
+    private static final ResolvableType PRODUCT_ORDER_LIST = ResolvableType.forClassWithGenerics(List.class, ProductOrder.class);
+
+    public enum Configuration {
+        /**
+         * The {@link ObjectMapper} of the application.
+         */
+        CURRENT,
+        /**
+         * Accessors called through generated lambdas instead of reflection.
+         */
+        BLACKBIRD,
+        /**
+         * Null properties, like the relationships not fetched or the image of a listed product, left out of the output.
+         */
+        NON_NULL,
+        BLACKBIRD_NON_NULL;
+
+        ObjectMapper objectMapper() {
+            JacksonConfiguration jacksonConfiguration = new JacksonConfiguration();
+            Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(jacksonConfiguration.javaTimeModule(), jacksonConfiguration.jdk8TimeModule())
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS);
+            if (this == BLACKBIRD || this == BLACKBIRD_NON_NULL) {
+                builder.modulesToInstall(new BlackbirdModule());
+            }
+            if (this == NON_NULL || this == BLACKBIRD_NON_NULL) {
+                builder.serializationInclusion(JsonInclude.Include.NON_NULL);
+            }
+            return builder.build();
+        }
+    }
+
+    @Param
+    private Configuration configuration;
+
+    private Jackson2JsonEncoder encoder;
+
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    private Product product;
+
+    private ProductOrder productOrder;
+
+    private ShoppingCart shoppingCart;
+
+    private List<Product> productPage;
+
+    private List<ProductOrder> productOrderPage;
+
+    private List<ShoppingCart> shoppingCarts;
+
+    @Setup
+    public void setup() {
+        encoder = new Jackson2JsonEncoder(configuration.objectMapper());
+        FakeData fakeData = new FakeData();
+        product = fakeData.products().get(0);
+        productOrder = fakeData.productOrders().get(0);
+        shoppingCart = fakeData.shoppingCarts().get(0);
+        productPage = FakeData.repeat(fakeData.productSummaries(), PAGE_SIZE);
+        productOrderPage = FakeData.repeat(fakeData.productOrders(), PAGE_SIZE);
+        shoppingCarts = FakeData.repeat(fakeData.shoppingCarts(), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public int product() {
+        return encode(product, PRODUCT);
+    }
+
+    @Benchmark
+    public int productOrder() {
+        return encode(productOrder, PRODUCT_ORDER);
+    }
+
+    @Benchmark
+    public int shoppingCart() {
+        return encode(shoppingCart, SHOPPING_CART);
+    }
+
+    @Benchmark
+    public int productPage() {
+        return encode(productPage, PRODUCT_LIST);
+    }
+
+    @Benchmark
+    public int productOrderPage() {
+        return encode(productOrderPage, PRODUCT_ORDER_LIST);
+    }
+
+    @Benchmark
+    public int productOrderStream() {
+        return stream(productOrderPage, PRODUCT_ORDER);
+    }
+
+    @Benchmark
+    public int shoppingCartStream() {
+        return stream(shoppingCarts, SHOPPING_CART);
+    }
+
+    private int encode(Object value, ResolvableType type) {
+        DataBuffer buffer = encoder.encodeValue(value, bufferFactory, type, MediaType.APPLICATION_JSON, null);
+        return buffer.readableByteCount();
+    }
+
+    private int stream(List<?> values, ResolvableType type) {
+        return encoder
+            .encode(Flux.fromIterable(values), bufferFactory, type, MediaType.APPLICATION_NDJSON, null)
+            .reduce(0, (length, buffer) -> length + buffer.readableByteCount())
+            .block();
+    }
+}
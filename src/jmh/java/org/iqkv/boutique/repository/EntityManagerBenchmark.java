@@ -0,0 +1,195 @@
+package org.iqkv.boutique.repository;
+
+import static org.iqkv.boutique.repository.EntityManager.ENTITY_ALIAS;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.iqkv.boutique.domain.CustomerDetails;
+import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.ProductCategory;
+import org.iqkv.boutique.domain.ProductOrder;
+import org.iqkv.boutique.domain.ShoppingCart;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.reactivestreams.Publisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.r2dbc.query.UpdateMapper;
+import org.springframework.data.relational.core.dialect.RenderContextFactory;
+import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectWhere;
+import org.springframework.data.relational.core.sql.Table;
+import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Creation of the select statements of the repositories by {@link EntityManager}, for the join shape of each repository.
+ * <p>
+ * {@code cached} is the steady state of the repositories, which reuse the statement rendered for their shape, while
+ * {@code rendered} builds and renders the statement on each call, which the cache saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EntityManagerBenchmark {
+
+    private static final Table productTable = Table.aliased("product", ENTITY_ALIAS);
+    private static final Table productCategoryTable = Table.aliased("product_category", ENTITY_ALIAS);
+    private static final Table productOrderTable = Table.aliased("product_order", ENTITY_ALIAS);
+    private static final Table shoppingCartTable = Table.aliased("shopping_cart", ENTITY_ALIAS);
+    private static final Table customerDetailsTable = Table.aliased("customer_details", ENTITY_ALIAS);
+
+    @Param({ "product", "productSummary", "productCategory", "productOrder", "productOrderEager", "shoppingCart", "customerDetails" })
+    private String shape;
+
+    private EntityManager entityManager;
+
+    private Supplier<? extends SelectWhere> selectFrom;
+
+    private Class<?> entityType;
+
+    private final Pageable pageable = PageRequest.of(2, 50, Sort.by("id"));
+
+    @Setup
+    public void setup() {
+        MappingR2dbcConverter converter = new MappingR2dbcConverter(
+            new R2dbcMappingContext(),
+            R2dbcCustomConversions.of(PostgresDialect.INSTANCE, List.of())
+        );
+        R2dbcEntityTemplate template = new R2dbcEntityTemplate(
+            DatabaseClient.builder()
+                .connectionFactory(new UnusedConnectionFactory())
+                .bindMarkers(PostgresDialect.INSTANCE.getBindMarkersFactory())
+                .build(),
+            PostgresDialect.INSTANCE,
+            converter
+        );
+        entityManager = new EntityManager(
+            SqlRenderer.create(new RenderContextFactory(PostgresDialect.INSTANCE).createRenderContext()),
+            new UpdateMapper(PostgresDialect.INSTANCE, converter),
+            template,
+            new SimpleMeterRegistry()
+        );
+        switch (shape) {
+            case "product" -> select(Product.class, () -> productSelectFrom(ProductSqlHelper.getColumns(productTable, ENTITY_ALIAS)));
+            case "productSummary" -> select(Product.class, () ->
+                productSelectFrom(ProductSqlHelper.getSummaryColumns(productTable, ENTITY_ALIAS))
+            );
+            case "productCategory" -> select(ProductCategory.class, EntityManagerBenchmark::productCategorySelectFrom);
+            case "productOrder" -> select(ProductOrder.class, EntityManagerBenchmark::productOrderSelectFrom);
+            case "productOrderEager" -> select(ProductOrder.class, EntityManagerBenchmark::productOrderEagerSelectFrom);
+            case "shoppingCart" -> select(ShoppingCart.class, EntityManagerBenchmark::shoppingCartSelectFrom);
+            case "customerDetails" -> select(CustomerDetails.class, EntityManagerBenchmark::customerDetailsSelectFrom);
+            default -> throw new IllegalArgumentException("Unknown shape " + shape);
+        }
+        entityManager.createSelect(shape, selectFrom, entityType, pageable, null);
+    }
+
+    private void select(Class<?> entityType, Supplier<? extends SelectWhere> selectFrom) {
+        this.entityType = entityType;
+        this.selectFrom = selectFrom;
+    }
+
+    @Benchmark
+    public String cached() {
+        return entityManager.createSelect(shape, selectFrom, entityType, pageable, null);
+    }
+
+    @Benchmark
+    public String rendered() {
+        SelectWhere select = selectFrom.get();
+        if (select instanceof SelectFromAndJoinCondition join) {
+            return entityManager.createSelect(join, entityType, pageable, null);
+        }
+        return entityManager.createSelect((SelectFromAndJoin) select, entityType, pageable, null);
+    }
+
+    private static SelectFromAndJoinCondition productSelectFrom(List<Expression> columns) {
+        Table category = Table.aliased("product_category", "productCategory");
+        columns.addAll(ProductCategorySqlHelper.getColumns(category, "productCategory"));
+        return Select.builder()
+            .select(columns)
+            .from(productTable)
+            .leftOuterJoin(category)
+            .on(Column.create("product_category_id", productTable))
+            .equals(Column.create("id", category));
+    }
+
+    private static SelectFromAndJoin productCategorySelectFrom() {
+        return Select.builder().select(ProductCategorySqlHelper.getColumns(productCategoryTable, ENTITY_ALIAS)).from(productCategoryTable);
+    }
+
+    private static SelectFromAndJoin productOrderSelectFrom() {
+        return Select.builder().select(ProductOrderSqlHelper.getColumns(productOrderTable, ENTITY_ALIAS)).from(productOrderTable);
+    }
+
+    private static SelectFromAndJoinCondition productOrderEagerSelectFrom() {
+        Table product = Table.aliased("product", "product");
+        Table cart = Table.aliased("shopping_cart", "cart");
+        List<Expression> columns = ProductOrderSqlHelper.getColumns(productOrderTable, ENTITY_ALIAS);
+        columns.addAll(ProductSqlHelper.getSummaryColumns(product, "product"));
+        columns.addAll(ShoppingCartSqlHelper.getColumns(cart, "cart"));
+        return Select.builder()
+            .select(columns)
+            .from(productOrderTable)
+            .leftOuterJoin(product)
+            .on(Column.create("product_id", productOrderTable))
+            .equals(Column.create("id", product))
+            .leftOuterJoin(cart)
+            .on(Column.create("cart_id", productOrderTable))
+            .equals(Column.create("id", cart));
+    }
+
+    private static SelectFromAndJoinCondition shoppingCartSelectFrom() {
+        Table customerDetails = Table.aliased("customer_details", "customerDetails");
+        List<Expression> columns = ShoppingCartSqlHelper.getColumns(shoppingCartTable, ENTITY_ALIAS);
+        columns.addAll(CustomerDetailsSqlHelper.getColumns(customerDetails, "customerDetails"));
+        return Select.builder()
+            .select(columns)
+            .from(shoppingCartTable)
+            .leftOuterJoin(customerDetails)
+            .on(Column.create("customer_details_id", shoppingCartTable))
+            .equals(Column.create("id", customerDetails));
+    }
+
+    private static SelectFromAndJoin customerDetailsSelectFrom() {
+        return Select.builder().select(CustomerDetailsSqlHelper.getColumns(customerDetailsTable, ENTITY_ALIAS)).from(customerDetailsTable);
+    }
+
+    /**
+     * The statements are only created, never executed.
+     */
+    private static final class UnusedConnectionFactory implements ConnectionFactory {
+
+        @Override
+        public Publisher<? extends Connection> create() {
+            throw new UnsupportedOperationException("The benchmark does not connect to a database");
+        }
+
+        @Override
+        public ConnectionFactoryMetadata getMetadata() {
+            return () -> "PostgreSQL";
+        }
+    }
+}
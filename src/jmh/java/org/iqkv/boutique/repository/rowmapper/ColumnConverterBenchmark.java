@@ -0,0 +1,89 @@
+package org.iqkv.boutique.repository.rowmapper;
+
+import static org.iqkv.boutique.repository.rowmapper.StubRow.columns;
+
+import io.r2dbc.spi.Row;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.iqkv.boutique.config.DatabaseConfiguration;
+import org.iqkv.boutique.domain.enumeration.OrderStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+
+/**
+ * Reading of a single column by {@link ColumnConverter}, for each of its decodings: a type decoded by the driver, an enum read
+ * by name, and an {@link Instant} converted from the raw driver value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ColumnConverterBenchmark {
+
+    private static final int ID = 0;
+    private static final int PLACED_DATE = 1;
+    private static final int STATUS = 2;
+
+    private ColumnConverter converter;
+
+    private Row row;
+
+    private LocalDateTime placedDate;
+
+    @Setup
+    public void setup() {
+        R2dbcCustomConversions conversions = new DatabaseConfiguration().r2dbcCustomConversions(PostgresDialect.INSTANCE);
+        converter = new ColumnConverter(conversions, new MappingR2dbcConverter(new R2dbcMappingContext(), conversions));
+        placedDate = LocalDateTime.of(2024, 6, 4, 4, 49, 1);
+        row = new StubRow(StubRow.metadata(columns("e", "id", "placed_date", "status")), 42L, placedDate, "REFUNDED");
+    }
+
+    @Benchmark
+    public Long driverTypeByIndex() {
+        return converter.fromRow(row, ID, Long.class);
+    }
+
+    @Benchmark
+    public Long driverTypeByName() {
+        return converter.fromRow(row, "e_id", Long.class);
+    }
+
+    @Benchmark
+    public OrderStatus enumByIndex() {
+        return converter.fromRow(row, STATUS, OrderStatus.class);
+    }
+
+    @Benchmark
+    public OrderStatus enumByName() {
+        return converter.fromRow(row, "e_status", OrderStatus.class);
+    }
+
+    @Benchmark
+    public Instant instantByIndex() {
+        return converter.fromRow(row, PLACED_DATE, Instant.class);
+    }
+
+    @Benchmark
+    public Instant instantByName() {
+        return converter.fromRow(row, "e_placed_date", Instant.class);
+    }
+
+    @Benchmark
+    public OrderStatus convertEnum() {
+        return converter.convert("REFUNDED", OrderStatus.class);
+    }
+
+    @Benchmark
+    public Instant convertInstant() {
+        return converter.convert(placedDate, Instant.class);
+    }
+}
@@ -0,0 +1,169 @@
+package org.iqkv.boutique.repository.rowmapper;
+
+import static org.iqkv.boutique.repository.rowmapper.StubRow.columns;
+import static org.iqkv.boutique.repository.rowmapper.StubRow.values;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import org.iqkv.boutique.config.DatabaseConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+
+/**
+ * Mapping of a page of rows, as returned by the selects of the product and product order repositories, into entities.
+ * <p>
+ * The rows of a page share their metadata, like the rows of a driver result, so the column indexes are resolved once per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RowMapperBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+
+    private static final String[] PRODUCT_COLUMNS = {
+        "id",
+        "name",
+        "description",
+        "price",
+        "product_size",
+        "image",
+        "image_content_type",
+        "product_category_id",
+    };
+
+    private static final String[] PRODUCT_SUMMARY_COLUMNS = {
+        "id",
+        "name",
+        "description",
+        "price",
+        "product_size",
+        "image_size",
+        "image_content_type",
+        "product_category_id",
+    };
+
+    private static final String[] PRODUCT_CATEGORY_COLUMNS = { "id", "name", "description" };
+
+    private static final String[] PRODUCT_ORDER_COLUMNS = { "id", "quantity", "total_price", "product_id", "cart_id" };
+
+    private static final String[] SHOPPING_CART_COLUMNS = {
+        "id",
+        "placed_date",
+        "status",
+        "total_price",
+        "payment_method",
+        "payment_reference",
+        "customer_details_id",
+    };
+
+    private ProductRowMapper productRowMapper;
+
+    private ProductOrderRowMapper productOrderRowMapper;
+
+    private ShoppingCartRowMapper shoppingCartRowMapper;
+
+    private Row[] productRows;
+
+    private Row[] productSummaryRows;
+
+    private Row[] productOrderRows;
+
+    private Row[] productOrderEagerRows;
+
+    @Setup
+    public void setup() {
+        R2dbcCustomConversions conversions = new DatabaseConfiguration().r2dbcCustomConversions(PostgresDialect.INSTANCE);
+        ColumnConverter converter = new ColumnConverter(conversions, new MappingR2dbcConverter(new R2dbcMappingContext(), conversions));
+        productRowMapper = new ProductRowMapper(converter);
+        productOrderRowMapper = new ProductOrderRowMapper(converter);
+        shoppingCartRowMapper = new ShoppingCartRowMapper(converter);
+
+        RowMetadata product = StubRow.metadata(columns("e", PRODUCT_COLUMNS), columns("productCategory", PRODUCT_CATEGORY_COLUMNS));
+        RowMetadata productSummary = StubRow.metadata(
+            columns("e", PRODUCT_SUMMARY_COLUMNS),
+            columns("productCategory", PRODUCT_CATEGORY_COLUMNS)
+        );
+        RowMetadata productOrder = StubRow.metadata(columns("e", PRODUCT_ORDER_COLUMNS));
+        RowMetadata productOrderEager = StubRow.metadata(
+            columns("e", PRODUCT_ORDER_COLUMNS),
+            columns("product", PRODUCT_SUMMARY_COLUMNS),
+            columns("cart", SHOPPING_CART_COLUMNS)
+        );
+
+        productRows = new Row[PAGE_SIZE];
+        productSummaryRows = new Row[PAGE_SIZE];
+        productOrderRows = new Row[PAGE_SIZE];
+        productOrderEagerRows = new Row[PAGE_SIZE];
+        byte[] image = new byte[16 * 1024];
+        Object[] category = { 1L, "Shirts", "readdress hmph" };
+        Object[] cart = { 1L, LocalDateTime.of(2024, 6, 4, 4, 49, 1), "REFUNDED", new BigDecimal("1116.69"), "CREDIT_CARD", "whoa", 1L };
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            long id = i + 1;
+            BigDecimal price = BigDecimal.valueOf(814947 + i, 2);
+            Object[] order = { id, 2, price.add(price), id, 1L };
+            productRows[i] = new StubRow(product, values(productValues(id, price, image), category));
+            productSummaryRows[i] = new StubRow(productSummary, values(productValues(id, price, (long) image.length), category));
+            productOrderRows[i] = new StubRow(productOrder, order);
+            productOrderEagerRows[i] = new StubRow(productOrderEager, values(order, productValues(id, price, (long) image.length), cart));
+        }
+    }
+
+    /**
+     * Values of a product, with either its image or the size of its image.
+     */
+    private static Object[] productValues(long id, BigDecimal price, Object image) {
+        return new Object[] { id, "ally " + id, "strawberry deliberately", price, "M", image, "image/png", 1L };
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void product(Blackhole blackhole) {
+        for (Row row : productRows) {
+            blackhole.consume(productRowMapper.apply(row, "e"));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void productSummary(Blackhole blackhole) {
+        for (Row row : productSummaryRows) {
+            blackhole.consume(productRowMapper.apply(row, "e"));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void productOrder(Blackhole blackhole) {
+        for (Row row : productOrderRows) {
+            blackhole.consume(productOrderRowMapper.apply(row, "e"));
+        }
+    }
+
+    /**
+     * The rows of the eager select of the product orders, each mapped with its product and shopping cart.
+     */
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public void productOrderEager(Blackhole blackhole) {
+        for (Row row : productOrderEagerRows) {
+            blackhole.consume(productOrderRowMapper.apply(row, "e"));
+            blackhole.consume(productRowMapper.apply(row, "product"));
+            blackhole.consume(shoppingCartRowMapper.apply(row, "cart"));
+        }
+    }
+}
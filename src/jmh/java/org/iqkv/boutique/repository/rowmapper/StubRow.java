@@ -0,0 +1,115 @@
+package org.iqkv.boutique.repository.rowmapper;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * In-memory {@link Row} holding the values as the PostgreSQL driver decodes them, so the row mappers can be benchmarked
+ * without a database.
+ * <p>
+ * Like the driver, the {@link RowMetadata} is shared by all the rows of a result, and columns are looked up by name ignoring
+ * the case.
+ */
+final class StubRow implements Row {
+
+    private final Metadata metadata;
+
+    private final Object[] values;
+
+    StubRow(RowMetadata metadata, Object... values) {
+        this.metadata = (Metadata) metadata;
+        this.values = values;
+        if (values.length != this.metadata.columns.size()) {
+            throw new IllegalArgumentException("Expected " + this.metadata.columns.size() + " values, got " + values.length);
+        }
+    }
+
+    /**
+     * Prefixes the names of the columns of an entity, as the selects alias them.
+     * @param prefix the column prefix of the entity in the query.
+     * @param columns the names of the columns of the entity.
+     * @return the prefixed names of the columns.
+     */
+    static String[] columns(String prefix, String... columns) {
+        return Arrays.stream(columns).map(column -> prefix + "_" + column).toArray(String[]::new);
+    }
+
+    /**
+     * Creates the metadata of a result with the given columns.
+     * @param columns the groups of column names, usually created by {@link #columns(String, String...)}.
+     * @return the metadata to share between the rows of the result.
+     */
+    static RowMetadata metadata(String[]... columns) {
+        return new Metadata(Arrays.stream(columns).flatMap(Arrays::stream).map(Column::new).toList());
+    }
+
+    /**
+     * Concatenates the values of the entities of a row, in the order of the groups of columns of its metadata.
+     * @param values the groups of values.
+     * @return the values of the row.
+     */
+    static Object[] values(Object[]... values) {
+        return Arrays.stream(values).flatMap(Arrays::stream).toArray();
+    }
+
+    @Override
+    public RowMetadata getMetadata() {
+        return metadata;
+    }
+
+    @Override
+    public <T> T get(int index, Class<T> type) {
+        return type.cast(values[index]);
+    }
+
+    @Override
+    public <T> T get(String name, Class<T> type) {
+        return get(metadata.indexOf(name), type);
+    }
+
+    private record Metadata(List<Column> columns) implements RowMetadata {
+        int indexOf(String name) {
+            for (int index = 0; index < columns.size(); index++) {
+                if (columns.get(index).getName().equalsIgnoreCase(name)) {
+                    return index;
+                }
+            }
+            throw new NoSuchElementException("Column " + name + " is not in " + Arrays.toString(columns.toArray()));
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(int index) {
+            return columns.get(index);
+        }
+
+        @Override
+        public ColumnMetadata getColumnMetadata(String name) {
+            return columns.get(indexOf(name));
+        }
+
+        @Override
+        public List<? extends ColumnMetadata> getColumnMetadatas() {
+            return columns;
+        }
+    }
+
+    private record Column(String name) implements ColumnMetadata {
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * The row mappers only read the columns by index or name.
+         */
+        @Override
+        public Type getType() {
+            throw new UnsupportedOperationException("The stub columns are not typed");
+        }
+    }
+}
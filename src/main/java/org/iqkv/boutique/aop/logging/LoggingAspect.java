@@ -11,6 +11,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import tech.jhipster.config.JHipsterConstants;
 
 /**
@@ -86,6 +88,9 @@ public class LoggingAspect {
 
     /**
      * Advice that logs when a method is entered and exited.
+     * <p>
+     * A method returning a {@link Mono} or a {@link Flux} is exited when its result completes, not when it is returned. Nothing
+     * is done when debug logging is disabled, besides checking it.
      *
      * @param joinPoint join point for advice.
      * @return result.
@@ -99,9 +104,17 @@ public class LoggingAspect {
         }
         try {
             Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
-                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+            if (!log.isDebugEnabled()) {
+                return result;
             }
+            String name = joinPoint.getSignature().getName();
+            if (result instanceof Mono<?> mono) {
+                return mono.doOnSuccess(value -> log.debug("Exit: {}() with result = {}", name, value));
+            }
+            if (result instanceof Flux<?> flux) {
+                return flux.doOnComplete(() -> log.debug("Exit: {}() with completed result", name));
+            }
+            log.debug("Exit: {}() with result = {}", name, result);
             return result;
         } catch (IllegalArgumentException e) {
             log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
@@ -0,0 +1,130 @@
+package org.iqkv.boutique.aop.logging;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Aspect timing the service, repository and Web REST methods matched by {@link LoggingAspect}, into Micrometer timers.
+ * <p>
+ * Methods returning a {@link Mono} or a {@link Flux} are timed from the subscription to the completion, error or cancellation
+ * of the result, the time spent doing the work, rather than the time spent assembling it. Only a sample of the calls are timed,
+ * the others are left untouched: the counts and rates of the timers are those of the sampled calls only, about the calls times
+ * the sample rate, while their durations are representative of all the calls.
+ * <p>
+ * The timers publish a few fixed buckets rather than a full percentile histogram, as there is one timer per method and outcome.
+ */
+@Aspect
+public class MethodTimingAspect {
+
+    public static final String TIMER_NAME = "boutique.method.duration";
+
+    static final String OUTCOME_SUCCESS = "success";
+    static final String OUTCOME_ERROR = "error";
+    static final String OUTCOME_CANCELLED = "cancelled";
+
+    static final Duration[] SERVICE_LEVEL_OBJECTIVES = {
+        Duration.ofMillis(5),
+        Duration.ofMillis(10),
+        Duration.ofMillis(25),
+        Duration.ofMillis(50),
+        Duration.ofMillis(100),
+        Duration.ofMillis(250),
+        Duration.ofMillis(500),
+        Duration.ofSeconds(1),
+        Duration.ofMillis(2500),
+        Duration.ofSeconds(5),
+    };
+
+    private final Meter.MeterProvider<Timer> timers;
+
+    private final double sampleRate;
+
+    public MethodTimingAspect(MeterRegistry meterRegistry, double sampleRate) {
+        this.timers = Timer.builder(TIMER_NAME)
+            .description("Duration of a sample of the repository, service and Web REST method calls, until their result completes")
+            .serviceLevelObjectives(SERVICE_LEVEL_OBJECTIVES)
+            .withRegistry(meterRegistry);
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Advice that times a sample of the method calls.
+     *
+     * @param joinPoint join point for advice.
+     * @return result, which records its duration when it terminates if it is a {@link Mono} or a {@link Flux}.
+     * @throws Throwable the exception of the method.
+     */
+    @Around(
+        "org.iqkv.boutique.aop.logging.LoggingAspect.applicationPackagePointcut()" +
+        " && org.iqkv.boutique.aop.logging.LoggingAspect.springBeanPointcut()"
+    )
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return joinPoint.proceed();
+        }
+        Signature signature = joinPoint.getSignature();
+        Measurement assembly = new Measurement(signature);
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            assembly.stop(OUTCOME_ERROR);
+            throw e;
+        }
+        if (result instanceof Mono<?> mono) {
+            return Mono.defer(() -> {
+                Measurement execution = new Measurement(signature);
+                return mono
+                    .doOnSuccess(value -> execution.stop(OUTCOME_SUCCESS))
+                    .doOnError(e -> execution.stop(OUTCOME_ERROR))
+                    .doOnCancel(() -> execution.stop(OUTCOME_CANCELLED));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.defer(() -> {
+                Measurement execution = new Measurement(signature);
+                return flux
+                    .doOnComplete(() -> execution.stop(OUTCOME_SUCCESS))
+                    .doOnError(e -> execution.stop(OUTCOME_ERROR))
+                    .doOnCancel(() -> execution.stop(OUTCOME_CANCELLED));
+            });
+        }
+        assembly.stop(OUTCOME_SUCCESS);
+        return result;
+    }
+
+    /**
+     * One timed call, recorded once: a {@link Mono} can be cancelled after it emitted its value.
+     */
+    private final class Measurement {
+
+        private final Signature signature;
+
+        private final long start = System.nanoTime();
+
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        Measurement(Signature signature) {
+            this.signature = signature;
+        }
+
+        void stop(String outcome) {
+            if (stopped.compareAndSet(false, true)) {
+                timers
+                    .withTags("class", signature.getDeclaringType().getSimpleName(), "method", signature.getName(), "outcome", outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.iqkv.boutique.config;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Boutique.
@@ -10,9 +12,338 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Thumbnail thumbnail = new Thumbnail();
+
+    private final Cache cache = new Cache();
+
+    private final Count count = new Count();
+
+    private final Pagination pagination = new Pagination();
+
+    private final Export export = new Export();
+
+    private final ProductImport productImport = new ProductImport();
+
+    private final MethodTiming methodTiming = new MethodTiming();
+
+    private final QueryMetrics queryMetrics = new QueryMetrics();
+
+    private final DatabasePool databasePool = new DatabasePool();
+
     // jhipster-needle-application-properties-property
 
+    public Thumbnail getThumbnail() {
+        return thumbnail;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Count getCount() {
+        return count;
+    }
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public ProductImport getProductImport() {
+        return productImport;
+    }
+
+    public MethodTiming getMethodTiming() {
+        return methodTiming;
+    }
+
+    public QueryMetrics getQueryMetrics() {
+        return queryMetrics;
+    }
+
+    public DatabasePool getDatabasePool() {
+        return databasePool;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
+    public static class Thumbnail {
+
+        private int size = 200;
+
+        private int threads = 2;
+
+        private int queueSize = 100;
+
+        private long maxPixels = 25_000_000;
+
+        private boolean backfill = true;
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public void setQueueSize(int queueSize) {
+            this.queueSize = queueSize;
+        }
+
+        public long getMaxPixels() {
+            return maxPixels;
+        }
+
+        public void setMaxPixels(long maxPixels) {
+            this.maxPixels = maxPixels;
+        }
+
+        public boolean isBackfill() {
+            return backfill;
+        }
+
+        public void setBackfill(boolean backfill) {
+            this.backfill = backfill;
+        }
+    }
+
+    public static class Cache {
+
+        private final Catalog catalog = new Catalog();
+
+        public Catalog getCatalog() {
+            return catalog;
+        }
+
+        public static class Catalog {
+
+            private DataSize maximumWeight = DataSize.ofMegabytes(64);
+
+            private Duration timeToLive = Duration.ofMinutes(10);
+
+            public DataSize getMaximumWeight() {
+                return maximumWeight;
+            }
+
+            public void setMaximumWeight(DataSize maximumWeight) {
+                this.maximumWeight = maximumWeight;
+            }
+
+            public Duration getTimeToLive() {
+                return timeToLive;
+            }
+
+            public void setTimeToLive(Duration timeToLive) {
+                this.timeToLive = timeToLive;
+            }
+        }
+    }
+
+    public static class Count {
+
+        private Strategy strategy = Strategy.EXACT;
+
+        private Duration timeToLive = Duration.ofSeconds(30);
+
+        public Strategy getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(Strategy strategy) {
+            this.strategy = strategy;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        /**
+         * How the total number of rows of a paginated listing is computed.
+         */
+        public enum Strategy {
+            /**
+             * {@code SELECT COUNT(*)} on every page request.
+             */
+            EXACT,
+            /**
+             * Exact count kept for the time to live, evicted when a row is inserted or deleted.
+             */
+            CACHED,
+            /**
+             * Row estimate of the planner statistics, {@code pg_class.reltuples}, falling back to the exact count before the
+             * table is first analyzed.
+             */
+            ESTIMATED,
+        }
+    }
+
+    public static class Pagination {
+
+        private int maxPageSize = 100;
+
+        public int getMaxPageSize() {
+            return maxPageSize;
+        }
+
+        public void setMaxPageSize(int maxPageSize) {
+            this.maxPageSize = maxPageSize;
+        }
+    }
+
+    public static class Export {
+
+        private int fetchSize = 500;
+
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        private Duration totalTimeout = Duration.ofMinutes(2);
+
+        private int maxConcurrentExports = 2;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public Duration getTotalTimeout() {
+            return totalTimeout;
+        }
+
+        public void setTotalTimeout(Duration totalTimeout) {
+            this.totalTimeout = totalTimeout;
+        }
+
+        public int getMaxConcurrentExports() {
+            return maxConcurrentExports;
+        }
+
+        public void setMaxConcurrentExports(int maxConcurrentExports) {
+            this.maxConcurrentExports = maxConcurrentExports;
+        }
+    }
+
+    public static class ProductImport {
+
+        private int batchSize = 500;
+
+        private int maxReportedErrors = 100;
+
+        private int maxConcurrentImports = 2;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxReportedErrors() {
+            return maxReportedErrors;
+        }
+
+        public void setMaxReportedErrors(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        public int getMaxConcurrentImports() {
+            return maxConcurrentImports;
+        }
+
+        public void setMaxConcurrentImports(int maxConcurrentImports) {
+            this.maxConcurrentImports = maxConcurrentImports;
+        }
+    }
+
+    public static class MethodTiming {
+
+        private double sampleRate = 0.1;
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+    }
+
+    public static class QueryMetrics {
+
+        private boolean enabled = true;
+
+        private Duration slowQueryThreshold = Duration.ofMillis(500);
+
+        private int maximumShapes = 200;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getSlowQueryThreshold() {
+            return slowQueryThreshold;
+        }
+
+        public void setSlowQueryThreshold(Duration slowQueryThreshold) {
+            this.slowQueryThreshold = slowQueryThreshold;
+        }
+
+        public int getMaximumShapes() {
+            return maximumShapes;
+        }
+
+        public void setMaximumShapes(int maximumShapes) {
+            this.maximumShapes = maximumShapes;
+        }
+    }
+
+    public static class DatabasePool {
+
+        private int maxPendingAcquires = 20;
+
+        public int getMaxPendingAcquires() {
+            return maxPendingAcquires;
+        }
+
+        public void setMaxPendingAcquires(int maxPendingAcquires) {
+            this.maxPendingAcquires = maxPendingAcquires;
+        }
+    }
     // jhipster-needle-application-properties-property-class
 }
@@ -1,5 +1,7 @@
 package org.iqkv.boutique.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
 import io.r2dbc.spi.ConnectionFactory;
 import java.time.Duration;
 import java.time.Instant;
@@ -9,6 +11,9 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.convert.converter.Converter;
@@ -44,6 +49,37 @@ public class DatabaseConfiguration {
         return R2dbcCustomConversions.of(dialect, converters);
     }
 
+    /**
+     * Decorates the connection factory to record the statements per SQL shape, and log the slow ones.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.query-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public static BeanPostProcessor queryMetricsConnectionFactoryPostProcessor(
+        ObjectProvider<MeterRegistry> meterRegistry,
+        ObjectProvider<ApplicationProperties> applicationProperties
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof ConnectionFactory connectionFactory) || bean instanceof QueryMetricsConnectionFactory) {
+                    return bean;
+                }
+                Duration slowQueryThreshold = applicationProperties.getObject().getQueryMetrics().getSlowQueryThreshold();
+                QueryMetricsRecorder recorder = new QueryMetricsRecorder(meterRegistry.getObject(), slowQueryThreshold);
+                return new QueryMetricsConnectionFactory(connectionFactory, recorder);
+            }
+        };
+    }
+
+    /**
+     * Caps the number of SQL shapes the statement meters are tagged with.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "application.query-metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MeterFilter queryMetricsMeterFilter(ApplicationProperties applicationProperties) {
+        return QueryMetricsRecorder.maximumShapes(applicationProperties.getQueryMetrics().getMaximumShapes());
+    }
+
     @Bean
     public R2dbcDialect dialect(ConnectionFactory connectionFactory) {
         return DialectResolver.getDialect(connectionFactory);
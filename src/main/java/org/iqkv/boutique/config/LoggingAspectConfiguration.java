@@ -1,6 +1,9 @@
 package org.iqkv.boutique.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.iqkv.boutique.aop.logging.LoggingAspect;
+import org.iqkv.boutique.aop.logging.MethodTimingAspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import tech.jhipster.config.JHipsterConstants;
@@ -14,4 +17,10 @@ public class LoggingAspectConfiguration {
     public LoggingAspect loggingAspect(Environment env) {
         return new LoggingAspect(env);
     }
+
+    @Bean
+    @ConditionalOnExpression("${application.method-timing.sample-rate:0.1} > 0")
+    public MethodTimingAspect methodTimingAspect(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        return new MethodTimingAspect(meterRegistry, applicationProperties.getMethodTiming().getSampleRate());
+    }
 }
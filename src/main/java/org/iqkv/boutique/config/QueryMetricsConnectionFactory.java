@@ -0,0 +1,417 @@
+package org.iqkv.boutique.config;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.TransactionDefinition;
+import io.r2dbc.spi.ValidationDepth;
+import io.r2dbc.spi.Wrapped;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link ConnectionFactory} decorator recording the connection acquisitions and the execution of the statements into
+ * {@link QueryMetricsRecorder}.
+ * <p>
+ * An execution is timed from the subscription to the statement results until all their rows, or update counts, are consumed,
+ * as rows are streamed from the database while they are mapped. Batches are not instrumented.
+ */
+class QueryMetricsConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory> {
+
+    private final ConnectionFactory delegate;
+
+    private final QueryMetricsRecorder recorder;
+
+    QueryMetricsConnectionFactory(ConnectionFactory delegate, QueryMetricsRecorder recorder) {
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Mono.from(delegate.create())
+                .doOnSuccess(connection -> recorder.recordAcquire(System.nanoTime() - start, QueryMetricsRecorder.OUTCOME_SUCCESS))
+                .doOnError(e -> recorder.recordAcquire(System.nanoTime() - start, QueryMetricsRecorder.OUTCOME_ERROR))
+                .map(MeasuredConnection::new);
+        });
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    private final class MeasuredConnection implements Connection, Wrapped<Connection> {
+
+        private final Connection delegate;
+
+        MeasuredConnection(Connection delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Statement createStatement(String sql) {
+            return new MeasuredStatement(delegate.createStatement(sql), sql);
+        }
+
+        @Override
+        public Batch createBatch() {
+            return delegate.createBatch();
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction() {
+            return delegate.beginTransaction();
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction(TransactionDefinition definition) {
+            return delegate.beginTransaction(definition);
+        }
+
+        @Override
+        public Publisher<Void> commitTransaction() {
+            return delegate.commitTransaction();
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransaction() {
+            return delegate.rollbackTransaction();
+        }
+
+        @Override
+        public Publisher<Void> createSavepoint(String name) {
+            return delegate.createSavepoint(name);
+        }
+
+        @Override
+        public Publisher<Void> releaseSavepoint(String name) {
+            return delegate.releaseSavepoint(name);
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+            return delegate.rollbackTransactionToSavepoint(name);
+        }
+
+        @Override
+        public boolean isAutoCommit() {
+            return delegate.isAutoCommit();
+        }
+
+        @Override
+        public Publisher<Void> setAutoCommit(boolean autoCommit) {
+            return delegate.setAutoCommit(autoCommit);
+        }
+
+        @Override
+        public IsolationLevel getTransactionIsolationLevel() {
+            return delegate.getTransactionIsolationLevel();
+        }
+
+        @Override
+        public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+            return delegate.setTransactionIsolationLevel(isolationLevel);
+        }
+
+        @Override
+        public Publisher<Void> setLockWaitTimeout(Duration timeout) {
+            return delegate.setLockWaitTimeout(timeout);
+        }
+
+        @Override
+        public Publisher<Void> setStatementTimeout(Duration timeout) {
+            return delegate.setStatementTimeout(timeout);
+        }
+
+        @Override
+        public ConnectionMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public Publisher<Boolean> validate(ValidationDepth depth) {
+            return delegate.validate(depth);
+        }
+
+        @Override
+        public Publisher<Void> close() {
+            return delegate.close();
+        }
+
+        @Override
+        public Connection unwrap() {
+            return delegate;
+        }
+    }
+
+    private final class MeasuredStatement implements Statement {
+
+        private final Statement delegate;
+
+        private final String sql;
+
+        private int bindings;
+
+        MeasuredStatement(Statement delegate, String sql) {
+            this.delegate = delegate;
+            this.sql = sql;
+        }
+
+        @Override
+        public Statement add() {
+            delegate.add();
+            return this;
+        }
+
+        @Override
+        public Statement bind(int index, Object value) {
+            bindings++;
+            delegate.bind(index, value);
+            return this;
+        }
+
+        @Override
+        public Statement bind(String name, Object value) {
+            bindings++;
+            delegate.bind(name, value);
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(int index, Class<?> type) {
+            bindings++;
+            delegate.bindNull(index, type);
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(String name, Class<?> type) {
+            bindings++;
+            delegate.bindNull(name, type);
+            return this;
+        }
+
+        @Override
+        public Statement returnGeneratedValues(String... columns) {
+            delegate.returnGeneratedValues(columns);
+            return this;
+        }
+
+        @Override
+        public Statement fetchSize(int rows) {
+            delegate.fetchSize(rows);
+            return this;
+        }
+
+        @Override
+        public Publisher<? extends Result> execute() {
+            int boundParameters = bindings;
+            return Flux.defer(() -> {
+                Execution execution = new Execution(sql, boundParameters);
+                return Flux.from(delegate.execute())
+                    .<Result>map(result -> execution.measure(result))
+                    .doOnComplete(() -> execution.complete(QueryMetricsRecorder.OUTCOME_SUCCESS))
+                    .doOnError(e -> execution.complete(QueryMetricsRecorder.OUTCOME_ERROR))
+                    .doOnCancel(execution::cancel);
+            });
+        }
+    }
+
+    /**
+     * One execution of a statement, recorded once its results and all their rows are consumed.
+     */
+    private final class Execution {
+
+        private final String sql;
+
+        private final int bindings;
+
+        private final long start = System.nanoTime();
+
+        private final AtomicInteger pending = new AtomicInteger(1);
+
+        private final AtomicLong rows = new AtomicLong();
+
+        private final AtomicLong fetchedBytes = new AtomicLong();
+
+        private final AtomicBoolean failed = new AtomicBoolean();
+
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        Execution(String sql, int bindings) {
+            this.sql = sql;
+            this.bindings = bindings;
+        }
+
+        Result measure(Result result) {
+            pending.incrementAndGet();
+            return new MeasuredResult(result, this);
+        }
+
+        <T> Publisher<T> consume(Publisher<T> publisher) {
+            return Flux.from(publisher)
+                .doOnComplete(() -> complete(QueryMetricsRecorder.OUTCOME_SUCCESS))
+                .doOnError(e -> complete(QueryMetricsRecorder.OUTCOME_ERROR))
+                .doOnCancel(this::cancel);
+        }
+
+        Row read(Row row) {
+            rows.incrementAndGet();
+            return new MeasuredRow(row, this);
+        }
+
+        void fetched(Object value) {
+            if (value instanceof byte[] bytes) {
+                fetchedBytes.addAndGet(bytes.length);
+            } else if (value instanceof ByteBuffer buffer) {
+                fetchedBytes.addAndGet(buffer.remaining());
+            } else if (value instanceof CharSequence text) {
+                fetchedBytes.addAndGet(utf8Length(text));
+            }
+        }
+
+        void complete(String outcome) {
+            if (!QueryMetricsRecorder.OUTCOME_SUCCESS.equals(outcome)) {
+                failed.set(true);
+            }
+            if (pending.decrementAndGet() == 0) {
+                record(failed.get() ? QueryMetricsRecorder.OUTCOME_ERROR : QueryMetricsRecorder.OUTCOME_SUCCESS);
+            }
+        }
+
+        /**
+         * The rows left are not read once the consumer cancelled: the execution ends there.
+         */
+        void cancel() {
+            record(failed.get() ? QueryMetricsRecorder.OUTCOME_ERROR : QueryMetricsRecorder.OUTCOME_CANCELLED);
+        }
+
+        private void record(String outcome) {
+            if (recorded.compareAndSet(false, true)) {
+                recorder.record(sql, bindings, System.nanoTime() - start, rows.get(), fetchedBytes.get(), outcome);
+            }
+        }
+    }
+
+    private static final class MeasuredResult implements Result {
+
+        private final Result delegate;
+
+        private final Execution execution;
+
+        MeasuredResult(Result delegate, Execution execution) {
+            this.delegate = delegate;
+            this.execution = execution;
+        }
+
+        @Override
+        public Publisher<Long> getRowsUpdated() {
+            return execution.consume(delegate.getRowsUpdated());
+        }
+
+        @Override
+        public <T> Publisher<T> map(BiFunction<Row, RowMetadata, ? extends T> mappingFunction) {
+            return execution.consume(delegate.map((row, metadata) -> mappingFunction.apply(execution.read(row), metadata)));
+        }
+
+        @Override
+        public <T> Publisher<T> map(Function<? super Readable, ? extends T> mappingFunction) {
+            return execution.consume(
+                delegate.map((Readable readable) ->
+                    mappingFunction.apply(readable instanceof Row row ? execution.read(row) : readable)
+                )
+            );
+        }
+
+        @Override
+        public Result filter(Predicate<Segment> filter) {
+            return new MeasuredResult(delegate.filter(filter), execution);
+        }
+
+        @Override
+        public <T> Publisher<T> flatMap(Function<Segment, ? extends Publisher<? extends T>> mappingFunction) {
+            return execution.consume(
+                delegate.flatMap(segment -> {
+                    if (segment instanceof RowSegment rowSegment) {
+                        Row row = execution.read(rowSegment.row());
+                        return mappingFunction.apply((RowSegment) () -> row);
+                    }
+                    return mappingFunction.apply(segment);
+                })
+            );
+        }
+    }
+
+    private static final class MeasuredRow implements Row {
+
+        private final Row delegate;
+
+        private final Execution execution;
+
+        MeasuredRow(Row delegate, Execution execution) {
+            this.delegate = delegate;
+            this.execution = execution;
+        }
+
+        @Override
+        public RowMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public <T> T get(int index, Class<T> type) {
+            T value = delegate.get(index, type);
+            execution.fetched(value);
+            return value;
+        }
+
+        @Override
+        public <T> T get(String name, Class<T> type) {
+            T value = delegate.get(name, type);
+            execution.fetched(value);
+            return value;
+        }
+    }
+
+    /**
+     * Returns the length of the text encoded in UTF-8, the encoding of the connection, without encoding it.
+     */
+    static long utf8Length(CharSequence text) {
+        long length = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x800 && !Character.isSurrogate(c)) {
+                length += 2;
+            } else if (c >= 0x80) {
+                // 2 bytes below U+0800, and 4 bytes for the 2 surrogates of a supplementary character
+                length += 1;
+            }
+        }
+        return length;
+    }
+}
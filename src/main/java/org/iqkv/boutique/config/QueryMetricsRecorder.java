@@ -0,0 +1,179 @@
+package org.iqkv.boutique.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Records the connection acquisitions and the statements run through a {@link QueryMetricsConnectionFactory}, the statements
+ * per SQL shape: the statement with its literals, bind markers and repeated value lists replaced, so that the statements
+ * differing by their values only share their meters.
+ * <p>
+ * The meters are tagged with a short hash of the shape, rather than the shape itself, and the shape of each hash is logged once
+ * when it is first seen. The number of tagged shapes is capped by {@link #maximumShapes(int)}.
+ * <p>
+ * Statements slower than the configured threshold are logged with their shape and number of bound parameters, never with the
+ * bound values.
+ */
+class QueryMetricsRecorder {
+
+    static final String DURATION_METER_NAME = "boutique.r2dbc.query.duration";
+    static final String ROWS_METER_NAME = "boutique.r2dbc.query.rows";
+    static final String FETCHED_METER_NAME = "boutique.r2dbc.query.fetched";
+    static final String ACQUIRE_METER_NAME = "boutique.r2dbc.connection.acquire";
+
+    static final String QUERY_METERS_PREFIX = "boutique.r2dbc.query";
+    static final String QUERY_TAG = "query";
+
+    static final String OUTCOME_SUCCESS = "success";
+    static final String OUTCOME_ERROR = "error";
+    static final String OUTCOME_CANCELLED = "cancelled";
+
+    private static final int MAXIMUM_SHAPES = 1000;
+
+    private static final int SHAPE_ID_LENGTH = 12;
+
+    private static final Duration[] SERVICE_LEVEL_OBJECTIVES = {
+        Duration.ofMillis(1),
+        Duration.ofMillis(5),
+        Duration.ofMillis(10),
+        Duration.ofMillis(25),
+        Duration.ofMillis(50),
+        Duration.ofMillis(100),
+        Duration.ofMillis(250),
+        Duration.ofMillis(500),
+        Duration.ofSeconds(1),
+        Duration.ofSeconds(5),
+    };
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern COMMA = Pattern.compile(" ?, ?");
+    private static final Pattern BIND_MARKER = Pattern.compile("\\$\\d+");
+    private static final Pattern NUMBER = Pattern.compile("(?<![\\w$.])\\d+(?:\\.\\d+)?(?!\\w)");
+    private static final Pattern VALUE_LISTS = Pattern.compile("(\\((?:\\?, )*\\?\\))(?:, \\((?:\\?, )*\\?\\))+");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN \\((?:\\?, )+\\?\\)");
+
+    private final Logger log = LoggerFactory.getLogger(QueryMetricsRecorder.class);
+
+    private final Cache<String, Shape> shapes = Caffeine.newBuilder().maximumSize(MAXIMUM_SHAPES).build();
+
+    // the ids already logged, several statements can have the same shape
+    private final Cache<String, Boolean> loggedShapeIds = Caffeine.newBuilder().maximumSize(MAXIMUM_SHAPES).build();
+
+    private final Meter.MeterProvider<Timer> durations;
+
+    private final Meter.MeterProvider<DistributionSummary> rows;
+
+    private final Meter.MeterProvider<DistributionSummary> fetched;
+
+    private final Meter.MeterProvider<Timer> acquisitions;
+
+    private final long slowQueryThresholdNanos;
+
+    QueryMetricsRecorder(MeterRegistry meterRegistry, Duration slowQueryThreshold) {
+        this.durations = Timer.builder(DURATION_METER_NAME)
+            .description("Duration of the SQL statements, until their rows are consumed")
+            .serviceLevelObjectives(SERVICE_LEVEL_OBJECTIVES)
+            .withRegistry(meterRegistry);
+        this.rows = DistributionSummary.builder(ROWS_METER_NAME)
+            .description("Rows returned by the SQL statements")
+            .baseUnit("rows")
+            .withRegistry(meterRegistry);
+        this.fetched = DistributionSummary.builder(FETCHED_METER_NAME)
+            .description("Size of the binary values and of the UTF-8 encoded text values read from the rows returned by the SQL statements")
+            .baseUnit("bytes")
+            .withRegistry(meterRegistry);
+        this.acquisitions = Timer.builder(ACQUIRE_METER_NAME)
+            .description("Time waited for a connection, opened or taken from the pool")
+            .serviceLevelObjectives(SERVICE_LEVEL_OBJECTIVES)
+            .withRegistry(meterRegistry);
+        this.slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+    }
+
+    /**
+     * Records one execution of a statement.
+     *
+     * @param sql the statement, as sent to the database.
+     * @param bindings the number of parameters bound to the statement, over all its bindings.
+     * @param durationNanos the time from the execution to the consumption of the rows.
+     * @param rowCount the number of rows returned.
+     * @param fetchedBytes the size in bytes of the binary values and of the UTF-8 encoded text values read from the rows.
+     * @param outcome {@link #OUTCOME_SUCCESS}, {@link #OUTCOME_ERROR} or {@link #OUTCOME_CANCELLED}.
+     */
+    void record(String sql, int bindings, long durationNanos, long rowCount, long fetchedBytes, String outcome) {
+        Shape shape = shapes.get(sql, statement -> Shape.of(shape(statement)));
+        if (loggedShapeIds.asMap().putIfAbsent(shape.id(), Boolean.TRUE) == null) {
+            log.info("Query {}: {}", shape.id(), shape.sql());
+        }
+        durations.withTags(QUERY_TAG, shape.id(), "outcome", outcome).record(durationNanos, TimeUnit.NANOSECONDS);
+        rows.withTags(QUERY_TAG, shape.id()).record(rowCount);
+        fetched.withTags(QUERY_TAG, shape.id()).record(fetchedBytes);
+        if (durationNanos >= slowQueryThresholdNanos) {
+            log.warn(
+                "Slow query {}: {} ms, {} rows, {} bound parameters, {}: {}",
+                shape.id(),
+                TimeUnit.NANOSECONDS.toMillis(durationNanos),
+                rowCount,
+                bindings,
+                outcome,
+                shape.sql()
+            );
+        }
+    }
+
+    /**
+     * Records one connection acquisition.
+     *
+     * @param durationNanos the time waited for the connection.
+     * @param outcome {@link #OUTCOME_SUCCESS} or {@link #OUTCOME_ERROR}, when no connection could be acquired in time.
+     */
+    void recordAcquire(long durationNanos, String outcome) {
+        acquisitions.withTags("outcome", outcome).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Caps the number of shapes the statement meters are tagged with: the statements of further shapes are not recorded, but
+     * still logged when slow.
+     *
+     * @param maximum the maximum number of shapes.
+     * @return the filter, to configure on the meter registry.
+     */
+    static MeterFilter maximumShapes(int maximum) {
+        return MeterFilter.maximumAllowableTags(QUERY_METERS_PREFIX, QUERY_TAG, maximum, MeterFilter.deny());
+    }
+
+    /**
+     * @return the id of a shape, a short and stable hash of it.
+     */
+    static String shapeId(String shape) {
+        return DigestUtils.md5DigestAsHex(shape.getBytes(StandardCharsets.UTF_8)).substring(0, SHAPE_ID_LENGTH);
+    }
+
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = WHITESPACE.matcher(shape).replaceAll(" ").trim();
+        shape = COMMA.matcher(shape).replaceAll(", ");
+        shape = BIND_MARKER.matcher(shape).replaceAll("?");
+        shape = NUMBER.matcher(shape).replaceAll("?");
+        shape = VALUE_LISTS.matcher(shape).replaceAll("$1, ...");
+        return IN_LIST.matcher(shape).replaceAll("IN (?)");
+    }
+
+    private record Shape(String id, String sql) {
+        static Shape of(String sql) {
+            return new Shape(shapeId(sql), sql);
+        }
+    }
+}
@@ -34,8 +34,11 @@ public class WebConfigurer implements WebFluxConfigurer {
 
     private final JHipsterProperties jHipsterProperties;
 
-    public WebConfigurer(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public WebConfigurer(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Bean
@@ -55,7 +58,10 @@ public class WebConfigurer implements WebFluxConfigurer {
     // TODO: remove when this is supported in spring-boot
     @Bean
     HandlerMethodArgumentResolver reactivePageableHandlerMethodArgumentResolver() {
-        return new ReactivePageableHandlerMethodArgumentResolver();
+        ReactivePageableHandlerMethodArgumentResolver resolver = new ReactivePageableHandlerMethodArgumentResolver();
+        // larger pages are served with the maximum size, so a single request never loads a whole table
+        resolver.setMaxPageSize(applicationProperties.getPagination().getMaxPageSize());
+        return resolver;
     }
 
     // TODO: remove when this is supported in spring-boot
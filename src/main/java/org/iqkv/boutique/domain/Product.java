@@ -47,6 +47,9 @@ public class Product implements Serializable {
     @Column("image_content_type")
     private String imageContentType;
 
+    @Transient
+    private Long imageSize;
+
     @Transient
     @JsonIgnoreProperties(value = { "products" }, allowSetters = true)
     private ProductCategory productCategory;
@@ -147,6 +150,19 @@ public class Product implements Serializable {
         this.imageContentType = imageContentType;
     }
 
+    public Long getImageSize() {
+        return this.imageSize;
+    }
+
+    public Product imageSize(Long imageSize) {
+        this.setImageSize(imageSize);
+        return this;
+    }
+
+    public void setImageSize(Long imageSize) {
+        this.imageSize = imageSize;
+    }
+
     public ProductCategory getProductCategory() {
         return this.productCategory;
     }
@@ -0,0 +1,19 @@
+package org.iqkv.boutique.domain;
+
+/**
+ * Metadata of the image of a {@link Product}, or of one of its scaled variants, without its bytes.
+ *
+ * @param variant the variant of the image, {@link #ORIGINAL} for the image of the product.
+ * @param contentType the media type of the image.
+ * @param size the number of bytes of the image.
+ * @param hash the hex encoded MD5 digest of the image bytes, computed by the database when the image is written.
+ */
+public record ProductImage(String variant, String contentType, long size, String hash) {
+    public static final String ORIGINAL = "original";
+
+    public static final String THUMBNAIL = "thumbnail";
+
+    public boolean isOriginal() {
+        return ORIGINAL.equals(variant);
+    }
+}
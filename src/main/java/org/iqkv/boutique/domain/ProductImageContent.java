@@ -0,0 +1,10 @@
+package org.iqkv.boutique.domain;
+
+/**
+ * The image of a {@link Product}, or one of its scaled variants, with its bytes, read by a single statement so that the
+ * metadata always describes the bytes.
+ *
+ * @param image the metadata of the image.
+ * @param bytes the bytes of the image.
+ */
+public record ProductImageContent(ProductImage image, byte[] bytes) {}
@@ -0,0 +1,60 @@
+package org.iqkv.boutique.management;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import org.iqkv.boutique.config.ApplicationProperties;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.ReactiveHealthIndicator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Health of the R2DBC connection pool, part of the readiness group: down while more connection acquisitions are pending than
+ * the configured threshold, so the instance stops receiving traffic before its requests time out waiting for a connection.
+ */
+@Component
+public class R2dbcPoolHealthIndicator implements ReactiveHealthIndicator {
+
+    private final ConnectionPool connectionPool;
+
+    private final int maxPendingAcquires;
+
+    public R2dbcPoolHealthIndicator(ConnectionFactory connectionFactory, ApplicationProperties applicationProperties) {
+        this.connectionPool = findPool(connectionFactory);
+        this.maxPendingAcquires = applicationProperties.getDatabasePool().getMaxPendingAcquires();
+    }
+
+    private static ConnectionPool findPool(Object connectionFactory) {
+        if (connectionFactory instanceof ConnectionPool pool) {
+            return pool;
+        }
+        if (connectionFactory instanceof Wrapped<?> wrapped) {
+            return findPool(wrapped.unwrap());
+        }
+        return null;
+    }
+
+    @Override
+    public Mono<Health> health() {
+        return Mono.fromSupplier(this::poolHealth);
+    }
+
+    private Health poolHealth() {
+        PoolMetrics metrics = connectionPool != null ? connectionPool.getMetrics().orElse(null) : null;
+        if (metrics == null) {
+            return Health.unknown().withDetail("reason", "The connection factory is not an instrumented pool").build();
+        }
+        int pending = metrics.pendingAcquireSize();
+        Health.Builder builder = pending > maxPendingAcquires ? Health.down() : Health.up();
+        return builder
+            .withDetail("acquired", metrics.acquiredSize())
+            .withDetail("idle", metrics.idleSize())
+            .withDetail("allocated", metrics.allocatedSize())
+            .withDetail("maxAllocated", metrics.getMaxAllocatedSize())
+            .withDetail("pending", pending)
+            .withDetail("maxPendingAcquires", maxPendingAcquires)
+            .build();
+    }
+}
@@ -1,5 +1,6 @@
 package org.iqkv.boutique.repository;
 
+import java.util.Set;
 import org.iqkv.boutique.domain.CustomerDetails;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -13,8 +14,16 @@ import reactor.core.publisher.Mono;
 @SuppressWarnings("unused")
 @Repository
 public interface CustomerDetailsRepository extends ReactiveCrudRepository<CustomerDetails, Long>, CustomerDetailsRepositoryInternal {
+    /**
+     * Sort properties of the keyset pagination, each one is backed by a {@code (property, id)} index.
+     */
+    Set<String> KEYSET_SORT_PROPERTIES = Set.of(Keyset.ID_PROPERTY, "city");
+
     Flux<CustomerDetails> findAllBy(Pageable pageable);
 
+    @Override
+    Flux<CustomerDetails> findAllAfter(Keyset keyset);
+
     @Override
     <S extends CustomerDetails> Mono<S> save(S entity);
 
@@ -31,11 +40,19 @@ public interface CustomerDetailsRepository extends ReactiveCrudRepository<Custom
 interface CustomerDetailsRepositoryInternal {
     <S extends CustomerDetails> Mono<S> save(S entity);
 
+    Mono<CustomerDetails> update(CustomerDetails customerDetails);
+
+    Mono<CustomerDetails> partialUpdate(CustomerDetails customerDetails);
+
     Flux<CustomerDetails> findAllBy(Pageable pageable);
 
+    Flux<CustomerDetails> findAllAfter(Keyset keyset);
+
     Flux<CustomerDetails> findAll();
 
     Mono<CustomerDetails> findById(Long id);
+
+    Mono<String> findVersionById(Long id);
     // this is not supported at the moment because of https://github.com/jhipster/generator-jhipster/issues/18269
     // Flux<CustomerDetails> findAllBy(Pageable pageable, Criteria criteria);
 }
@@ -10,16 +10,17 @@ import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.support.SimpleR2dbcRepository;
-import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -39,6 +40,19 @@ class CustomerDetailsRepositoryInternalImpl
 
     private static final Table entityTable = Table.aliased("customer_details", EntityManager.ENTITY_ALIAS);
 
+    private static final String VERSION_SELECT = "SELECT e.xmin::text AS version FROM customer_details e WHERE e.id = :id";
+
+    private static final List<String> PARTIAL_UPDATE_COLUMNS = List.of(
+        "gender",
+        "phone",
+        "address_line_1",
+        "address_line_2",
+        "city",
+        "country"
+    );
+
+    private static final Condition idCondition = Conditions.isEqual(entityTable.column("id"), SQL.bindMarker(":id"));
+
     public CustomerDetailsRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
@@ -59,15 +73,32 @@ class CustomerDetailsRepositoryInternalImpl
 
     @Override
     public Flux<CustomerDetails> findAllBy(Pageable pageable) {
-        return createQuery(pageable, null).all();
+        return createQuery("findAll", pageable, null).map(this::process).all();
     }
 
-    RowsFetchSpec<CustomerDetails> createQuery(Pageable pageable, Condition whereClause) {
-        List<Expression> columns = CustomerDetailsSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
+    @Override
+    public Flux<CustomerDetails> findAllAfter(Keyset keyset) {
+        Assert.isTrue(CustomerDetailsRepository.KEYSET_SORT_PROPERTIES.contains(keyset.getProperty()), "Unsupported keyset sort property");
+        Condition whereClause = keyset.isFirst() ? null : EntityManager.createKeysetCondition(entityTable, keyset);
+        String select = entityManager.createSelect(
+            keyset.getShape(),
+            this::createSelectFrom,
+            CustomerDetails.class,
+            keyset.toPageable(),
+            whereClause
+        );
+        return entityManager.bindKeyset(db.sql(select), keyset).map(this::process).all();
+    }
+
+    GenericExecuteSpec createQuery(String shape, Pageable pageable, Condition whereClause) {
         // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, CustomerDetails.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
+        String select = entityManager.createSelect(shape, this::createSelectFrom, CustomerDetails.class, pageable, whereClause);
+        return entityManager.bindPage(db.sql(select), pageable);
+    }
+
+    private SelectFromAndJoin createSelectFrom() {
+        List<Expression> columns = CustomerDetailsSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        return Select.builder().select(columns).from(entityTable);
     }
 
     @Override
@@ -77,8 +108,12 @@ class CustomerDetailsRepositoryInternalImpl
 
     @Override
     public Mono<CustomerDetails> findById(Long id) {
-        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
-        return createQuery(null, whereClause).one();
+        return createQuery("findById", null, idCondition).bind("id", id).map(this::process).one();
+    }
+
+    @Override
+    public Mono<String> findVersionById(Long id) {
+        return db.sql(VERSION_SELECT).bind("id", id).map(row -> row.get("version", String.class)).one();
     }
 
     private CustomerDetails process(Row row, RowMetadata metadata) {
@@ -90,4 +125,21 @@ class CustomerDetailsRepositoryInternalImpl
     public <S extends CustomerDetails> Mono<S> save(S entity) {
         return super.save(entity);
     }
+
+    @Override
+    public Mono<CustomerDetails> update(CustomerDetails customerDetails) {
+        return entityManager.updateIfExists(customerDetails);
+    }
+
+    @Override
+    public Mono<CustomerDetails> partialUpdate(CustomerDetails customerDetails) {
+        return entityManager.updateNonNullColumns(
+            customerDetails,
+            entityTable,
+            PARTIAL_UPDATE_COLUMNS,
+            CustomerDetailsSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS),
+            (row, metadata) -> customerdetailsMapper.apply(row, "e"),
+            id -> findById((Long) id)
+        );
+    }
 }
@@ -1,25 +1,50 @@
 package org.iqkv.boutique.repository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.core.StatementMapper;
+import org.springframework.data.r2dbc.mapping.OutboundRow;
 import org.springframework.data.r2dbc.query.UpdateMapper;
 import org.springframework.data.relational.core.mapping.RelationalPersistentEntity;
+import org.springframework.data.relational.core.mapping.RelationalPersistentProperty;
 import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.data.relational.core.sql.Aliased;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Condition;
+import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.Expression;
 import org.springframework.data.relational.core.sql.OrderByField;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectOrdered;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectWhere;
+import org.springframework.data.relational.core.sql.SimpleFunction;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
 import org.springframework.r2dbc.core.Parameter;
 import org.springframework.stereotype.Component;
 import org.springframework.util.Assert;
@@ -36,6 +61,46 @@ public class EntityManager {
     public static final String ENTITY_ALIAS = "e";
     public static final String ALIAS_PREFIX = "e_";
 
+    /**
+     * Name of the bind marker holding the page size in select templates.
+     */
+    public static final String LIMIT_MARKER = "limit";
+
+    /**
+     * Name of the bind marker holding the page offset in select templates.
+     */
+    public static final String OFFSET_MARKER = "offset";
+
+    private static final String KEYSET_ID_MARKER = "keysetId";
+    private static final String KEYSET_VALUE_MARKER = "keysetValue";
+    private static final String UPDATE_ID_MARKER = "updateId";
+    private static final String UPDATED_TABLE = "updated";
+
+    /**
+     * Number of rows inserted by one statement of {@link #insertAll(Class, List, List)}, which bounds the size of the arrays
+     * bound to the statement.
+     */
+    static final int INSERT_BATCH_SIZE = 500;
+
+    /**
+     * Upper bound of cached select templates, sort parameters come from the client so the number of keys is not fixed.
+     */
+    static final int MAX_SELECT_TEMPLATES = 512;
+
+    /**
+     * Lookups of the select templates kept in memory, tagged with their {@link #SELECT_TEMPLATE_METER_RESULT_DIMENSION result}:
+     * {@code hit}, {@code miss} when the template is rendered and kept, or {@code overflow} when it is rendered but not kept
+     * because {@link #MAX_SELECT_TEMPLATES} templates are already cached.
+     * <p>
+     * This is not the prepared statement cache of the driver: r2dbc-postgresql does not report its reuse of server-side
+     * statements, which is bounded by {@code spring.r2dbc.properties.preparedStatementCacheQueries}.
+     */
+    public static final String SELECT_TEMPLATE_METER_NAME = "repository.select-template";
+    public static final String SELECT_TEMPLATE_METER_DESCRIPTION =
+        "Lookups of the select templates rendered by EntityManager and kept in memory, by result (hit, miss or overflow).";
+    public static final String SELECT_TEMPLATE_METER_RESULT_DIMENSION = "result";
+    public static final String SELECT_TEMPLATE_SIZE_METER_NAME = "repository.select-template.size";
+
     public static class LinkTable {
 
         final String tableName;
@@ -56,12 +121,35 @@ public class EntityManager {
     private final UpdateMapper updateMapper;
     private final R2dbcEntityTemplate r2dbcEntityTemplate;
     private final StatementMapper statementMapper;
+    private final Map<SelectTemplateKey, String> selectTemplates = new ConcurrentHashMap<>();
+    private final Map<UpdateTemplateKey, String> updateTemplates = new ConcurrentHashMap<>();
+    private final Map<InsertTemplateKey, String> insertTemplates = new ConcurrentHashMap<>();
+    private final Counter selectTemplateHitCounter;
+    private final Counter selectTemplateMissCounter;
+    private final Counter selectTemplateOverflowCounter;
 
-    public EntityManager(SqlRenderer sqlRenderer, UpdateMapper updateMapper, R2dbcEntityTemplate r2dbcEntityTemplate) {
+    public EntityManager(
+        SqlRenderer sqlRenderer,
+        UpdateMapper updateMapper,
+        R2dbcEntityTemplate r2dbcEntityTemplate,
+        MeterRegistry meterRegistry
+    ) {
         this.sqlRenderer = sqlRenderer;
         this.updateMapper = updateMapper;
         this.r2dbcEntityTemplate = r2dbcEntityTemplate;
         this.statementMapper = r2dbcEntityTemplate.getDataAccessStrategy().getStatementMapper();
+        this.selectTemplateHitCounter = selectTemplateCounterForResultBuilder("hit").register(meterRegistry);
+        this.selectTemplateMissCounter = selectTemplateCounterForResultBuilder("miss").register(meterRegistry);
+        this.selectTemplateOverflowCounter = selectTemplateCounterForResultBuilder("overflow").register(meterRegistry);
+        Gauge.builder(SELECT_TEMPLATE_SIZE_METER_NAME, selectTemplates, Map::size)
+            .description("Number of rendered select templates kept in memory.")
+            .register(meterRegistry);
+    }
+
+    private Counter.Builder selectTemplateCounterForResultBuilder(String result) {
+        return Counter.builder(SELECT_TEMPLATE_METER_NAME)
+            .description(SELECT_TEMPLATE_METER_DESCRIPTION)
+            .tag(SELECT_TEMPLATE_METER_RESULT_DIMENSION, result);
     }
 
     /**
@@ -128,6 +216,101 @@ public class EntityManager {
         }
     }
 
+    /**
+     * Returns the SQL select statement for the given query shape, rendering it only the first time the shape is requested.
+     * <p>
+     * The statement does not contain any value: paging is rendered as {@code LIMIT :limit OFFSET :offset} and
+     * the where condition must only use bind markers, so the same SQL text is shared by every call of the same shape.
+     * Use {@link #bindPage(GenericExecuteSpec, Pageable)} to bind the paging parameters.
+     * @param shape the name of the query shape (joins and where clause), unique for the entity type.
+     * @param selectFrom supplier of the select fragment, only called when the statement is rendered.
+     * @param entityType the entity type which holds the table name.
+     * @param pageable page parameter, or null, if everything needs to be returned.
+     * @param where condition or null. The condition to apply as where clause, with bind markers only.
+     * @return sql select statement
+     */
+    public String createSelect(
+        String shape,
+        Supplier<? extends SelectWhere> selectFrom,
+        Class<?> entityType,
+        Pageable pageable,
+        Condition where
+    ) {
+        boolean paged = pageable != null && pageable.isPaged();
+        Sort sort = pageable != null ? pageable.getSort() : Sort.unsorted();
+        SelectTemplateKey key = new SelectTemplateKey(entityType, shape, sort, paged);
+        String select = selectTemplates.get(key);
+        if (select != null) {
+            selectTemplateHitCounter.increment();
+        } else {
+            select = createSelectTemplate(selectFrom.get(), entityType, sort, paged, where);
+            if (selectTemplates.size() < MAX_SELECT_TEMPLATES) {
+                selectTemplates.putIfAbsent(key, select);
+                selectTemplateMissCounter.increment();
+            } else {
+                selectTemplateOverflowCounter.increment();
+            }
+        }
+        return select;
+    }
+
+    /**
+     * Returns the unsorted select statement already rendered for the given query shape, to check its plan.
+     * @param entityType the entity type which holds the table name.
+     * @param shape the name of the query shape.
+     * @param paged whether the statement is paged.
+     * @return the sql select statement, or null if the shape has not been rendered.
+     */
+    String findSelectTemplate(Class<?> entityType, String shape, boolean paged) {
+        return selectTemplates.get(new SelectTemplateKey(entityType, shape, Sort.unsorted(), paged));
+    }
+
+    /**
+     * Binds the paging parameters of a statement created by {@link #createSelect(String, Supplier, Class, Pageable, Condition)}.
+     * @param spec the statement to bind.
+     * @param pageable page parameter, or null, if everything needs to be returned.
+     * @return the statement with the paging parameters bound.
+     */
+    public GenericExecuteSpec bindPage(GenericExecuteSpec spec, Pageable pageable) {
+        if (pageable == null || pageable.isUnpaged()) {
+            return spec;
+        }
+        return spec.bind(LIMIT_MARKER, pageable.getPageSize()).bind(OFFSET_MARKER, pageable.getOffset());
+    }
+
+    /**
+     * Creates the where condition selecting the rows after the given keyset, which must not be the first page.
+     * The condition compares the {@code (sort key, id)} row value, so an index on these two columns can be used to seek to the page.
+     * @param table the table of the entity, the sort property and the id are columns of this table.
+     * @param keyset the position of the page.
+     * @return the condition, with bind markers only.
+     */
+    public static Condition createKeysetCondition(Table table, Keyset keyset) {
+        Assert.isTrue(!keyset.isFirst(), "The first page has no keyset condition");
+        String operator = keyset.getDirection().isAscending() ? " > " : " < ";
+        String alias = table.getReferenceName().getReference();
+        if (keyset.isSortedById()) {
+            return Conditions.just(alias + ".id" + operator + ":" + KEYSET_ID_MARKER);
+        }
+        String row = "(" + alias + "." + camelCaseToSnakeCase(keyset.getProperty()) + ", " + alias + ".id)";
+        return Conditions.just(row + operator + "(:" + KEYSET_VALUE_MARKER + ", :" + KEYSET_ID_MARKER + ")");
+    }
+
+    /**
+     * Binds the position of a keyset page, on a statement created with {@link #createKeysetCondition(Table, Keyset)}.
+     * @param spec the statement to bind.
+     * @param keyset the position of the page.
+     * @return the statement with the keyset bound.
+     */
+    public GenericExecuteSpec bindKeyset(GenericExecuteSpec spec, Keyset keyset) {
+        spec = bindPage(spec, keyset.toPageable());
+        if (keyset.isFirst()) {
+            return spec;
+        }
+        spec = spec.bind(KEYSET_ID_MARKER, keyset.getLastId());
+        return keyset.isSortedById() ? spec : spec.bind(KEYSET_VALUE_MARKER, keyset.getLastValue());
+    }
+
     /**
      * Generate an actual SQL from the given {@link Select}.
      * @param select a representation of a select statement.
@@ -137,6 +320,127 @@ public class EntityManager {
         return sqlRenderer.render(select);
     }
 
+    /**
+     * Updates all the columns of an existing entity, and tells from the number of updated rows whether it exists, so the
+     * update does not need to check the entity first.
+     * @param <T> the type of the entity.
+     * @param entity the entity holding the id of the row and all its values.
+     * @return the entity, or empty if no row has its id.
+     */
+    public <T> Mono<T> updateIfExists(T entity) {
+        RelationalPersistentEntity<?> persistentEntity = getPersistentEntity(entity.getClass());
+        SqlIdentifier idColumn = persistentEntity.getRequiredIdProperty().getColumnName();
+        Object id = persistentEntity.getIdentifierAccessor(entity).getRequiredIdentifier();
+        OutboundRow columns = r2dbcEntityTemplate.getDataAccessStrategy().getOutboundRow(entity);
+        columns.remove(idColumn);
+        Map<SqlIdentifier, Object> assignments = new LinkedHashMap<>(columns);
+        return r2dbcEntityTemplate
+            .update(Query.query(Criteria.where(idColumn.getReference()).is(id)), Update.from(assignments), entity.getClass())
+            .flatMap(updatedRows -> updatedRows > 0 ? Mono.just(entity) : Mono.empty());
+    }
+
+    /**
+     * Updates the columns of the entity which have a value, with one {@code UPDATE ... RETURNING} statement, instead of reading
+     * the row and writing all its columns back; the other columns keep their value. When no column has a value, the row is
+     * read instead, so an empty update does not write the row and does not change its version.
+     * <p>
+     * The statement is rendered once per entity type and set of updated columns, so an entity type must always return the
+     * same expressions.
+     * @param <T> the type of the entity.
+     * @param entity the entity holding the id of the row and the values to set.
+     * @param table the table of the entity, aliased with {@link #ENTITY_ALIAS}.
+     * @param columns the columns which may be updated, others are never set even when they have a value.
+     * @param returning the columns of the table to return, aliased with the {@link #ALIAS_PREFIX}.
+     * @param mapper the mapper of the returned row.
+     * @param reader the reader of the row by id, used when there is nothing to update.
+     * @return the updated entity, or empty if no row has the id of the entity.
+     */
+    public <T> Mono<T> updateNonNullColumns(
+        T entity,
+        Table table,
+        List<String> columns,
+        List<Expression> returning,
+        BiFunction<Row, RowMetadata, T> mapper,
+        Function<Object, Mono<T>> reader
+    ) {
+        Object id = getPersistentEntity(entity.getClass()).getIdentifierAccessor(entity).getRequiredIdentifier();
+        GenericExecuteSpec update = createUpdateSpec(entity, id, table, columns, returning);
+        return update != null ? update.map(mapper).one() : reader.apply(id);
+    }
+
+    /**
+     * Updates the columns of the entity which have a value, like
+     * {@link #updateNonNullColumns(Object, Table, List, List, BiFunction, Function)}, and reads the updated row along with its
+     * relationships in the same statement, which an {@code UPDATE ... RETURNING} cannot join:
+     * {@code WITH updated AS (UPDATE ... RETURNING e.*) SELECT ... FROM updated e LEFT OUTER JOIN ...}.
+     * <p>
+     * The select is rendered once per entity type and set of updated columns, so an entity type must always select the same
+     * columns and joins.
+     * @param <T> the type of the entity.
+     * @param entity the entity holding the id of the row and the values to set.
+     * @param table the table of the entity, aliased with {@link #ENTITY_ALIAS}.
+     * @param columns the columns which may be updated, others are never set even when they have a value.
+     * @param selectFrom the select of the entity with its relationships, from the given table aliased like the table of the
+     * entity, and without where clause.
+     * @param mapper the mapper of the selected row.
+     * @param reader the reader of the row by id, with its relationships, used when there is nothing to update.
+     * @return the updated entity, or empty if no row has the id of the entity.
+     */
+    public <T> Mono<T> updateNonNullColumnsThenSelect(
+        T entity,
+        Table table,
+        List<String> columns,
+        Function<Table, ? extends SelectWhere> selectFrom,
+        BiFunction<Row, RowMetadata, T> mapper,
+        Function<Object, Mono<T>> reader
+    ) {
+        Object id = getPersistentEntity(entity.getClass()).getIdentifierAccessor(entity).getRequiredIdentifier();
+        Map<String, Object> values = getNonNullValues(entity);
+        List<String> updatedColumns = columns.stream().filter(values::containsKey).toList();
+        if (updatedColumns.isEmpty()) {
+            return reader.apply(id);
+        }
+        String update = createUpdateThenSelect(entity.getClass(), table, updatedColumns, selectFrom);
+        return bindUpdate(update, id, updatedColumns, values).map(mapper).one();
+    }
+
+    /**
+     * Creates the update of the columns of the entity which have a value, or returns null if none has a value.
+     */
+    private GenericExecuteSpec createUpdateSpec(Object entity, Object id, Table table, List<String> columns, List<Expression> returning) {
+        Map<String, Object> values = getNonNullValues(entity);
+        List<String> updatedColumns = columns.stream().filter(values::containsKey).toList();
+        if (updatedColumns.isEmpty()) {
+            return null;
+        }
+        return bindUpdate(createUpdate(entity.getClass(), table, updatedColumns, returning), id, updatedColumns, values);
+    }
+
+    /**
+     * Returns the converted values of the columns which have a value, unwrapped from the outbound row of the entity: only
+     * these columns are updated, so the values are bound as they are and never as nulls.
+     */
+    private Map<String, Object> getNonNullValues(Object entity) {
+        Map<String, Object> values = new HashMap<>();
+        r2dbcEntityTemplate
+            .getDataAccessStrategy()
+            .getOutboundRow(entity)
+            .forEach((column, value) -> {
+                if (value.hasValue()) {
+                    values.put(column.getReference(), value.getValue());
+                }
+            });
+        return values;
+    }
+
+    private GenericExecuteSpec bindUpdate(String update, Object id, List<String> updatedColumns, Map<String, Object> values) {
+        GenericExecuteSpec spec = r2dbcEntityTemplate.getDatabaseClient().sql(update).bind(UPDATE_ID_MARKER, id);
+        for (String column : updatedColumns) {
+            spec = spec.bind(column, values.get(column));
+        }
+        return spec;
+    }
+
     /**
      * Delete all the entity with the given type, and return the number of deletions.
      * @param entityType the entity type which holds the table name.
@@ -166,6 +470,60 @@ public class EntityManager {
         return r2dbcEntityTemplate.insert(entity);
     }
 
+    /**
+     * Inserts the given entities, with one statement per {@link #INSERT_BATCH_SIZE} entities, and sets their generated ids.
+     * <p>
+     * Each column is bound as one array, so the text of the statement does not depend on the number of rows and is prepared
+     * once. The ids are taken from the sequence of the id column in the statement, and returned in the order of the arrays
+     * by their ordinality, so the returned rows do not need to follow the order of the inserted ones:
+     * {@code WITH batch AS (SELECT nextval(...) AS id, b.* FROM unnest(...) WITH ORDINALITY AS b(..., ordinality)),
+     * inserted AS (INSERT ... SELECT ... FROM batch) SELECT id FROM batch ORDER BY ordinality}.
+     * @param <T> the type of the entities.
+     * @param entityType the entity type which holds the table name.
+     * @param entities the entities to insert, without id.
+     * @param columns the inserted columns, the others get their default value.
+     * @return the inserted entities, with their id, in the given order.
+     */
+    public <T> Flux<T> insertAll(Class<T> entityType, List<T> entities, List<String> columns) {
+        String insert = createInsert(entityType, columns);
+        return Flux.fromIterable(entities).buffer(INSERT_BATCH_SIZE).concatMap(batch -> insertBatch(entityType, batch, columns, insert));
+    }
+
+    private <T> Flux<T> insertBatch(Class<T> entityType, List<T> entities, List<String> columns, String insert) {
+        RelationalPersistentEntity<?> persistentEntity = getPersistentEntity(entityType);
+        RelationalPersistentProperty idProperty = persistentEntity.getRequiredIdProperty();
+        Object[][] arrays = new Object[columns.size()][];
+        for (int i = 0; i < entities.size(); i++) {
+            int index = i;
+            r2dbcEntityTemplate
+                .getDataAccessStrategy()
+                .getOutboundRow(entities.get(i))
+                .forEach((column, value) -> {
+                    int position = columns.indexOf(column.getReference());
+                    if (position >= 0) {
+                        if (arrays[position] == null) {
+                            // an array of the converted type, which the driver binds as an array of the column type
+                            arrays[position] = (Object[]) Array.newInstance(value.getType(), entities.size());
+                        }
+                        arrays[position][index] = value.getValue();
+                    }
+                });
+        }
+        GenericExecuteSpec spec = r2dbcEntityTemplate.getDatabaseClient().sql(insert);
+        for (int position = 0; position < columns.size(); position++) {
+            spec = spec.bind(columns.get(position), arrays[position]);
+        }
+        return spec
+            .map(row -> row.get(idProperty.getColumnName().getReference(), idProperty.getType()))
+            .all()
+            .index()
+            .map(generated -> {
+                T entity = entities.get(generated.getT1().intValue());
+                persistentEntity.getPropertyAccessor(entity).setProperty(idProperty, generated.getT2());
+                return entity;
+            });
+    }
+
     /**
      * Updates the table, which links the entity with the referred entities.
      * @param table describes the link table, it contains a table name, the column name for the id, and for the referred entity id.
@@ -214,6 +572,106 @@ public class EntityManager {
         return createSelect(selectFrom.build());
     }
 
+    private String createSelectTemplate(SelectWhere selectFrom, Class<?> entityType, Sort sort, boolean paged, Condition where) {
+        String select = createSelectImpl(where != null ? selectFrom.where(where) : selectFrom, entityType, sort);
+        // the dialect renders LIMIT and OFFSET as literals, so the PostgreSQL clause is appended with bind markers instead
+        return paged ? select + " LIMIT :" + LIMIT_MARKER + " OFFSET :" + OFFSET_MARKER : select;
+    }
+
+    /**
+     * Creates the statement of {@link #updateNonNullColumns(Object, Table, List, List, BiFunction, Function)}, binding the id
+     * as {@code :updateId} and each value under the name of its column.
+     */
+    String createUpdate(Class<?> entityType, Table table, List<String> updatedColumns, List<Expression> returning) {
+        Assert.notEmpty(updatedColumns, "updatedColumns is empty");
+        return updateTemplates.computeIfAbsent(new UpdateTemplateKey(entityType, updatedColumns, false), key ->
+            createUpdateTemplate(
+                table,
+                getPersistentEntity(entityType),
+                updatedColumns,
+                returning.stream().map(EntityManager::renderReturned).collect(Collectors.joining(", "))
+            )
+        );
+    }
+
+    /**
+     * Creates the statement of {@link #updateNonNullColumnsThenSelect(Object, Table, List, Function, BiFunction, Function)},
+     * binding the id as {@code :updateId} and each value under the name of its column.
+     */
+    String createUpdateThenSelect(
+        Class<?> entityType,
+        Table table,
+        List<String> updatedColumns,
+        Function<Table, ? extends SelectWhere> selectFrom
+    ) {
+        Assert.notEmpty(updatedColumns, "updatedColumns is empty");
+        return updateTemplates.computeIfAbsent(new UpdateTemplateKey(entityType, updatedColumns, true), key -> {
+            String alias = table.getReferenceName().getReference();
+            String update = createUpdateTemplate(table, getPersistentEntity(entityType), updatedColumns, alias + ".*");
+            // the updated row replaces the table in the select, under the same alias, so the columns and joins are unchanged
+            String select = createSelect(selectFrom.apply(Table.create(UPDATED_TABLE).as(alias)).build());
+            return "WITH " + UPDATED_TABLE + " AS (" + update + ") " + select;
+        });
+    }
+
+    private String createUpdateTemplate(
+        Table table,
+        RelationalPersistentEntity<?> persistentEntity,
+        List<String> updatedColumns,
+        String returnedColumns
+    ) {
+        String alias = table.getReferenceName().getReference();
+        String idColumn = persistentEntity.getRequiredIdProperty().getColumnName().getReference();
+        String assignments = updatedColumns.stream().map(column -> column + " = :" + column).collect(Collectors.joining(", "));
+        return (
+            "UPDATE " + persistentEntity.getTableName().getReference() + " " + alias + " SET " + assignments +
+            " WHERE " + alias + "." + idColumn + " = :" + UPDATE_ID_MARKER + " RETURNING " + returnedColumns
+        );
+    }
+
+    /**
+     * Creates the statement of {@link #insertAll(Class, List, List)}, binding the array of each column under its name.
+     */
+    String createInsert(Class<?> entityType, List<String> columns) {
+        Assert.notEmpty(columns, "columns is empty");
+        return insertTemplates.computeIfAbsent(new InsertTemplateKey(entityType, columns), key ->
+            createInsertTemplate(getPersistentEntity(entityType), columns)
+        );
+    }
+
+    private static String createInsertTemplate(RelationalPersistentEntity<?> persistentEntity, List<String> columns) {
+        String tableName = persistentEntity.getTableName().getReference();
+        String idColumn = persistentEntity.getRequiredIdProperty().getColumnName().getReference();
+        String columnList = String.join(", ", columns);
+        String arrays = columns.stream().map(column -> ":" + column).collect(Collectors.joining(", "));
+        return (
+            "WITH batch AS (SELECT nextval(pg_get_serial_sequence('" + tableName + "', '" + idColumn + "')) AS " + idColumn +
+            ", b.* FROM unnest(" + arrays + ") WITH ORDINALITY AS b(" + columnList + ", ordinality)), " +
+            "inserted AS (INSERT INTO " + tableName + " (" + idColumn + ", " + columnList + ") " +
+            "SELECT " + idColumn + ", " + columnList + " FROM batch) " +
+            "SELECT " + idColumn + " FROM batch ORDER BY ordinality"
+        );
+    }
+
+    /**
+     * Renders a returned expression, a column of the table or a function of its columns, with its alias if any.
+     */
+    private static String renderReturned(Expression expression) {
+        String rendered;
+        if (expression instanceof Column column) {
+            rendered = column.getTable().getReferenceName().getReference() + "." + column.getName().getReference();
+        } else if (expression instanceof SimpleFunction function) {
+            rendered =
+                function.getFunctionName() +
+                "(" +
+                function.getExpressions().stream().map(EntityManager::renderReturned).collect(Collectors.joining(", ")) +
+                ")";
+        } else {
+            throw new IllegalArgumentException("Unsupported returned expression: " + expression);
+        }
+        return expression instanceof Aliased aliased ? rendered + " AS " + aliased.getAlias().getReference() : rendered;
+    }
+
     private RelationalPersistentEntity<?> getPersistentEntity(Class<?> entityType) {
         return r2dbcEntityTemplate.getConverter().getMappingContext().getPersistentEntity(entityType);
     }
@@ -258,6 +716,22 @@ public class EntityManager {
         );
     }
 
+    /**
+     * Identifies a rendered select: the same key always renders to the same SQL text.
+     */
+    private record SelectTemplateKey(Class<?> entityType, String shape, Sort sort, boolean paged) {}
+
+    /**
+     * Identifies a rendered partial update: the set of updated columns of an entity type, and whether the row is selected
+     * with its relationships.
+     */
+    private record UpdateTemplateKey(Class<?> entityType, List<String> columns, boolean selected) {}
+
+    /**
+     * Identifies a rendered batch insert: the set of inserted columns of an entity type.
+     */
+    private record InsertTemplateKey(Class<?> entityType, List<String> columns) {}
+
     /**
      * Converts a camel case string to snake case.
      *
@@ -0,0 +1,155 @@
+package org.iqkv.boutique.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.Assert;
+
+/**
+ * Position of a page in a listing paginated with a keyset (seek) instead of an offset.
+ * <p>
+ * Rows are ordered by a sort property and then by id, and a page starts right after the last row of the previous page,
+ * so the database seeks to the page through an index instead of reading and discarding all the previous rows.
+ * A keyset is handed to clients as an opaque cursor, see {@link #toCursor()} and {@link #fromCursor(String, int)}.
+ */
+public final class Keyset {
+
+    public static final String ID_PROPERTY = "id";
+
+    private static final String SEPARATOR = ",";
+
+    private final String property;
+    private final Sort.Direction direction;
+    private final int size;
+    private final Long lastId;
+    private final String lastValue;
+
+    private Keyset(String property, Sort.Direction direction, int size, Long lastId, String lastValue) {
+        Assert.hasText(property, "property is empty");
+        Assert.notNull(direction, "direction is null");
+        Assert.isTrue(size > 0, "size must be positive");
+        this.property = property;
+        this.direction = direction;
+        this.size = size;
+        this.lastId = lastId;
+        this.lastValue = lastValue;
+    }
+
+    /**
+     * Creates the keyset of the first page.
+     * @param property the sort property, {@link #ID_PROPERTY} to sort by id only.
+     * @param direction the sort direction.
+     * @param size the number of rows of a page.
+     * @return the keyset of the first page.
+     */
+    public static Keyset first(String property, Sort.Direction direction, int size) {
+        return new Keyset(property, direction, size, null, null);
+    }
+
+    /**
+     * Decodes a cursor created by {@link #toCursor()}.
+     * @param cursor the opaque cursor sent by the client.
+     * @param size the number of rows of the page.
+     * @return the keyset of the page following the cursor.
+     * @throws IllegalArgumentException if the cursor is not valid.
+     */
+    public static Keyset fromCursor(String cursor, int size) {
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        String[] parts = decoded.split(SEPARATOR, 4);
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String value = parts.length == 4 ? parts[3] : null;
+        return new Keyset(parts[0], Sort.Direction.fromString(parts[1]), size, Long.valueOf(parts[2]), value);
+    }
+
+    /**
+     * Creates the keyset of the page following the given row.
+     * @param id the id of the last row of the current page.
+     * @param value the sort property value of the last row of the current page, ignored when sorting by id only.
+     * @return the keyset of the next page.
+     */
+    public Keyset next(Long id, Object value) {
+        Assert.notNull(id, "id is null");
+        return new Keyset(property, direction, size, id, isSortedById() ? null : Objects.toString(value));
+    }
+
+    /**
+     * Encodes this keyset as an opaque, URL safe, cursor.
+     * @return the cursor.
+     */
+    public String toCursor() {
+        Assert.state(!isFirst(), "The first page has no cursor");
+        String raw = property + SEPARATOR + direction + SEPARATOR + lastId + (isSortedById() ? "" : SEPARATOR + lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the same position, with another page size.
+     * @param size the number of rows of the page.
+     * @return the keyset.
+     */
+    public Keyset withSize(int size) {
+        return new Keyset(property, direction, size, lastId, lastValue);
+    }
+
+    /**
+     * Converts the keyset to the sort and page size of the select, the offset being always 0.
+     * @return the pageable.
+     */
+    public Pageable toPageable() {
+        Sort sort = isSortedById() ? Sort.by(direction, ID_PROPERTY) : Sort.by(direction, property, ID_PROPERTY);
+        return PageRequest.of(0, size, sort);
+    }
+
+    /**
+     * Name of the query shape of this keyset, used by {@link EntityManager} to cache the rendered select.
+     * @return the shape.
+     */
+    public String getShape() {
+        return "keyset:" + property + ":" + direction + (isFirst() ? ":first" : "");
+    }
+
+    public boolean isFirst() {
+        return lastId == null;
+    }
+
+    public boolean isSortedById() {
+        return ID_PROPERTY.equals(property);
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public Long getLastId() {
+        return lastId;
+    }
+
+    public String getLastValue() {
+        return lastValue;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "Keyset{" +
+            "property='" + property + "'" +
+            ", direction=" + direction +
+            ", size=" + size +
+            ", lastId=" + lastId +
+            ", lastValue='" + lastValue + "'" +
+            "}";
+    }
+}
@@ -1,5 +1,6 @@
 package org.iqkv.boutique.repository;
 
+import java.util.Collection;
 import org.iqkv.boutique.domain.ProductCategory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -24,6 +25,9 @@ public interface ProductCategoryRepository extends ReactiveCrudRepository<Produc
     @Override
     Mono<ProductCategory> findById(Long id);
 
+    @Override
+    Flux<Long> findExistingIds(Collection<Long> ids);
+
     @Override
     Mono<Void> deleteById(Long id);
 }
@@ -31,11 +35,19 @@ public interface ProductCategoryRepository extends ReactiveCrudRepository<Produc
 interface ProductCategoryRepositoryInternal {
     <S extends ProductCategory> Mono<S> save(S entity);
 
+    Mono<ProductCategory> update(ProductCategory productCategory);
+
+    Mono<ProductCategory> partialUpdate(ProductCategory productCategory);
+
     Flux<ProductCategory> findAllBy(Pageable pageable);
 
     Flux<ProductCategory> findAll();
 
     Mono<ProductCategory> findById(Long id);
+
+    Mono<String> findVersionById(Long id);
+
+    Flux<Long> findExistingIds(Collection<Long> ids);
     // this is not supported at the moment because of https://github.com/jhipster/generator-jhipster/issues/18269
     // Flux<ProductCategory> findAllBy(Pageable pageable, Criteria criteria);
 }
@@ -2,6 +2,7 @@ package org.iqkv.boutique.repository;
 
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
+import java.util.Collection;
 import java.util.List;
 import org.iqkv.boutique.domain.ProductCategory;
 import org.iqkv.boutique.repository.rowmapper.ProductCategoryRowMapper;
@@ -10,16 +11,16 @@ import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.support.SimpleR2dbcRepository;
-import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -39,6 +40,14 @@ class ProductCategoryRepositoryInternalImpl
 
     private static final Table entityTable = Table.aliased("product_category", EntityManager.ENTITY_ALIAS);
 
+    private static final String VERSION_SELECT = "SELECT e.xmin::text AS version FROM product_category e WHERE e.id = :id";
+
+    private static final String EXISTING_IDS_SELECT = "SELECT id FROM product_category WHERE id = ANY(:ids)";
+
+    private static final List<String> PARTIAL_UPDATE_COLUMNS = List.of("name", "description");
+
+    private static final Condition idCondition = Conditions.isEqual(entityTable.column("id"), SQL.bindMarker(":id"));
+
     public ProductCategoryRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
@@ -59,15 +68,18 @@ class ProductCategoryRepositoryInternalImpl
 
     @Override
     public Flux<ProductCategory> findAllBy(Pageable pageable) {
-        return createQuery(pageable, null).all();
+        return createQuery("findAll", pageable, null).map(this::process).all();
     }
 
-    RowsFetchSpec<ProductCategory> createQuery(Pageable pageable, Condition whereClause) {
-        List<Expression> columns = ProductCategorySqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        SelectFromAndJoin selectFrom = Select.builder().select(columns).from(entityTable);
+    GenericExecuteSpec createQuery(String shape, Pageable pageable, Condition whereClause) {
         // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, ProductCategory.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
+        String select = entityManager.createSelect(shape, this::createSelectFrom, ProductCategory.class, pageable, whereClause);
+        return entityManager.bindPage(db.sql(select), pageable);
+    }
+
+    private SelectFromAndJoin createSelectFrom() {
+        List<Expression> columns = ProductCategorySqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        return Select.builder().select(columns).from(entityTable);
     }
 
     @Override
@@ -77,8 +89,17 @@ class ProductCategoryRepositoryInternalImpl
 
     @Override
     public Mono<ProductCategory> findById(Long id) {
-        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
-        return createQuery(null, whereClause).one();
+        return createQuery("findById", null, idCondition).bind("id", id).map(this::process).one();
+    }
+
+    @Override
+    public Mono<String> findVersionById(Long id) {
+        return db.sql(VERSION_SELECT).bind("id", id).map(row -> row.get("version", String.class)).one();
+    }
+
+    @Override
+    public Flux<Long> findExistingIds(Collection<Long> ids) {
+        return db.sql(EXISTING_IDS_SELECT).bind("ids", ids.toArray(Long[]::new)).map(row -> row.get("id", Long.class)).all();
     }
 
     private ProductCategory process(Row row, RowMetadata metadata) {
@@ -90,4 +111,21 @@ class ProductCategoryRepositoryInternalImpl
     public <S extends ProductCategory> Mono<S> save(S entity) {
         return super.save(entity);
     }
+
+    @Override
+    public Mono<ProductCategory> update(ProductCategory productCategory) {
+        return entityManager.updateIfExists(productCategory);
+    }
+
+    @Override
+    public Mono<ProductCategory> partialUpdate(ProductCategory productCategory) {
+        return entityManager.updateNonNullColumns(
+            productCategory,
+            entityTable,
+            PARTIAL_UPDATE_COLUMNS,
+            ProductCategorySqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS),
+            (row, metadata) -> productcategoryMapper.apply(row, "e"),
+            id -> findById((Long) id)
+        );
+    }
 }
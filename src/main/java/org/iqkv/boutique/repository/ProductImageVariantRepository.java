@@ -0,0 +1,99 @@
+package org.iqkv.boutique.repository;
+
+import org.iqkv.boutique.domain.ProductImage;
+import org.iqkv.boutique.domain.ProductImageContent;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repository of the scaled variants of the product images, whose statements are written with the {@link DatabaseClient}.
+ * <p>
+ * Variants are keyed by product and variant name, and are deleted along with their product.
+ */
+@Repository
+public class ProductImageVariantRepository {
+
+    private static final String UPSERT =
+        "INSERT INTO product_image_variant (product_id, variant, image, image_content_type) " +
+        "SELECT :productId, :variant, :image, :contentType WHERE EXISTS " +
+        "(SELECT 1 FROM product WHERE id = :productId AND image_hash = :sourceHash) " +
+        "ON CONFLICT (product_id, variant) DO UPDATE SET image = EXCLUDED.image, image_content_type = EXCLUDED.image_content_type";
+    private static final String DELETE = "DELETE FROM product_image_variant WHERE product_id = :productId";
+    private static final String IMAGE_SELECT =
+        "SELECT image_content_type, octet_length(image) AS image_size, image_hash FROM product_image_variant " +
+        "WHERE product_id = :productId AND variant = :variant";
+    private static final String MISSING_VARIANT_SELECT =
+        "SELECT p.id FROM product p WHERE p.image IS NOT NULL AND NOT EXISTS " +
+        "(SELECT 1 FROM product_image_variant v WHERE v.product_id = p.id AND v.variant = :variant) ORDER BY p.id";
+    private static final String IMAGE_CONTENT_SELECT =
+        "SELECT image_content_type, image_hash, image FROM product_image_variant WHERE product_id = :productId AND variant = :variant";
+
+    private final DatabaseClient db;
+
+    public ProductImageVariantRepository(R2dbcEntityTemplate template) {
+        this.db = template.getDatabaseClient();
+    }
+
+    /**
+     * Stores a variant of the image of a product, unless the image has been replaced since the variant was scaled.
+     *
+     * @param productId the id of the product.
+     * @param variant the name of the variant.
+     * @param image the encoded variant.
+     * @param contentType the content type of the variant.
+     * @param sourceHash the hex encoded MD5 digest of the image the variant was scaled from.
+     * @return a Mono to signal the variant is stored, or skipped.
+     */
+    public Mono<Void> save(Long productId, String variant, byte[] image, String contentType, String sourceHash) {
+        return db
+            .sql(UPSERT)
+            .bind("productId", productId)
+            .bind("variant", variant)
+            .bind("image", image)
+            .bind("contentType", contentType)
+            .bind("sourceHash", sourceHash)
+            .then();
+    }
+
+    public Mono<Void> deleteByProductId(Long productId) {
+        return db.sql(DELETE).bind("productId", productId).then();
+    }
+
+    public Flux<Long> findProductIdsWithoutVariant(String variant) {
+        return db.sql(MISSING_VARIANT_SELECT).bind("variant", variant).map(row -> row.get("id", Long.class)).all();
+    }
+
+    public Mono<ProductImage> findImage(Long productId, String variant) {
+        return db
+            .sql(IMAGE_SELECT)
+            .bind("productId", productId)
+            .bind("variant", variant)
+            .map(
+                row ->
+                    new ProductImage(
+                        variant,
+                        row.get("image_content_type", String.class),
+                        row.get("image_size", Integer.class),
+                        row.get("image_hash", String.class)
+                    )
+            )
+            .one();
+    }
+
+    public Mono<ProductImageContent> findImageContent(Long productId, String variant) {
+        return db
+            .sql(IMAGE_CONTENT_SELECT)
+            .bind("productId", productId)
+            .bind("variant", variant)
+            .map(row -> {
+                byte[] image = row.get("image", byte[].class);
+                String contentType = row.get("image_content_type", String.class);
+                String hash = row.get("image_hash", String.class);
+                return new ProductImageContent(new ProductImage(variant, contentType, image.length, hash), image);
+            })
+            .one();
+    }
+}
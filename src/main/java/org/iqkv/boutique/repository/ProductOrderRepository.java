@@ -1,5 +1,7 @@
 package org.iqkv.boutique.repository;
 
+import java.util.List;
+import java.util.Set;
 import org.iqkv.boutique.domain.ProductOrder;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Query;
@@ -14,6 +16,25 @@ import reactor.core.publisher.Mono;
 @SuppressWarnings("unused")
 @Repository
 public interface ProductOrderRepository extends ReactiveCrudRepository<ProductOrder, Long>, ProductOrderRepositoryInternal {
+    /**
+     * Sort properties of the keyset pagination: the id only, backed by the primary key.
+     */
+    Set<String> KEYSET_SORT_PROPERTIES = Set.of(Keyset.ID_PROPERTY);
+
+    Flux<ProductOrder> findAllBy(Pageable pageable);
+
+    @Override
+    Flux<ProductOrder> findAllAfter(Keyset keyset);
+
+    @Override
+    Flux<ProductOrder> findAllWithEagerRelationshipsAfter(Keyset keyset);
+
+    @Override
+    Flux<ProductOrder> exportAll(int fetchSize);
+
+    @Override
+    Flux<ProductOrder> exportAllWithEagerRelationships(int fetchSize);
+
     @Override
     Mono<ProductOrder> findOneWithEagerRelationships(Long id);
 
@@ -38,6 +59,9 @@ public interface ProductOrderRepository extends ReactiveCrudRepository<ProductOr
     @Override
     <S extends ProductOrder> Mono<S> save(S entity);
 
+    @Override
+    Flux<ProductOrder> insertAll(List<ProductOrder> productOrders);
+
     @Override
     Flux<ProductOrder> findAll();
 
@@ -51,11 +75,23 @@ public interface ProductOrderRepository extends ReactiveCrudRepository<ProductOr
 interface ProductOrderRepositoryInternal {
     <S extends ProductOrder> Mono<S> save(S entity);
 
+    Mono<ProductOrder> update(ProductOrder productOrder);
+
+    Mono<ProductOrder> partialUpdate(ProductOrder productOrder);
+
+    Flux<ProductOrder> insertAll(List<ProductOrder> productOrders);
+
     Flux<ProductOrder> findAllBy(Pageable pageable);
 
+    Flux<ProductOrder> findAllAfter(Keyset keyset);
+
+    Flux<ProductOrder> exportAll(int fetchSize);
+
     Flux<ProductOrder> findAll();
 
     Mono<ProductOrder> findById(Long id);
+
+    Mono<String> findVersionById(Long id);
     // this is not supported at the moment because of https://github.com/jhipster/generator-jhipster/issues/18269
     // Flux<ProductOrder> findAllBy(Pageable pageable, Criteria criteria);
 
@@ -65,5 +101,9 @@ interface ProductOrderRepositoryInternal {
 
     Flux<ProductOrder> findAllWithEagerRelationships(Pageable page);
 
+    Flux<ProductOrder> findAllWithEagerRelationshipsAfter(Keyset keyset);
+
+    Flux<ProductOrder> exportAllWithEagerRelationships(int fetchSize);
+
     Mono<Void> deleteById(Long id);
 }
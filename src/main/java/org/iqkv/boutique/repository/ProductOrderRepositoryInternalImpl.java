@@ -3,7 +3,10 @@ package org.iqkv.boutique.repository;
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
 import java.util.List;
+import java.util.function.Supplier;
+import org.iqkv.boutique.domain.Product;
 import org.iqkv.boutique.domain.ProductOrder;
+import org.iqkv.boutique.domain.ShoppingCart;
 import org.iqkv.boutique.repository.rowmapper.ProductOrderRowMapper;
 import org.iqkv.boutique.repository.rowmapper.ProductRowMapper;
 import org.iqkv.boutique.repository.rowmapper.ShoppingCartRowMapper;
@@ -13,16 +16,19 @@ import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.support.SimpleR2dbcRepository;
 import org.springframework.data.relational.core.sql.Column;
-import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectWhere;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -44,6 +50,17 @@ class ProductOrderRepositoryInternalImpl extends SimpleR2dbcRepository<ProductOr
     private static final Table productTable = Table.aliased("product", "product");
     private static final Table cartTable = Table.aliased("shopping_cart", "cart");
 
+    private static final String VERSION_SELECT =
+        "SELECT concat_ws('.', e.xmin, product.xmin, cart.xmin) AS version FROM product_order e " +
+        "LEFT OUTER JOIN product product ON e.product_id = product.id " +
+        "LEFT OUTER JOIN shopping_cart cart ON e.cart_id = cart.id WHERE e.id = :id";
+
+    private static final List<String> INSERT_COLUMNS = List.of("quantity", "total_price", "product_id", "cart_id");
+
+    private static final List<String> PARTIAL_UPDATE_COLUMNS = List.of("quantity", "total_price");
+
+    private static final Condition idCondition = Conditions.isEqual(entityTable.column("id"), SQL.bindMarker(":id"));
+
     public ProductOrderRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
@@ -68,25 +85,83 @@ class ProductOrderRepositoryInternalImpl extends SimpleR2dbcRepository<ProductOr
 
     @Override
     public Flux<ProductOrder> findAllBy(Pageable pageable) {
-        return createQuery(pageable, null).all();
+        return createQuery("findAll", pageable, null).map(this::process).all();
+    }
+
+    @Override
+    public Flux<ProductOrder> findAllAfter(Keyset keyset) {
+        return createKeysetQuery(keyset.getShape(), this::createSelectFrom, keyset).map(this::process).all();
+    }
+
+    @Override
+    public Flux<ProductOrder> findAllWithEagerRelationshipsAfter(Keyset keyset) {
+        return createKeysetQuery("eager:" + keyset.getShape(), this::createEagerSelectFrom, keyset).map(this::processEager).all();
+    }
+
+    /**
+     * Reads all the productOrders through a cursor, fetching the rows on demand, at most {@code fetchSize} rows at a time.
+     */
+    @Override
+    public Flux<ProductOrder> exportAll(int fetchSize) {
+        return createQuery("findAll", null, null).filter(statement -> statement.fetchSize(fetchSize)).map(this::process).all();
+    }
+
+    @Override
+    public Flux<ProductOrder> exportAllWithEagerRelationships(int fetchSize) {
+        return createEagerQuery("findAllWithEagerRelationships", null, null)
+            .filter(statement -> statement.fetchSize(fetchSize))
+            .map(this::processEager)
+            .all();
+    }
+
+    private GenericExecuteSpec createKeysetQuery(String shape, Supplier<? extends SelectWhere> selectFrom, Keyset keyset) {
+        Assert.isTrue(ProductOrderRepository.KEYSET_SORT_PROPERTIES.contains(keyset.getProperty()), "Unsupported keyset sort property");
+        Condition whereClause = keyset.isFirst() ? null : EntityManager.createKeysetCondition(entityTable, keyset);
+        String select = entityManager.createSelect(shape, selectFrom, ProductOrder.class, keyset.toPageable(), whereClause);
+        return entityManager.bindKeyset(db.sql(select), keyset);
+    }
+
+    /**
+     * Lean query shape: the columns of the productOrder only, its product and cart reduced to their ids.
+     */
+    GenericExecuteSpec createQuery(String shape, Pageable pageable, Condition whereClause) {
+        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
+        String select = entityManager.createSelect(shape, this::createSelectFrom, ProductOrder.class, pageable, whereClause);
+        return entityManager.bindPage(db.sql(select), pageable);
+    }
+
+    /**
+     * Eager query shape: the productOrder joined with the summary of its product, without the image, and with its cart.
+     */
+    GenericExecuteSpec createEagerQuery(String shape, Pageable pageable, Condition whereClause) {
+        String select = entityManager.createSelect(shape, this::createEagerSelectFrom, ProductOrder.class, pageable, whereClause);
+        return entityManager.bindPage(db.sql(select), pageable);
     }
 
-    RowsFetchSpec<ProductOrder> createQuery(Pageable pageable, Condition whereClause) {
+    private SelectFromAndJoin createSelectFrom() {
+        return Select.builder().select(ProductOrderSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS)).from(entityTable);
+    }
+
+    private SelectFromAndJoinCondition createEagerSelectFrom() {
+        return createEagerSelectFrom(entityTable);
+    }
+
+    /**
+     * Selects the productOrders with their product and cart from the given table, aliased like the product_order table.
+     */
+    private SelectFromAndJoinCondition createEagerSelectFrom(Table from) {
         List<Expression> columns = ProductOrderSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
-        columns.addAll(ProductSqlHelper.getColumns(productTable, "product"));
+        columns.addAll(ProductSqlHelper.getSummaryColumns(productTable, "product"));
         columns.addAll(ShoppingCartSqlHelper.getColumns(cartTable, "cart"));
-        SelectFromAndJoinCondition selectFrom = Select.builder()
+        return Select.builder()
             .select(columns)
-            .from(entityTable)
+            .from(from)
             .leftOuterJoin(productTable)
             .on(Column.create("product_id", entityTable))
             .equals(Column.create("id", productTable))
             .leftOuterJoin(cartTable)
             .on(Column.create("cart_id", entityTable))
             .equals(Column.create("id", cartTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, ProductOrder.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
     }
 
     @Override
@@ -96,26 +171,41 @@ class ProductOrderRepositoryInternalImpl extends SimpleR2dbcRepository<ProductOr
 
     @Override
     public Mono<ProductOrder> findById(Long id) {
-        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
-        return createQuery(null, whereClause).one();
+        return createQuery("findById", null, idCondition).bind("id", id).map(this::process).one();
+    }
+
+    @Override
+    public Mono<String> findVersionById(Long id) {
+        return db.sql(VERSION_SELECT).bind("id", id).map(row -> row.get("version", String.class)).one();
     }
 
     @Override
     public Mono<ProductOrder> findOneWithEagerRelationships(Long id) {
-        return findById(id);
+        return createEagerQuery("findOneWithEagerRelationships", null, idCondition).bind("id", id).map(this::processEager).one();
     }
 
     @Override
     public Flux<ProductOrder> findAllWithEagerRelationships() {
-        return findAll();
+        return findAllWithEagerRelationships(null);
     }
 
     @Override
     public Flux<ProductOrder> findAllWithEagerRelationships(Pageable page) {
-        return findAllBy(page);
+        return createEagerQuery("findAllWithEagerRelationships", page, null).map(this::processEager).all();
     }
 
     private ProductOrder process(Row row, RowMetadata metadata) {
+        ProductOrder entity = productorderMapper.apply(row, "e");
+        if (entity.getProductId() != null) {
+            entity.setProduct(new Product().id(entity.getProductId()));
+        }
+        if (entity.getCartId() != null) {
+            entity.setCart(new ShoppingCart().id(entity.getCartId()));
+        }
+        return entity;
+    }
+
+    private ProductOrder processEager(Row row, RowMetadata metadata) {
         ProductOrder entity = productorderMapper.apply(row, "e");
         entity.setProduct(productMapper.apply(row, "product"));
         entity.setCart(shoppingcartMapper.apply(row, "cart"));
@@ -126,4 +216,30 @@ class ProductOrderRepositoryInternalImpl extends SimpleR2dbcRepository<ProductOr
     public <S extends ProductOrder> Mono<S> save(S entity) {
         return super.save(entity);
     }
+
+    @Override
+    public Mono<ProductOrder> update(ProductOrder productOrder) {
+        return entityManager.updateIfExists(productOrder);
+    }
+
+    @Override
+    public Mono<ProductOrder> partialUpdate(ProductOrder productOrder) {
+        // the updated productOrder is returned with its product and cart by the same statement
+        return entityManager.updateNonNullColumnsThenSelect(
+            productOrder,
+            entityTable,
+            PARTIAL_UPDATE_COLUMNS,
+            this::createEagerSelectFrom,
+            this::processEager,
+            id -> findOneWithEagerRelationships((Long) id)
+        );
+    }
+
+    /**
+     * Inserts the productOrders with one statement per batch, see {@link EntityManager#insertAll(Class, List, List)}.
+     */
+    @Override
+    public Flux<ProductOrder> insertAll(List<ProductOrder> productOrders) {
+        return entityManager.insertAll(ProductOrder.class, productOrders, INSERT_COLUMNS);
+    }
 }
@@ -1,6 +1,13 @@
 package org.iqkv.boutique.repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.ProductImage;
+import org.iqkv.boutique.domain.ProductImageContent;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
@@ -14,8 +21,25 @@ import reactor.core.publisher.Mono;
 @SuppressWarnings("unused")
 @Repository
 public interface ProductRepository extends ReactiveCrudRepository<Product, Long>, ProductRepositoryInternal {
+    /**
+     * Sort properties of the keyset pagination, each one is backed by a {@code (property, id)} index.
+     */
+    Set<String> KEYSET_SORT_PROPERTIES = Set.of(Keyset.ID_PROPERTY, "name");
+
     Flux<Product> findAllBy(Pageable pageable);
 
+    @Override
+    Flux<Product> findAllAfter(Keyset keyset);
+
+    @Override
+    Mono<ProductImage> findImageById(Long id);
+
+    @Override
+    Mono<ProductImageContent> findImageContentById(Long id);
+
+    @Override
+    Mono<Map<Long, BigDecimal>> findPricesByIds(Collection<Long> ids);
+
     @Override
     Mono<Product> findOneWithEagerRelationships(Long id);
 
@@ -34,6 +58,9 @@ public interface ProductRepository extends ReactiveCrudRepository<Product, Long>
     @Override
     <S extends Product> Mono<S> save(S entity);
 
+    @Override
+    Flux<Product> insertAll(List<Product> products);
+
     @Override
     Flux<Product> findAll();
 
@@ -47,11 +74,27 @@ public interface ProductRepository extends ReactiveCrudRepository<Product, Long>
 interface ProductRepositoryInternal {
     <S extends Product> Mono<S> save(S entity);
 
+    Mono<Product> update(Product product);
+
+    Mono<Product> partialUpdate(Product product);
+
+    Flux<Product> insertAll(List<Product> products);
+
     Flux<Product> findAllBy(Pageable pageable);
 
+    Flux<Product> findAllAfter(Keyset keyset);
+
+    Mono<ProductImage> findImageById(Long id);
+
+    Mono<ProductImageContent> findImageContentById(Long id);
+
+    Mono<Map<Long, BigDecimal>> findPricesByIds(Collection<Long> ids);
+
     Flux<Product> findAll();
 
     Mono<Product> findById(Long id);
+
+    Mono<String> findVersionById(Long id);
     // this is not supported at the moment because of https://github.com/jhipster/generator-jhipster/issues/18269
     // Flux<Product> findAllBy(Pageable pageable, Criteria criteria);
 
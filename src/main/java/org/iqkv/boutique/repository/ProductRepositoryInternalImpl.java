@@ -2,26 +2,34 @@ package org.iqkv.boutique.repository;
 
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.ProductImage;
+import org.iqkv.boutique.domain.ProductImageContent;
 import org.iqkv.boutique.repository.rowmapper.ProductCategoryRowMapper;
 import org.iqkv.boutique.repository.rowmapper.ProductRowMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.support.SimpleR2dbcRepository;
 import org.springframework.data.relational.core.sql.Column;
-import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -41,6 +49,30 @@ class ProductRepositoryInternalImpl extends SimpleR2dbcRepository<Product, Long>
     private static final Table entityTable = Table.aliased("product", EntityManager.ENTITY_ALIAS);
     private static final Table productCategoryTable = Table.aliased("product_category", "productCategory");
 
+    private static final String IMAGE_SELECT =
+        "SELECT image_content_type, octet_length(image) AS image_size, image_hash FROM product WHERE id = :id AND image IS NOT NULL";
+    private static final String IMAGE_CONTENT_SELECT =
+        "SELECT image_content_type, image_hash, image FROM product WHERE id = :id AND image IS NOT NULL";
+
+    private static final String PRICES_SELECT = "SELECT id, price FROM product WHERE id = ANY(:ids)";
+
+    private static final String VERSION_SELECT =
+        "SELECT concat_ws('.', e.xmin, productCategory.xmin) AS version FROM product e " +
+        "LEFT OUTER JOIN product_category productCategory ON e.product_category_id = productCategory.id WHERE e.id = :id";
+
+    private static final List<String> PARTIAL_UPDATE_COLUMNS = List.of(
+        "name",
+        "description",
+        "price",
+        "product_size",
+        "image",
+        "image_content_type"
+    );
+
+    private static final List<String> INSERT_COLUMNS = List.of("name", "description", "price", "product_size", "product_category_id");
+
+    private static final Condition idCondition = Conditions.isEqual(entityTable.column("id"), SQL.bindMarker(":id"));
+
     public ProductRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
@@ -63,21 +95,74 @@ class ProductRepositoryInternalImpl extends SimpleR2dbcRepository<Product, Long>
 
     @Override
     public Flux<Product> findAllBy(Pageable pageable) {
-        return createQuery(pageable, null).all();
+        return createSummaryQuery("findAll", sortImageBySize(pageable), null).map(this::process).all();
+    }
+
+    @Override
+    public Flux<Product> findAllAfter(Keyset keyset) {
+        Assert.isTrue(ProductRepository.KEYSET_SORT_PROPERTIES.contains(keyset.getProperty()), "Unsupported keyset sort property");
+        Condition whereClause = keyset.isFirst() ? null : EntityManager.createKeysetCondition(entityTable, keyset);
+        String select = entityManager.createSelect(
+            keyset.getShape(),
+            this::createSummarySelectFrom,
+            Product.class,
+            keyset.toPageable(),
+            whereClause
+        );
+        return entityManager.bindKeyset(db.sql(select), keyset).map(this::process).all();
+    }
+
+    GenericExecuteSpec createQuery(String shape, Pageable pageable, Condition whereClause) {
+        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
+        String select = entityManager.createSelect(shape, this::createSelectFrom, Product.class, pageable, whereClause);
+        return entityManager.bindPage(db.sql(select), pageable);
+    }
+
+    GenericExecuteSpec createSummaryQuery(String shape, Pageable pageable, Condition whereClause) {
+        String select = entityManager.createSelect(shape, this::createSummarySelectFrom, Product.class, pageable, whereClause);
+        return entityManager.bindPage(db.sql(select), pageable);
+    }
+
+    /**
+     * Summary selects do not contain the image, so sorting by image sorts by its size.
+     */
+    private static Pageable sortImageBySize(Pageable pageable) {
+        if (pageable == null || pageable.getSort().getOrderFor("image") == null) {
+            return pageable;
+        }
+        Sort sort = Sort.by(
+            pageable
+                .getSort()
+                .stream()
+                .map(order -> "image".equals(order.getProperty()) ? order.withProperty("image_size") : order)
+                .toList()
+        );
+        return pageable.isPaged() ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort) : Pageable.unpaged(sort);
+    }
+
+    private SelectFromAndJoinCondition createSelectFrom() {
+        return createSelectFrom(ProductSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS), entityTable);
+    }
+
+    private SelectFromAndJoinCondition createSummarySelectFrom() {
+        return createSummarySelectFrom(entityTable);
+    }
+
+    /**
+     * Selects the summaries of the products from the given table, aliased like the product table.
+     */
+    private SelectFromAndJoinCondition createSummarySelectFrom(Table from) {
+        return createSelectFrom(ProductSqlHelper.getSummaryColumns(entityTable, EntityManager.ENTITY_ALIAS), from);
     }
 
-    RowsFetchSpec<Product> createQuery(Pageable pageable, Condition whereClause) {
-        List<Expression> columns = ProductSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
+    private SelectFromAndJoinCondition createSelectFrom(List<Expression> columns, Table from) {
         columns.addAll(ProductCategorySqlHelper.getColumns(productCategoryTable, "productCategory"));
-        SelectFromAndJoinCondition selectFrom = Select.builder()
+        return Select.builder()
             .select(columns)
-            .from(entityTable)
+            .from(from)
             .leftOuterJoin(productCategoryTable)
             .on(Column.create("product_category_id", entityTable))
             .equals(Column.create("id", productCategoryTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, Product.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
     }
 
     @Override
@@ -87,8 +172,59 @@ class ProductRepositoryInternalImpl extends SimpleR2dbcRepository<Product, Long>
 
     @Override
     public Mono<Product> findById(Long id) {
-        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
-        return createQuery(null, whereClause).one();
+        return createQuery("findById", null, idCondition).bind("id", id).map(this::process).one();
+    }
+
+    @Override
+    public Mono<String> findVersionById(Long id) {
+        return db.sql(VERSION_SELECT).bind("id", id).map(row -> row.get("version", String.class)).one();
+    }
+
+    @Override
+    public Mono<ProductImage> findImageById(Long id) {
+        return db
+            .sql(IMAGE_SELECT)
+            .bind("id", id)
+            .map(
+                row ->
+                    new ProductImage(
+                        ProductImage.ORIGINAL,
+                        row.get("image_content_type", String.class),
+                        row.get("image_size", Integer.class),
+                        row.get("image_hash", String.class)
+                    )
+            )
+            .one();
+    }
+
+    @Override
+    public Mono<ProductImageContent> findImageContentById(Long id) {
+        return db
+            .sql(IMAGE_CONTENT_SELECT)
+            .bind("id", id)
+            .map(row -> {
+                byte[] image = row.get("image", byte[].class);
+                return new ProductImageContent(
+                    new ProductImage(
+                        ProductImage.ORIGINAL,
+                        row.get("image_content_type", String.class),
+                        image.length,
+                        row.get("image_hash", String.class)
+                    ),
+                    image
+                );
+            })
+            .one();
+    }
+
+    @Override
+    public Mono<Map<Long, BigDecimal>> findPricesByIds(Collection<Long> ids) {
+        return db
+            .sql(PRICES_SELECT)
+            .bind("ids", ids.toArray(Long[]::new))
+            .map(row -> Map.entry(row.get("id", Long.class), row.get("price", BigDecimal.class)))
+            .all()
+            .collectMap(Map.Entry::getKey, Map.Entry::getValue);
     }
 
     @Override
@@ -116,4 +252,31 @@ class ProductRepositoryInternalImpl extends SimpleR2dbcRepository<Product, Long>
     public <S extends Product> Mono<S> save(S entity) {
         return super.save(entity);
     }
+
+    @Override
+    public Mono<Product> update(Product product) {
+        return entityManager.updateIfExists(product);
+    }
+
+    @Override
+    public Mono<Product> partialUpdate(Product product) {
+        // the updated product is returned with its category, without its image, by the same statement
+        return entityManager.updateNonNullColumnsThenSelect(
+            product,
+            entityTable,
+            PARTIAL_UPDATE_COLUMNS,
+            this::createSummarySelectFrom,
+            this::process,
+            id -> createSummaryQuery("findSummaryById", null, idCondition).bind("id", id).map(this::process).one()
+        );
+    }
+
+    /**
+     * Inserts the products, without their image, with one statement per batch, see
+     * {@link EntityManager#insertAll(Class, List, List)}.
+     */
+    @Override
+    public Flux<Product> insertAll(List<Product> products) {
+        return entityManager.insertAll(Product.class, products, INSERT_COLUMNS);
+    }
 }
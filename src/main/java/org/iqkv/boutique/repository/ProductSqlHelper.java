@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import org.springframework.data.relational.core.sql.Column;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.SimpleFunction;
 import org.springframework.data.relational.core.sql.Table;
 
 public class ProductSqlHelper {
@@ -21,4 +22,21 @@ public class ProductSqlHelper {
         columns.add(Column.aliased("product_category_id", table, columnPrefix + "_product_category_id"));
         return columns;
     }
+
+    /**
+     * Columns of a product without its image, which is replaced by its length: listings and joins do not load the bytes.
+     */
+    public static List<Expression> getSummaryColumns(Table table, String columnPrefix) {
+        List<Expression> columns = new ArrayList<>();
+        columns.add(Column.aliased("id", table, columnPrefix + "_id"));
+        columns.add(Column.aliased("name", table, columnPrefix + "_name"));
+        columns.add(Column.aliased("description", table, columnPrefix + "_description"));
+        columns.add(Column.aliased("price", table, columnPrefix + "_price"));
+        columns.add(Column.aliased("product_size", table, columnPrefix + "_product_size"));
+        columns.add(SimpleFunction.create("octet_length", List.of(table.column("image"))).as(columnPrefix + "_image_size"));
+        columns.add(Column.aliased("image_content_type", table, columnPrefix + "_image_content_type"));
+
+        columns.add(Column.aliased("product_category_id", table, columnPrefix + "_product_category_id"));
+        return columns;
+    }
 }
@@ -1,5 +1,8 @@
 package org.iqkv.boutique.repository;
 
+import java.util.List;
+import java.util.Set;
+import org.iqkv.boutique.domain.ProductOrder;
 import org.iqkv.boutique.domain.ShoppingCart;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.r2dbc.repository.Query;
@@ -14,6 +17,19 @@ import reactor.core.publisher.Mono;
 @SuppressWarnings("unused")
 @Repository
 public interface ShoppingCartRepository extends ReactiveCrudRepository<ShoppingCart, Long>, ShoppingCartRepositoryInternal {
+    /**
+     * Sort properties of the keyset pagination: the id only, backed by the primary key.
+     */
+    Set<String> KEYSET_SORT_PROPERTIES = Set.of(Keyset.ID_PROPERTY);
+
+    Flux<ShoppingCart> findAllBy(Pageable pageable);
+
+    @Override
+    Flux<ShoppingCart> findAllAfter(Keyset keyset);
+
+    @Override
+    Flux<ShoppingCart> exportAll(int fetchSize);
+
     @Query("SELECT * FROM shopping_cart entity WHERE entity.customer_details_id = :id")
     Flux<ShoppingCart> findByCustomerDetails(Long id);
 
@@ -23,6 +39,9 @@ public interface ShoppingCartRepository extends ReactiveCrudRepository<ShoppingC
     @Override
     <S extends ShoppingCart> Mono<S> save(S entity);
 
+    @Override
+    Mono<ShoppingCart> insertWithOrders(ShoppingCart shoppingCart, List<ProductOrder> productOrders);
+
     @Override
     Flux<ShoppingCart> findAll();
 
@@ -36,11 +55,29 @@ public interface ShoppingCartRepository extends ReactiveCrudRepository<ShoppingC
 interface ShoppingCartRepositoryInternal {
     <S extends ShoppingCart> Mono<S> save(S entity);
 
+    Mono<ShoppingCart> update(ShoppingCart shoppingCart);
+
+    Mono<ShoppingCart> partialUpdate(ShoppingCart shoppingCart);
+
+    /**
+     * Inserts a new shoppingCart along with its new productOrders, and sets their ids.
+     * @param shoppingCart the new cart.
+     * @param productOrders the new lines of the cart.
+     * @return the cart with its lines, or empty if the customer details of the cart do not exist, in which case nothing is inserted.
+     */
+    Mono<ShoppingCart> insertWithOrders(ShoppingCart shoppingCart, List<ProductOrder> productOrders);
+
     Flux<ShoppingCart> findAllBy(Pageable pageable);
 
+    Flux<ShoppingCart> findAllAfter(Keyset keyset);
+
+    Flux<ShoppingCart> exportAll(int fetchSize);
+
     Flux<ShoppingCart> findAll();
 
     Mono<ShoppingCart> findById(Long id);
+
+    Mono<String> findVersionById(Long id);
     // this is not supported at the moment because of https://github.com/jhipster/generator-jhipster/issues/18269
     // Flux<ShoppingCart> findAllBy(Pageable pageable, Criteria criteria);
 }
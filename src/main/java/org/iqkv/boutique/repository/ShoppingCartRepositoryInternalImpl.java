@@ -2,7 +2,10 @@ package org.iqkv.boutique.repository;
 
 import io.r2dbc.spi.Row;
 import io.r2dbc.spi.RowMetadata;
+import java.math.BigDecimal;
+import java.util.LinkedHashSet;
 import java.util.List;
+import org.iqkv.boutique.domain.ProductOrder;
 import org.iqkv.boutique.domain.ShoppingCart;
 import org.iqkv.boutique.repository.rowmapper.CustomerDetailsRowMapper;
 import org.iqkv.boutique.repository.rowmapper.ShoppingCartRowMapper;
@@ -12,16 +15,17 @@ import org.springframework.data.r2dbc.core.R2dbcEntityOperations;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.support.SimpleR2dbcRepository;
 import org.springframework.data.relational.core.sql.Column;
-import org.springframework.data.relational.core.sql.Comparison;
 import org.springframework.data.relational.core.sql.Condition;
 import org.springframework.data.relational.core.sql.Conditions;
 import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.SQL;
 import org.springframework.data.relational.core.sql.Select;
 import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
 import org.springframework.data.relational.core.sql.Table;
 import org.springframework.data.relational.repository.support.MappingRelationalEntityInformation;
 import org.springframework.r2dbc.core.DatabaseClient;
-import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.util.Assert;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -41,6 +45,35 @@ class ShoppingCartRepositoryInternalImpl extends SimpleR2dbcRepository<ShoppingC
     private static final Table entityTable = Table.aliased("shopping_cart", EntityManager.ENTITY_ALIAS);
     private static final Table customerDetailsTable = Table.aliased("customer_details", "customerDetails");
 
+    private static final String VERSION_SELECT =
+        "SELECT concat_ws('.', e.xmin, customerDetails.xmin) AS version FROM shopping_cart e " +
+        "LEFT OUTER JOIN customer_details customerDetails ON e.customer_details_id = customerDetails.id WHERE e.id = :id";
+
+    /**
+     * Inserts a cart, only if its customer details exist, and its lines, with the ids of the lines drawn from their sequence
+     * and returned in the order of the arrays by their ordinality.
+     */
+    private static final String CHECKOUT_INSERT =
+        "WITH cart AS (INSERT INTO shopping_cart " +
+        "(placed_date, status, total_price, payment_method, payment_reference, customer_details_id) " +
+        "SELECT :placed_date, :status, :total_price, :payment_method, :payment_reference, id " +
+        "FROM customer_details WHERE id = :customer_details_id RETURNING id), " +
+        "lines AS (SELECT nextval(pg_get_serial_sequence('product_order', 'id')) AS id, l.* " +
+        "FROM unnest(:quantity, :line_total_price, :product_id) WITH ORDINALITY AS l(quantity, total_price, product_id, ordinality)), " +
+        "inserted AS (INSERT INTO product_order (id, quantity, total_price, product_id, cart_id) " +
+        "SELECT lines.id, lines.quantity, lines.total_price, lines.product_id, cart.id FROM lines CROSS JOIN cart) " +
+        "SELECT cart.id AS cart_id, lines.id AS product_order_id FROM cart LEFT OUTER JOIN lines ON true ORDER BY lines.ordinality";
+
+    private static final List<String> PARTIAL_UPDATE_COLUMNS = List.of(
+        "placed_date",
+        "status",
+        "total_price",
+        "payment_method",
+        "payment_reference"
+    );
+
+    private static final Condition idCondition = Conditions.isEqual(entityTable.column("id"), SQL.bindMarker(":id"));
+
     public ShoppingCartRepositoryInternalImpl(
         R2dbcEntityTemplate template,
         EntityManager entityManager,
@@ -63,21 +96,53 @@ class ShoppingCartRepositoryInternalImpl extends SimpleR2dbcRepository<ShoppingC
 
     @Override
     public Flux<ShoppingCart> findAllBy(Pageable pageable) {
-        return createQuery(pageable, null).all();
+        return createQuery("findAll", pageable, null).map(this::process).all();
+    }
+
+    @Override
+    public Flux<ShoppingCart> findAllAfter(Keyset keyset) {
+        Assert.isTrue(ShoppingCartRepository.KEYSET_SORT_PROPERTIES.contains(keyset.getProperty()), "Unsupported keyset sort property");
+        Condition whereClause = keyset.isFirst() ? null : EntityManager.createKeysetCondition(entityTable, keyset);
+        String select = entityManager.createSelect(
+            keyset.getShape(),
+            this::createSelectFrom,
+            ShoppingCart.class,
+            keyset.toPageable(),
+            whereClause
+        );
+        return entityManager.bindKeyset(db.sql(select), keyset).map(this::process).all();
+    }
+
+    /**
+     * Reads all the shoppingCarts through a cursor, fetching the rows on demand, at most {@code fetchSize} rows at a time.
+     */
+    @Override
+    public Flux<ShoppingCart> exportAll(int fetchSize) {
+        return createQuery("findAll", null, null).filter(statement -> statement.fetchSize(fetchSize)).map(this::process).all();
+    }
+
+    GenericExecuteSpec createQuery(String shape, Pageable pageable, Condition whereClause) {
+        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
+        String select = entityManager.createSelect(shape, this::createSelectFrom, ShoppingCart.class, pageable, whereClause);
+        return entityManager.bindPage(db.sql(select), pageable);
+    }
+
+    private SelectFromAndJoinCondition createSelectFrom() {
+        return createSelectFrom(entityTable);
     }
 
-    RowsFetchSpec<ShoppingCart> createQuery(Pageable pageable, Condition whereClause) {
+    /**
+     * Selects the shoppingCarts from the given table, aliased like the shopping_cart table.
+     */
+    private SelectFromAndJoinCondition createSelectFrom(Table from) {
         List<Expression> columns = ShoppingCartSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS);
         columns.addAll(CustomerDetailsSqlHelper.getColumns(customerDetailsTable, "customerDetails"));
-        SelectFromAndJoinCondition selectFrom = Select.builder()
+        return Select.builder()
             .select(columns)
-            .from(entityTable)
+            .from(from)
             .leftOuterJoin(customerDetailsTable)
             .on(Column.create("customer_details_id", entityTable))
             .equals(Column.create("id", customerDetailsTable));
-        // we do not support Criteria here for now as of https://github.com/jhipster/generator-jhipster/issues/18269
-        String select = entityManager.createSelect(selectFrom, ShoppingCart.class, pageable, whereClause);
-        return db.sql(select).map(this::process);
     }
 
     @Override
@@ -87,8 +152,12 @@ class ShoppingCartRepositoryInternalImpl extends SimpleR2dbcRepository<ShoppingC
 
     @Override
     public Mono<ShoppingCart> findById(Long id) {
-        Comparison whereClause = Conditions.isEqual(entityTable.column("id"), Conditions.just(id.toString()));
-        return createQuery(null, whereClause).one();
+        return createQuery("findById", null, idCondition).bind("id", id).map(this::process).one();
+    }
+
+    @Override
+    public Mono<String> findVersionById(Long id) {
+        return db.sql(VERSION_SELECT).bind("id", id).map(row -> row.get("version", String.class)).one();
     }
 
     private ShoppingCart process(Row row, RowMetadata metadata) {
@@ -101,4 +170,60 @@ class ShoppingCartRepositoryInternalImpl extends SimpleR2dbcRepository<ShoppingC
     public <S extends ShoppingCart> Mono<S> save(S entity) {
         return super.save(entity);
     }
+
+    /**
+     * Inserts the shoppingCart and its productOrders with one statement, see {@link #CHECKOUT_INSERT}, and sets their ids.
+     */
+    @Override
+    public Mono<ShoppingCart> insertWithOrders(ShoppingCart shoppingCart, List<ProductOrder> productOrders) {
+        GenericExecuteSpec spec = db
+            .sql(CHECKOUT_INSERT)
+            .bind("placed_date", shoppingCart.getPlacedDate())
+            .bind("status", shoppingCart.getStatus().name())
+            .bind("total_price", shoppingCart.getTotalPrice())
+            .bind("payment_method", shoppingCart.getPaymentMethod().name())
+            .bind("customer_details_id", shoppingCart.getCustomerDetailsId())
+            .bind("quantity", productOrders.stream().map(ProductOrder::getQuantity).toArray(Integer[]::new))
+            .bind("line_total_price", productOrders.stream().map(ProductOrder::getTotalPrice).toArray(BigDecimal[]::new))
+            .bind("product_id", productOrders.stream().map(ProductOrder::getProductId).toArray(Long[]::new));
+        spec = shoppingCart.getPaymentReference() != null
+            ? spec.bind("payment_reference", shoppingCart.getPaymentReference())
+            : spec.bindNull("payment_reference", String.class);
+        return spec
+            .map(row -> new InsertedIds(row.get("cart_id", Long.class), row.get("product_order_id", Long.class)))
+            .all()
+            .collectList()
+            .filter(ids -> !ids.isEmpty())
+            .map(ids -> {
+                shoppingCart.setId(ids.get(0).shoppingCartId());
+                for (int i = 0; i < productOrders.size(); i++) {
+                    productOrders.get(i).setId(ids.get(i).productOrderId());
+                }
+                shoppingCart.setOrders(new LinkedHashSet<>(productOrders));
+                return shoppingCart;
+            });
+    }
+
+    @Override
+    public Mono<ShoppingCart> update(ShoppingCart shoppingCart) {
+        return entityManager.updateIfExists(shoppingCart);
+    }
+
+    @Override
+    public Mono<ShoppingCart> partialUpdate(ShoppingCart shoppingCart) {
+        // the updated shoppingCart is returned with its customer details by the same statement
+        return entityManager.updateNonNullColumnsThenSelect(
+            shoppingCart,
+            entityTable,
+            PARTIAL_UPDATE_COLUMNS,
+            this::createSelectFrom,
+            this::process,
+            id -> findById((Long) id)
+        );
+    }
+
+    /**
+     * The ids of a row returned by {@link #CHECKOUT_INSERT}: the cart and one of its lines, if any.
+     */
+    private record InsertedIds(Long shoppingCartId, Long productOrderId) {}
 }
@@ -0,0 +1,36 @@
+package org.iqkv.boutique.repository;
+
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Spring Data R2DBC repository for the statistics PostgreSQL keeps about the tables.
+ */
+@Repository
+public class TableStatisticsRepository {
+
+    private static final String ROW_ESTIMATE_SELECT = "SELECT reltuples::bigint AS estimate FROM pg_class WHERE oid = to_regclass(:table)";
+
+    private final DatabaseClient db;
+
+    public TableStatisticsRepository(R2dbcEntityTemplate template) {
+        this.db = template.getDatabaseClient();
+    }
+
+    /**
+     * Estimates the number of rows of a table from the statistics of the planner, without reading the table.
+     *
+     * @param table the name of the table.
+     * @return the estimate, as of the last vacuum or analyze of the table, or empty if the table was never analyzed.
+     */
+    public Mono<Long> estimateRowCount(String table) {
+        return db
+            .sql(ROW_ESTIMATE_SELECT)
+            .bind("table", table)
+            .map(row -> row.get("estimate", Long.class))
+            .one()
+            .filter(estimate -> estimate >= 0);
+    }
+}
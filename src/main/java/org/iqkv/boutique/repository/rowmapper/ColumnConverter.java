@@ -1,6 +1,17 @@
 package org.iqkv.boutique.repository.rowmapper;
 
 import io.r2dbc.spi.Row;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.data.r2dbc.convert.R2dbcConverter;
 import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
@@ -11,13 +22,55 @@ import tech.jhipster.service.ColumnConverterReactive;
 
 /**
  * This service provides helper function dealing with the low level {@link Row} and Spring's {@link R2dbcCustomConversions}, so type conversions can be applied.
+ * <p>
+ * The way a column is read is decided once per target type: types decoded by the driver are read directly, enums are read as
+ * their name and looked up in a cached table, and any other type is read as the raw driver value and converted.
+ * Columns are read either by name or by the index resolved once per query by {@link ColumnIndexes}.
  */
 @Component
 public class ColumnConverter implements ColumnConverterReactive {
 
+    /**
+     * Types the driver decodes itself, without any {@link R2dbcCustomConversions}.
+     */
+    private static final Set<Class<?>> DRIVER_TYPES = Set.of(
+        String.class,
+        Long.class,
+        Integer.class,
+        Short.class,
+        Double.class,
+        Float.class,
+        BigDecimal.class,
+        byte[].class,
+        UUID.class,
+        LocalDate.class,
+        LocalDateTime.class,
+        LocalTime.class,
+        OffsetDateTime.class
+    );
+
+    private static final ClassValue<Map<String, ?>> ENUM_CONSTANTS = new ClassValue<>() {
+        @Override
+        protected Map<String, ?> computeValue(Class<?> type) {
+            return Arrays.stream(type.getEnumConstants()).collect(
+                Collectors.toUnmodifiableMap(constant -> ((Enum<?>) constant).name(), Function.identity())
+            );
+        }
+    };
+
     private final ConversionService conversionService;
     private final R2dbcCustomConversions conversions;
 
+    private final ClassValue<Decoding> decodings = new ClassValue<>() {
+        @Override
+        protected Decoding computeValue(Class<?> target) {
+            if (target.isEnum()) {
+                return Decoding.ENUM;
+            }
+            return DRIVER_TYPES.contains(target) ? Decoding.DRIVER : Decoding.CONVERTED;
+        }
+    };
+
     public ColumnConverter(R2dbcCustomConversions conversions, R2dbcConverter r2dbcConverter) {
         this.conversionService = r2dbcConverter.getConversionService();
         this.conversions = conversions;
@@ -42,7 +95,7 @@ public class ColumnConverter implements ColumnConverterReactive {
         }
 
         if (Enum.class.isAssignableFrom(target)) {
-            return (T) Enum.valueOf((Class<Enum>) target, value.toString());
+            return toEnum(value.toString(), target);
         }
 
         return conversionService.convert(value, target);
@@ -57,12 +110,47 @@ public class ColumnConverter implements ColumnConverterReactive {
      * @return the value which can be constructed from the input.
      */
     public <T> T fromRow(Row row, String columnName, Class<T> target) {
-        try {
-            // try, directly the driver
-            return row.get(columnName, target);
-        } catch (Exception e) {
-            Object obj = row.get(columnName);
-            return convert(obj, target);
+        return switch (decodings.get(target)) {
+            case DRIVER -> row.get(columnName, target);
+            case ENUM -> toEnum(row.get(columnName, String.class), target);
+            case CONVERTED -> convert(row.get(columnName), target);
+        };
+    }
+
+    /**
+     * Convert a value from the {@link Row} to a type - throws an exception, if it's impossible.
+     * @param row which contains the column values.
+     * @param index the index of the column which to convert, {@link ColumnIndexes#ABSENT} if the query did not select it.
+     * @param target class.
+     * @param <T> the parameter for the intended type.
+     * @return the value which can be constructed from the input, {@code null} for an absent column.
+     */
+    public <T> T fromRow(Row row, int index, Class<T> target) {
+        if (index == ColumnIndexes.ABSENT) {
+            return null;
         }
+        return switch (decodings.get(target)) {
+            case DRIVER -> row.get(index, target);
+            case ENUM -> toEnum(row.get(index, String.class), target);
+            case CONVERTED -> convert(row.get(index), target);
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T toEnum(@Nullable String name, Class<T> target) {
+        if (name == null) {
+            return null;
+        }
+        T constant = (T) ENUM_CONSTANTS.get(target).get(name);
+        if (constant == null) {
+            throw new IllegalArgumentException("No enum constant " + target.getCanonicalName() + "." + name);
+        }
+        return constant;
+    }
+
+    private enum Decoding {
+        DRIVER,
+        ENUM,
+        CONVERTED,
     }
 }
@@ -0,0 +1,73 @@
+package org.iqkv.boutique.repository.rowmapper;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Indexes of the columns of an entity in the rows of a query, so a row mapper reads them by index instead of by name.
+ * <p>
+ * The prefixed column names are built once per prefix, and their indexes are resolved once per {@link RowMetadata}: the driver
+ * shares the metadata between all the rows of a result, so mapping a row neither concatenates nor looks up any name.
+ * The indexes are kept per metadata instance, compared by identity and weakly referenced, so concurrent queries sharing a
+ * row mapper each keep their own indexes, which are dropped along with their result.
+ * A column missing from the query, like the image of a summary select, has the {@link #ABSENT} index.
+ */
+final class ColumnIndexes {
+
+    static final int ABSENT = -1;
+
+    private final String[] columns;
+
+    // results of a query being mapped at the same time, beyond which the indexes of the oldest are resolved again
+    private static final int MAXIMUM_RESULTS = 64;
+
+    private final ConcurrentMap<String, Prefixed> prefixes = new ConcurrentHashMap<>();
+
+    ColumnIndexes(String... columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Resolves the indexes of the columns in the row, in the order of the columns given to the constructor.
+     * @param row the row to read.
+     * @param prefix the column prefix of the entity in the query.
+     * @return the indexes, {@link #ABSENT} for the columns the query did not select; must not be modified.
+     */
+    int[] resolve(Row row, String prefix) {
+        Prefixed prefixed = prefixes.computeIfAbsent(prefix, key -> new Prefixed(prefixed(key), newIndexCache()));
+        return prefixed.indexes().get(row.getMetadata(), metadata -> indexesOf(prefixed.names(), metadata));
+    }
+
+    private static Cache<RowMetadata, int[]> newIndexCache() {
+        // weak keys are compared by identity
+        return Caffeine.newBuilder().weakKeys().maximumSize(MAXIMUM_RESULTS).build();
+    }
+
+    private String[] prefixed(String prefix) {
+        return Arrays.stream(columns).map(column -> prefix + "_" + column).toArray(String[]::new);
+    }
+
+    private static int[] indexesOf(String[] names, RowMetadata metadata) {
+        int[] indexes = new int[names.length];
+        Arrays.fill(indexes, ABSENT);
+        List<? extends ColumnMetadata> columnMetadatas = metadata.getColumnMetadatas();
+        for (int index = 0; index < columnMetadatas.size(); index++) {
+            String name = columnMetadatas.get(index).getName();
+            for (int column = 0; column < names.length; column++) {
+                if (indexes[column] == ABSENT && names[column].equalsIgnoreCase(name)) {
+                    indexes[column] = index;
+                }
+            }
+        }
+        return indexes;
+    }
+
+    private record Prefixed(String[] names, Cache<RowMetadata, int[]> indexes) {}
+}
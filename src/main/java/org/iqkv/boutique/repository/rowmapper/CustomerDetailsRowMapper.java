@@ -12,26 +12,37 @@ import org.springframework.stereotype.Service;
 @Service
 public class CustomerDetailsRowMapper implements BiFunction<Row, String, CustomerDetails> {
 
+    private static final int ID = 0;
+    private static final int GENDER = 1;
+    private static final int PHONE = 2;
+    private static final int ADDRESS_LINE_1 = 3;
+    private static final int ADDRESS_LINE_2 = 4;
+    private static final int CITY = 5;
+    private static final int COUNTRY = 6;
+
     private final ColumnConverter converter;
 
+    private final ColumnIndexes columns = new ColumnIndexes("id", "gender", "phone", "address_line_1", "address_line_2", "city", "country");
+
     public CustomerDetailsRowMapper(ColumnConverter converter) {
         this.converter = converter;
     }
 
     /**
-     * Take a {@link Row} and a column prefix, and extract all the fields.
+     * Take a {@link Row} and a column prefix, and extract all the fields, by the column indexes resolved for the query.
      * @return the {@link CustomerDetails} stored in the database.
      */
     @Override
     public CustomerDetails apply(Row row, String prefix) {
+        int[] index = columns.resolve(row, prefix);
         CustomerDetails entity = new CustomerDetails();
-        entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
-        entity.setGender(converter.fromRow(row, prefix + "_gender", Gender.class));
-        entity.setPhone(converter.fromRow(row, prefix + "_phone", String.class));
-        entity.setAddressLine1(converter.fromRow(row, prefix + "_address_line_1", String.class));
-        entity.setAddressLine2(converter.fromRow(row, prefix + "_address_line_2", String.class));
-        entity.setCity(converter.fromRow(row, prefix + "_city", String.class));
-        entity.setCountry(converter.fromRow(row, prefix + "_country", String.class));
+        entity.setId(converter.fromRow(row, index[ID], Long.class));
+        entity.setGender(converter.fromRow(row, index[GENDER], Gender.class));
+        entity.setPhone(converter.fromRow(row, index[PHONE], String.class));
+        entity.setAddressLine1(converter.fromRow(row, index[ADDRESS_LINE_1], String.class));
+        entity.setAddressLine2(converter.fromRow(row, index[ADDRESS_LINE_2], String.class));
+        entity.setCity(converter.fromRow(row, index[CITY], String.class));
+        entity.setCountry(converter.fromRow(row, index[COUNTRY], String.class));
         return entity;
     }
 }
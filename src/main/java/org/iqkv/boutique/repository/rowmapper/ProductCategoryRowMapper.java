@@ -11,22 +11,29 @@ import org.springframework.stereotype.Service;
 @Service
 public class ProductCategoryRowMapper implements BiFunction<Row, String, ProductCategory> {
 
+    private static final int ID = 0;
+    private static final int NAME = 1;
+    private static final int DESCRIPTION = 2;
+
     private final ColumnConverter converter;
 
+    private final ColumnIndexes columns = new ColumnIndexes("id", "name", "description");
+
     public ProductCategoryRowMapper(ColumnConverter converter) {
         this.converter = converter;
     }
 
     /**
-     * Take a {@link Row} and a column prefix, and extract all the fields.
+     * Take a {@link Row} and a column prefix, and extract all the fields, by the column indexes resolved for the query.
      * @return the {@link ProductCategory} stored in the database.
      */
     @Override
     public ProductCategory apply(Row row, String prefix) {
+        int[] index = columns.resolve(row, prefix);
         ProductCategory entity = new ProductCategory();
-        entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
-        entity.setName(converter.fromRow(row, prefix + "_name", String.class));
-        entity.setDescription(converter.fromRow(row, prefix + "_description", String.class));
+        entity.setId(converter.fromRow(row, index[ID], Long.class));
+        entity.setName(converter.fromRow(row, index[NAME], String.class));
+        entity.setDescription(converter.fromRow(row, index[DESCRIPTION], String.class));
         return entity;
     }
 }
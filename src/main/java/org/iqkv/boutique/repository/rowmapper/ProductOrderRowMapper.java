@@ -12,24 +12,33 @@ import org.springframework.stereotype.Service;
 @Service
 public class ProductOrderRowMapper implements BiFunction<Row, String, ProductOrder> {
 
+    private static final int ID = 0;
+    private static final int QUANTITY = 1;
+    private static final int TOTAL_PRICE = 2;
+    private static final int PRODUCT_ID = 3;
+    private static final int CART_ID = 4;
+
     private final ColumnConverter converter;
 
+    private final ColumnIndexes columns = new ColumnIndexes("id", "quantity", "total_price", "product_id", "cart_id");
+
     public ProductOrderRowMapper(ColumnConverter converter) {
         this.converter = converter;
     }
 
     /**
-     * Take a {@link Row} and a column prefix, and extract all the fields.
+     * Take a {@link Row} and a column prefix, and extract all the fields, by the column indexes resolved for the query.
      * @return the {@link ProductOrder} stored in the database.
      */
     @Override
     public ProductOrder apply(Row row, String prefix) {
+        int[] index = columns.resolve(row, prefix);
         ProductOrder entity = new ProductOrder();
-        entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
-        entity.setQuantity(converter.fromRow(row, prefix + "_quantity", Integer.class));
-        entity.setTotalPrice(converter.fromRow(row, prefix + "_total_price", BigDecimal.class));
-        entity.setProductId(converter.fromRow(row, prefix + "_product_id", Long.class));
-        entity.setCartId(converter.fromRow(row, prefix + "_cart_id", Long.class));
+        entity.setId(converter.fromRow(row, index[ID], Long.class));
+        entity.setQuantity(converter.fromRow(row, index[QUANTITY], Integer.class));
+        entity.setTotalPrice(converter.fromRow(row, index[TOTAL_PRICE], BigDecimal.class));
+        entity.setProductId(converter.fromRow(row, index[PRODUCT_ID], Long.class));
+        entity.setCartId(converter.fromRow(row, index[CART_ID], Long.class));
         return entity;
     }
 }
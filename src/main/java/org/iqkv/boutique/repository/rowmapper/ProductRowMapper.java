@@ -13,27 +13,57 @@ import org.springframework.stereotype.Service;
 @Service
 public class ProductRowMapper implements BiFunction<Row, String, Product> {
 
+    private static final int ID = 0;
+    private static final int NAME = 1;
+    private static final int DESCRIPTION = 2;
+    private static final int PRICE = 3;
+    private static final int PRODUCT_SIZE = 4;
+    private static final int IMAGE_CONTENT_TYPE = 5;
+    private static final int IMAGE = 6;
+    private static final int IMAGE_SIZE = 7;
+    private static final int PRODUCT_CATEGORY_ID = 8;
+
     private final ColumnConverter converter;
 
+    private final ColumnIndexes columns = new ColumnIndexes(
+        "id",
+        "name",
+        "description",
+        "price",
+        "product_size",
+        "image_content_type",
+        "image",
+        "image_size",
+        "product_category_id"
+    );
+
     public ProductRowMapper(ColumnConverter converter) {
         this.converter = converter;
     }
 
     /**
-     * Take a {@link Row} and a column prefix, and extract all the fields.
+     * Take a {@link Row} and a column prefix, and extract all the fields, by the column indexes resolved for the query.
+     * The image is only read when selected, summary selects only contain its size.
      * @return the {@link Product} stored in the database.
      */
     @Override
     public Product apply(Row row, String prefix) {
+        int[] index = columns.resolve(row, prefix);
         Product entity = new Product();
-        entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
-        entity.setName(converter.fromRow(row, prefix + "_name", String.class));
-        entity.setDescription(converter.fromRow(row, prefix + "_description", String.class));
-        entity.setPrice(converter.fromRow(row, prefix + "_price", BigDecimal.class));
-        entity.setProductSize(converter.fromRow(row, prefix + "_product_size", Size.class));
-        entity.setImageContentType(converter.fromRow(row, prefix + "_image_content_type", String.class));
-        entity.setImage(converter.fromRow(row, prefix + "_image", byte[].class));
-        entity.setProductCategoryId(converter.fromRow(row, prefix + "_product_category_id", Long.class));
+        entity.setId(converter.fromRow(row, index[ID], Long.class));
+        entity.setName(converter.fromRow(row, index[NAME], String.class));
+        entity.setDescription(converter.fromRow(row, index[DESCRIPTION], String.class));
+        entity.setPrice(converter.fromRow(row, index[PRICE], BigDecimal.class));
+        entity.setProductSize(converter.fromRow(row, index[PRODUCT_SIZE], Size.class));
+        entity.setImageContentType(converter.fromRow(row, index[IMAGE_CONTENT_TYPE], String.class));
+        if (index[IMAGE] != ColumnIndexes.ABSENT) {
+            byte[] image = converter.fromRow(row, index[IMAGE], byte[].class);
+            entity.setImage(image);
+            entity.setImageSize(image != null ? Long.valueOf(image.length) : null);
+        } else {
+            entity.setImageSize(converter.fromRow(row, index[IMAGE_SIZE], Long.class));
+        }
+        entity.setProductCategoryId(converter.fromRow(row, index[PRODUCT_CATEGORY_ID], Long.class));
         return entity;
     }
 }
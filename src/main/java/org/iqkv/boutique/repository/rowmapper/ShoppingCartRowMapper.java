@@ -15,26 +15,45 @@ import org.springframework.stereotype.Service;
 @Service
 public class ShoppingCartRowMapper implements BiFunction<Row, String, ShoppingCart> {
 
+    private static final int ID = 0;
+    private static final int PLACED_DATE = 1;
+    private static final int STATUS = 2;
+    private static final int TOTAL_PRICE = 3;
+    private static final int PAYMENT_METHOD = 4;
+    private static final int PAYMENT_REFERENCE = 5;
+    private static final int CUSTOMER_DETAILS_ID = 6;
+
     private final ColumnConverter converter;
 
+    private final ColumnIndexes columns = new ColumnIndexes(
+        "id",
+        "placed_date",
+        "status",
+        "total_price",
+        "payment_method",
+        "payment_reference",
+        "customer_details_id"
+    );
+
     public ShoppingCartRowMapper(ColumnConverter converter) {
         this.converter = converter;
     }
 
     /**
-     * Take a {@link Row} and a column prefix, and extract all the fields.
+     * Take a {@link Row} and a column prefix, and extract all the fields, by the column indexes resolved for the query.
      * @return the {@link ShoppingCart} stored in the database.
      */
     @Override
     public ShoppingCart apply(Row row, String prefix) {
+        int[] index = columns.resolve(row, prefix);
         ShoppingCart entity = new ShoppingCart();
-        entity.setId(converter.fromRow(row, prefix + "_id", Long.class));
-        entity.setPlacedDate(converter.fromRow(row, prefix + "_placed_date", Instant.class));
-        entity.setStatus(converter.fromRow(row, prefix + "_status", OrderStatus.class));
-        entity.setTotalPrice(converter.fromRow(row, prefix + "_total_price", BigDecimal.class));
-        entity.setPaymentMethod(converter.fromRow(row, prefix + "_payment_method", PaymentMethod.class));
-        entity.setPaymentReference(converter.fromRow(row, prefix + "_payment_reference", String.class));
-        entity.setCustomerDetailsId(converter.fromRow(row, prefix + "_customer_details_id", Long.class));
+        entity.setId(converter.fromRow(row, index[ID], Long.class));
+        entity.setPlacedDate(converter.fromRow(row, index[PLACED_DATE], Instant.class));
+        entity.setStatus(converter.fromRow(row, index[STATUS], OrderStatus.class));
+        entity.setTotalPrice(converter.fromRow(row, index[TOTAL_PRICE], BigDecimal.class));
+        entity.setPaymentMethod(converter.fromRow(row, index[PAYMENT_METHOD], PaymentMethod.class));
+        entity.setPaymentReference(converter.fromRow(row, index[PAYMENT_REFERENCE], String.class));
+        entity.setCustomerDetailsId(converter.fromRow(row, index[CUSTOMER_DETAILS_ID], Long.class));
         return entity;
     }
 }
@@ -0,0 +1,179 @@
+package org.iqkv.boutique.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.List;
+import java.util.function.Function;
+import org.iqkv.boutique.config.ApplicationProperties;
+import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.ProductCategory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process cache of the catalog: products and product categories read by id, and pages of product categories.
+ * <p>
+ * Entries are bounded by their estimated size in memory, product images included, and expire after a fixed time, and are
+ * evicted when the catalog is written. Evictions are done both immediately and once the writing transaction completes, so
+ * a read racing with the transaction cannot keep the previous state cached.
+ * <p>
+ * The entities are mutable, so every read returns a copy of the cached entity, which callers are free to modify. Product
+ * categories are cached without their products, which are not loaded with them.
+ */
+@Component
+public class CatalogCache {
+
+    public static final String PRODUCTS_CACHE_NAME = "catalog.products";
+    public static final String PRODUCT_CATEGORIES_CACHE_NAME = "catalog.product-categories";
+    public static final String PRODUCT_CATEGORY_PAGES_CACHE_NAME = "catalog.product-category-pages";
+
+    // estimated size in memory, in bytes, of an entity without its strings and image
+    private static final int ENTITY_WEIGHT = 128;
+
+    private final AsyncCache<Long, Product> products;
+    private final AsyncCache<Long, ProductCategory> productCategories;
+    private final AsyncCache<Pageable, List<ProductCategory>> productCategoryPages;
+
+    public CatalogCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Cache.Catalog catalog = applicationProperties.getCache().getCatalog();
+        this.products = CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            createCache(catalog, (Long id, Product product) -> weigh(product)),
+            PRODUCTS_CACHE_NAME
+        );
+        this.productCategories = CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            createCache(catalog, (Long id, ProductCategory productCategory) -> weigh(productCategory)),
+            PRODUCT_CATEGORIES_CACHE_NAME
+        );
+        this.productCategoryPages = CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            createCache(catalog, (Pageable pageable, List<ProductCategory> page) -> page.stream().mapToInt(CatalogCache::weigh).sum()),
+            PRODUCT_CATEGORY_PAGES_CACHE_NAME
+        );
+    }
+
+    private static <K, V> AsyncCache<K, V> createCache(ApplicationProperties.Cache.Catalog catalog, Weigher<K, V> weigher) {
+        return Caffeine.newBuilder()
+            .maximumWeight(catalog.getMaximumWeight().toBytes())
+            .weigher(weigher)
+            .expireAfterWrite(catalog.getTimeToLive())
+            .recordStats()
+            .buildAsync();
+    }
+
+    public Mono<Product> getProduct(Long id, Function<Long, Mono<Product>> loader) {
+        return get(products, id, loader).map(CatalogCache::copy);
+    }
+
+    public Mono<ProductCategory> getProductCategory(Long id, Function<Long, Mono<ProductCategory>> loader) {
+        return get(productCategories, id, loader).map(CatalogCache::copy);
+    }
+
+    public Flux<ProductCategory> getProductCategoryPage(Pageable pageable, Function<Pageable, Flux<ProductCategory>> loader) {
+        if (pageable == null) {
+            return loader.apply(null);
+        }
+        return get(productCategoryPages, pageable, key -> loader.apply(key).collectList())
+            .flatMapIterable(Function.identity())
+            .map(CatalogCache::copy);
+    }
+
+    /**
+     * Evicts a written product.
+     *
+     * @param id the id of the product.
+     * @return a Mono to signal the eviction.
+     */
+    public Mono<Void> evictProduct(Long id) {
+        return evict(() -> products.synchronous().invalidate(id));
+    }
+
+    /**
+     * Evicts a written product category, along with all the products as they embed their category.
+     *
+     * @param id the id of the product category.
+     * @return a Mono to signal the eviction.
+     */
+    public Mono<Void> evictProductCategory(Long id) {
+        return evict(() -> {
+            productCategories.synchronous().invalidate(id);
+            productCategoryPages.synchronous().invalidateAll();
+            products.synchronous().invalidateAll();
+        });
+    }
+
+    private static <K, V> Mono<V> get(AsyncCache<K, V> cache, K key, Function<K, Mono<V>> loader) {
+        // an empty loader completes with null, which Caffeine does not store
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> loader.apply(k).toFuture()), true);
+    }
+
+    // estimated size in memory, in bytes, of the entities, which is mostly their strings and image
+    private static int weigh(Product product) {
+        int weight = ENTITY_WEIGHT + weigh(product.getName()) + weigh(product.getDescription()) + weigh(product.getImageContentType());
+        if (product.getImage() != null) {
+            weight += product.getImage().length;
+        }
+        if (product.getProductCategory() != null) {
+            weight += weigh(product.getProductCategory());
+        }
+        return weight;
+    }
+
+    private static int weigh(ProductCategory productCategory) {
+        return ENTITY_WEIGHT + weigh(productCategory.getName()) + weigh(productCategory.getDescription());
+    }
+
+    private static int weigh(String value) {
+        return value != null ? 2 * value.length() : 0;
+    }
+
+    private static Product copy(Product product) {
+        Product copy = new Product()
+            .id(product.getId())
+            .name(product.getName())
+            .description(product.getDescription())
+            .price(product.getPrice())
+            .productSize(product.getProductSize())
+            .image(product.getImage() != null ? product.getImage().clone() : null)
+            .imageContentType(product.getImageContentType())
+            .imageSize(product.getImageSize())
+            .productCategory(product.getProductCategory() != null ? copy(product.getProductCategory()) : null);
+        copy.setProductCategoryId(product.getProductCategoryId());
+        return copy;
+    }
+
+    private static ProductCategory copy(ProductCategory productCategory) {
+        return new ProductCategory()
+            .id(productCategory.getId())
+            .name(productCategory.getName())
+            .description(productCategory.getDescription());
+    }
+
+    private static Mono<Void> evict(Runnable eviction) {
+        return Mono.fromRunnable(eviction).then(
+            TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .doOnNext(manager -> manager.registerSynchronization(afterCompletion(eviction)))
+                .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+                .then()
+        );
+    }
+
+    private static TransactionSynchronization afterCompletion(Runnable eviction) {
+        return new TransactionSynchronization() {
+            @Override
+            public Mono<Void> afterCompletion(int status) {
+                return Mono.fromRunnable(eviction);
+            }
+        };
+    }
+}
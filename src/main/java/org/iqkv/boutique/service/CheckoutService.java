@@ -0,0 +1,93 @@
+package org.iqkv.boutique.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.iqkv.boutique.domain.ProductOrder;
+import org.iqkv.boutique.domain.ShoppingCart;
+import org.iqkv.boutique.domain.enumeration.OrderStatus;
+import org.iqkv.boutique.repository.ProductRepository;
+import org.iqkv.boutique.repository.ShoppingCartRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service Implementation for checking out a {@link org.iqkv.boutique.domain.ShoppingCart} with all its
+ * {@link org.iqkv.boutique.domain.ProductOrder}s at once.
+ * <p>
+ * The prices of all the products are read with one query, the totals are computed from them, and the cart and its lines are
+ * inserted with one statement, only if the customer details of the cart exist: a checkout takes two statements whatever the
+ * cart size.
+ */
+@Service
+@Transactional
+public class CheckoutService {
+
+    private final Logger log = LoggerFactory.getLogger(CheckoutService.class);
+
+    private final ProductRepository productRepository;
+
+    private final ShoppingCartRepository shoppingCartRepository;
+
+    private final TotalCountService totalCountService;
+
+    public CheckoutService(
+        ProductRepository productRepository,
+        ShoppingCartRepository shoppingCartRepository,
+        TotalCountService totalCountService
+    ) {
+        this.productRepository = productRepository;
+        this.shoppingCartRepository = shoppingCartRepository;
+        this.totalCountService = totalCountService;
+    }
+
+    /**
+     * Check out a new shoppingCart.
+     *
+     * @param shoppingCart the new cart; its placed date, status and total price are set by the checkout.
+     * @param productOrders the new lines of the cart, with their product and quantity; their total price is set by the checkout.
+     * @return the persisted cart, with its persisted lines in the given order,
+     * or an {@link UnknownCustomerDetailsException} if the cart refers to customer details that do not exist,
+     * or an {@link UnknownProductException} if a line refers to a product that does not exist.
+     */
+    public Mono<ShoppingCart> checkout(ShoppingCart shoppingCart, List<ProductOrder> productOrders) {
+        log.debug("Request to check out ShoppingCart : {} with {} ProductOrders", shoppingCart, productOrders.size());
+        Set<Long> productIds = productOrders.stream().map(ProductOrder::getProductId).collect(Collectors.toSet());
+        return productRepository
+            .findPricesByIds(productIds)
+            .flatMap(prices -> {
+                if (!prices.keySet().containsAll(productIds)) {
+                    Set<Long> unknownProductIds = new LinkedHashSet<>(productIds);
+                    unknownProductIds.removeAll(prices.keySet());
+                    return Mono.error(new UnknownProductException(unknownProductIds));
+                }
+                price(shoppingCart, productOrders, prices);
+                return shoppingCartRepository
+                    .insertWithOrders(shoppingCart, productOrders)
+                    .switchIfEmpty(Mono.error(() -> new UnknownCustomerDetailsException(shoppingCart.getCustomerDetailsId())));
+            })
+            .flatMap(saved ->
+                totalCountService
+                    .evict(ShoppingCartService.TABLE)
+                    .then(totalCountService.evict(ProductOrderService.TABLE))
+                    .thenReturn(saved)
+            );
+    }
+
+    private static void price(ShoppingCart shoppingCart, List<ProductOrder> productOrders, Map<Long, BigDecimal> prices) {
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        for (ProductOrder productOrder : productOrders) {
+            BigDecimal lineTotalPrice = prices.get(productOrder.getProductId()).multiply(BigDecimal.valueOf(productOrder.getQuantity()));
+            productOrder.setTotalPrice(lineTotalPrice);
+            totalPrice = totalPrice.add(lineTotalPrice);
+        }
+        shoppingCart.placedDate(Instant.now()).status(OrderStatus.PENDING).setTotalPrice(totalPrice);
+    }
+}
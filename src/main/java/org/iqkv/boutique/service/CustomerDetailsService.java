@@ -2,6 +2,7 @@ package org.iqkv.boutique.service;
 
 import org.iqkv.boutique.domain.CustomerDetails;
 import org.iqkv.boutique.repository.CustomerDetailsRepository;
+import org.iqkv.boutique.repository.Keyset;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
@@ -19,10 +20,15 @@ public class CustomerDetailsService {
 
     private final Logger log = LoggerFactory.getLogger(CustomerDetailsService.class);
 
+    private static final String TABLE = "customer_details";
+
     private final CustomerDetailsRepository customerDetailsRepository;
 
-    public CustomerDetailsService(CustomerDetailsRepository customerDetailsRepository) {
+    private final TotalCountService totalCountService;
+
+    public CustomerDetailsService(CustomerDetailsRepository customerDetailsRepository, TotalCountService totalCountService) {
         this.customerDetailsRepository = customerDetailsRepository;
+        this.totalCountService = totalCountService;
     }
 
     /**
@@ -33,54 +39,30 @@ public class CustomerDetailsService {
      */
     public Mono<CustomerDetails> save(CustomerDetails customerDetails) {
         log.debug("Request to save CustomerDetails : {}", customerDetails);
-        return customerDetailsRepository.save(customerDetails);
+        return customerDetailsRepository.save(customerDetails).flatMap(saved -> totalCountService.evict(TABLE).thenReturn(saved));
     }
 
     /**
      * Update a customerDetails.
      *
      * @param customerDetails the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the entity does not exist.
      */
     public Mono<CustomerDetails> update(CustomerDetails customerDetails) {
         log.debug("Request to update CustomerDetails : {}", customerDetails);
-        return customerDetailsRepository.save(customerDetails);
+        return customerDetailsRepository.update(customerDetails);
     }
 
     /**
      * Partially update a customerDetails.
      *
      * @param customerDetails the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the entity does not exist.
      */
     public Mono<CustomerDetails> partialUpdate(CustomerDetails customerDetails) {
         log.debug("Request to partially update CustomerDetails : {}", customerDetails);
 
-        return customerDetailsRepository
-            .findById(customerDetails.getId())
-            .map(existingCustomerDetails -> {
-                if (customerDetails.getGender() != null) {
-                    existingCustomerDetails.setGender(customerDetails.getGender());
-                }
-                if (customerDetails.getPhone() != null) {
-                    existingCustomerDetails.setPhone(customerDetails.getPhone());
-                }
-                if (customerDetails.getAddressLine1() != null) {
-                    existingCustomerDetails.setAddressLine1(customerDetails.getAddressLine1());
-                }
-                if (customerDetails.getAddressLine2() != null) {
-                    existingCustomerDetails.setAddressLine2(customerDetails.getAddressLine2());
-                }
-                if (customerDetails.getCity() != null) {
-                    existingCustomerDetails.setCity(customerDetails.getCity());
-                }
-                if (customerDetails.getCountry() != null) {
-                    existingCustomerDetails.setCountry(customerDetails.getCountry());
-                }
-
-                return existingCustomerDetails;
-            })
-            .flatMap(customerDetailsRepository::save);
+        return customerDetailsRepository.partialUpdate(customerDetails);
     }
 
     /**
@@ -96,12 +78,24 @@ public class CustomerDetailsService {
     }
 
     /**
-     * Returns the number of customerDetails available.
+     * Get a page of the customerDetails, positioned after the last row of the previous page.
+     *
+     * @param keyset the position, sort and size of the page.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Flux<CustomerDetails> findAllAfter(Keyset keyset) {
+        log.debug("Request to get CustomerDetails after : {}", keyset);
+        return customerDetailsRepository.findAllAfter(keyset);
+    }
+
+    /**
+     * Returns the number of customerDetails available, computed with the configured count strategy.
      * @return the number of entities in the database.
      *
      */
-    public Mono<Long> countAll() {
-        return customerDetailsRepository.count();
+    public Mono<TotalCount> countAll() {
+        return totalCountService.count(TABLE, customerDetailsRepository::count);
     }
 
     /**
@@ -116,6 +110,17 @@ public class CustomerDetailsService {
         return customerDetailsRepository.findById(id);
     }
 
+    /**
+     * Get the version of the "id" customerDetails, without reading the entity.
+     *
+     * @param id the id of the entity.
+     * @return the version, which changes whenever the customerDetails is written, or empty if the entity does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Mono<String> findVersion(Long id) {
+        return customerDetailsRepository.findVersionById(id);
+    }
+
     /**
      * Delete the customerDetails by id.
      *
@@ -124,6 +129,6 @@ public class CustomerDetailsService {
      */
     public Mono<Void> delete(Long id) {
         log.debug("Request to delete CustomerDetails : {}", id);
-        return customerDetailsRepository.deleteById(id);
+        return customerDetailsRepository.deleteById(id).then(totalCountService.evict(TABLE));
     }
 }
@@ -0,0 +1,13 @@
+package org.iqkv.boutique.service;
+
+/**
+ * Thrown when an export is requested while the maximum number of exports are already running.
+ */
+public class ExportLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ExportLimitExceededException(int maxConcurrentExports) {
+        super("Too many concurrent exports, at most " + maxConcurrentExports + " can run at a time");
+    }
+}
@@ -0,0 +1,69 @@
+package org.iqkv.boutique.service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntFunction;
+import org.iqkv.boutique.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service running the streaming exports of whole tables.
+ * <p>
+ * The rows are read through a cursor, {@code fetchSize} rows at a time, and only when the client has consumed the previous
+ * ones. As an export holds its connection until it ends, the number of concurrent exports is bounded, an export is aborted when
+ * the client stops reading for the idle timeout, and when it lasts longer than the total timeout.
+ * <p>
+ * The cursor is read in a read-only transaction, which also holds a snapshot of the database for the whole export, keeping
+ * vacuum from removing the rows updated or deleted meanwhile: the total timeout must stay short.
+ */
+@Service
+public class ExportService {
+
+    private final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private final ApplicationProperties.Export properties;
+
+    private final Semaphore permits;
+
+    public ExportService(ApplicationProperties applicationProperties) {
+        this.properties = applicationProperties.getExport();
+        this.permits = new Semaphore(properties.getMaxConcurrentExports());
+    }
+
+    /**
+     * Run an export.
+     *
+     * @param name the name of the export, for the logs.
+     * @param rows the query of the rows, given the number of rows to fetch at a time.
+     * @param <T> the type of the rows.
+     * @return the rows, or an {@link ExportLimitExceededException} if too many exports are running,
+     * or a {@link TimeoutException} if the export timed out.
+     */
+    public <T> Flux<T> export(String name, IntFunction<Flux<T>> rows) {
+        return Flux.defer(() -> {
+            if (!permits.tryAcquire()) {
+                return Flux.error(new ExportLimitExceededException(properties.getMaxConcurrentExports()));
+            }
+            log.debug("Starting export of {}", name);
+            Mono<T> deadline = Mono.delay(properties.getTotalTimeout()).then(
+                Mono.error(() -> new TimeoutException("Export of " + name + " exceeded " + properties.getTotalTimeout()))
+            );
+            // the permit is released eagerly, before the end of the export reaches the client, which may start the next one
+            return Flux.using(
+                () -> name,
+                export ->
+                    rows
+                        .apply(properties.getFetchSize())
+                        .limitRate(properties.getFetchSize())
+                        .timeout(properties.getIdleTimeout())
+                        .takeUntilOther(deadline),
+                export -> permits.release(),
+                true
+            ).doFinally(signal -> log.debug("Export of {} ended with {}", name, signal));
+        });
+    }
+}
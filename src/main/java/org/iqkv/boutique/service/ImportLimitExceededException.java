@@ -0,0 +1,13 @@
+package org.iqkv.boutique.service;
+
+/**
+ * Thrown when an import is requested while the maximum number of imports are already running.
+ */
+public class ImportLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ImportLimitExceededException(int maxConcurrentImports) {
+        super("Too many concurrent imports, at most " + maxConcurrentImports + " can run at a time");
+    }
+}
@@ -0,0 +1,13 @@
+package org.iqkv.boutique.service;
+
+/**
+ * Thrown when an import cannot be read at all, as opposed to the rows it rejects.
+ */
+public class InvalidImportException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public InvalidImportException(String message) {
+        super(message);
+    }
+}
@@ -21,8 +21,20 @@ public class ProductCategoryService {
 
     private final ProductCategoryRepository productCategoryRepository;
 
-    public ProductCategoryService(ProductCategoryRepository productCategoryRepository) {
+    private static final String TABLE = "product_category";
+
+    private final CatalogCache catalogCache;
+
+    private final TotalCountService totalCountService;
+
+    public ProductCategoryService(
+        ProductCategoryRepository productCategoryRepository,
+        CatalogCache catalogCache,
+        TotalCountService totalCountService
+    ) {
         this.productCategoryRepository = productCategoryRepository;
+        this.catalogCache = catalogCache;
+        this.totalCountService = totalCountService;
     }
 
     /**
@@ -33,42 +45,37 @@ public class ProductCategoryService {
      */
     public Mono<ProductCategory> save(ProductCategory productCategory) {
         log.debug("Request to save ProductCategory : {}", productCategory);
-        return productCategoryRepository.save(productCategory);
+        return productCategoryRepository
+            .save(productCategory)
+            .flatMap(saved -> totalCountService.evict(TABLE).thenReturn(saved))
+            .flatMap(saved -> catalogCache.evictProductCategory(saved.getId()).thenReturn(saved));
     }
 
     /**
      * Update a productCategory.
      *
      * @param productCategory the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the entity does not exist.
      */
     public Mono<ProductCategory> update(ProductCategory productCategory) {
         log.debug("Request to update ProductCategory : {}", productCategory);
-        return productCategoryRepository.save(productCategory);
+        return productCategoryRepository
+            .update(productCategory)
+            .flatMap(saved -> catalogCache.evictProductCategory(saved.getId()).thenReturn(saved));
     }
 
     /**
      * Partially update a productCategory.
      *
      * @param productCategory the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the entity does not exist.
      */
     public Mono<ProductCategory> partialUpdate(ProductCategory productCategory) {
         log.debug("Request to partially update ProductCategory : {}", productCategory);
 
         return productCategoryRepository
-            .findById(productCategory.getId())
-            .map(existingProductCategory -> {
-                if (productCategory.getName() != null) {
-                    existingProductCategory.setName(productCategory.getName());
-                }
-                if (productCategory.getDescription() != null) {
-                    existingProductCategory.setDescription(productCategory.getDescription());
-                }
-
-                return existingProductCategory;
-            })
-            .flatMap(productCategoryRepository::save);
+            .partialUpdate(productCategory)
+            .flatMap(saved -> catalogCache.evictProductCategory(saved.getId()).thenReturn(saved));
     }
 
     /**
@@ -80,16 +87,16 @@ public class ProductCategoryService {
     @Transactional(readOnly = true)
     public Flux<ProductCategory> findAll(Pageable pageable) {
         log.debug("Request to get all ProductCategories");
-        return productCategoryRepository.findAllBy(pageable);
+        return catalogCache.getProductCategoryPage(pageable, productCategoryRepository::findAllBy);
     }
 
     /**
-     * Returns the number of productCategories available.
+     * Returns the number of productCategories available, computed with the configured count strategy.
      * @return the number of entities in the database.
      *
      */
-    public Mono<Long> countAll() {
-        return productCategoryRepository.count();
+    public Mono<TotalCount> countAll() {
+        return totalCountService.count(TABLE, productCategoryRepository::count);
     }
 
     /**
@@ -101,7 +108,18 @@ public class ProductCategoryService {
     @Transactional(readOnly = true)
     public Mono<ProductCategory> findOne(Long id) {
         log.debug("Request to get ProductCategory : {}", id);
-        return productCategoryRepository.findById(id);
+        return catalogCache.getProductCategory(id, productCategoryRepository::findById);
+    }
+
+    /**
+     * Get the version of the "id" productCategory, without reading the entity.
+     *
+     * @param id the id of the entity.
+     * @return the version, which changes whenever the productCategory is written, or empty if the entity does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Mono<String> findVersion(Long id) {
+        return productCategoryRepository.findVersionById(id);
     }
 
     /**
@@ -112,6 +130,9 @@ public class ProductCategoryService {
      */
     public Mono<Void> delete(Long id) {
         log.debug("Request to delete ProductCategory : {}", id);
-        return productCategoryRepository.deleteById(id);
+        return productCategoryRepository
+            .deleteById(id)
+            .then(totalCountService.evict(TABLE))
+            .then(catalogCache.evictProductCategory(id));
     }
 }
@@ -0,0 +1,20 @@
+package org.iqkv.boutique.service;
+
+import java.util.List;
+
+/**
+ * Outcome of a product import: the number of rows inserted and rejected, and why the first rejected rows were.
+ *
+ * @param imported the number of products inserted.
+ * @param rejected the number of rows skipped, all of them counted even if their errors are not all reported.
+ * @param errors the errors of the first rejected rows, in line order.
+ */
+public record ProductImportReport(long imported, long rejected, List<RowError> errors) {
+    /**
+     * Why a row was rejected.
+     *
+     * @param line the line number of the row in the imported body, starting at 1.
+     * @param message the problems found on the row.
+     */
+    public record RowError(long line, String message) {}
+}
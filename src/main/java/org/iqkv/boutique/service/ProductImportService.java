@@ -0,0 +1,384 @@
+package org.iqkv.boutique.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.iqkv.boutique.config.ApplicationProperties;
+import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.enumeration.Size;
+import org.iqkv.boutique.repository.ProductCategoryRepository;
+import org.iqkv.boutique.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service importing {@link org.iqkv.boutique.domain.Product}s in bulk, from CSV or NDJSON lines.
+ * <p>
+ * Lines are parsed and validated as they arrive, and the valid rows are inserted in batches, each with one statement binding
+ * its columns as arrays. Invalid rows are skipped and reported with their line number.
+ * <p>
+ * Each batch is checked and inserted in its own transaction, so an import only holds a connection while it writes a batch,
+ * not while the client uploads the next lines. If an insert fails, its batch is rolled back and the import stops, the
+ * previous batches staying imported. The number of concurrent imports is bounded.
+ */
+@Service
+public class ProductImportService {
+
+    static final char CSV_SEPARATOR = ';';
+
+    static final String NAME_COLUMN = "name";
+    static final String DESCRIPTION_COLUMN = "description";
+    static final String PRICE_COLUMN = "price";
+    static final String PRODUCT_SIZE_COLUMN = "product_size";
+    static final String PRODUCT_CATEGORY_ID_COLUMN = "product_category_id";
+
+    private static final List<String> REQUIRED_COLUMNS = List.of(
+        NAME_COLUMN,
+        PRICE_COLUMN,
+        PRODUCT_SIZE_COLUMN,
+        PRODUCT_CATEGORY_ID_COLUMN
+    );
+
+    private static final String BYTE_ORDER_MARK = "\uFEFF";
+
+    private final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    private final ProductRepository productRepository;
+
+    private final ProductCategoryRepository productCategoryRepository;
+
+    private final TotalCountService totalCountService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final TransactionalOperator transactionalOperator;
+
+    private final ApplicationProperties.ProductImport properties;
+
+    private final Semaphore permits;
+
+    public ProductImportService(
+        ProductRepository productRepository,
+        ProductCategoryRepository productCategoryRepository,
+        TotalCountService totalCountService,
+        ObjectMapper objectMapper,
+        Validator validator,
+        TransactionalOperator transactionalOperator,
+        ApplicationProperties applicationProperties
+    ) {
+        this.productRepository = productRepository;
+        this.productCategoryRepository = productCategoryRepository;
+        this.totalCountService = totalCountService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.transactionalOperator = transactionalOperator;
+        this.properties = applicationProperties.getProductImport();
+        this.permits = new Semaphore(properties.getMaxConcurrentImports());
+    }
+
+    /**
+     * Import products from CSV lines, separated by {@code ;}, the first line being the header.
+     * <p>
+     * The header is the one of the Liquibase fake data. Other columns than the product fields, such as {@code id} and
+     * {@code image}, are ignored: imported products get new ids, and their images are uploaded afterwards.
+     *
+     * @param lines the lines of the CSV body.
+     * @return the report of the import, or an {@link InvalidImportException} if the header misses a required column, or an
+     * {@link ImportLimitExceededException} if too many imports are running.
+     */
+    public Mono<ProductImportReport> importCsv(Flux<String> lines) {
+        log.debug("Request to import Products from CSV");
+        Flux<ImportedRow> rows = lines
+            .index((index, text) -> new Line(index + 1, text))
+            .switchOnFirst((first, all) -> {
+                if (!first.hasValue()) {
+                    return Flux.empty();
+                }
+                Map<String, Integer> columns = parseCsvHeader(first.get().text());
+                List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+                if (!missing.isEmpty()) {
+                    return Flux.error(new InvalidImportException("Missing CSV columns " + missing));
+                }
+                return all.skip(1).filter(Line::isNotBlank).map(line -> parseCsvRow(columns, line));
+            });
+        return importRows(rows);
+    }
+
+    /**
+     * Import products from NDJSON lines, one product per line in the format of the REST API. As for CSV, ids and images are
+     * ignored.
+     *
+     * @param lines the lines of the NDJSON body.
+     * @return the report of the import, or an {@link ImportLimitExceededException} if too many imports are running.
+     */
+    public Mono<ProductImportReport> importNdjson(Flux<String> lines) {
+        log.debug("Request to import Products from NDJSON");
+        return importRows(lines.index((index, text) -> new Line(index + 1, text)).filter(Line::isNotBlank).map(this::parseJsonRow));
+    }
+
+    private Mono<ProductImportReport> importRows(Flux<ImportedRow> rows) {
+        return Mono.defer(() -> {
+            if (!permits.tryAcquire()) {
+                return Mono.error(new ImportLimitExceededException(properties.getMaxConcurrentImports()));
+            }
+            ReportBuilder report = new ReportBuilder(properties.getMaxReportedErrors());
+            // the permit is released eagerly, before the report reaches the client, which may start the next import
+            return Mono.using(
+                () -> report,
+                builder ->
+                    rows
+                        .map(this::validate)
+                        .buffer(properties.getBatchSize())
+                        .concatMap(batch -> importBatch(batch, builder))
+                        .doOnNext(builder::addImported)
+                        .then(Mono.fromSupplier(builder::build)),
+                builder -> permits.release(),
+                true
+            );
+        });
+    }
+
+    /**
+     * Checks and inserts a batch in its own transaction.
+     *
+     * @return the number of inserted rows.
+     */
+    private Mono<Long> importBatch(List<ImportedRow> batch, ReportBuilder report) {
+        return checkProductCategories(batch).flatMap(checked -> insert(checked, report)).as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Inserts the accepted rows of a batch and reports the rejected ones.
+     *
+     * @return the number of inserted rows.
+     */
+    private Mono<Long> insert(List<ImportedRow> batch, ReportBuilder report) {
+        List<Product> accepted = new ArrayList<>(batch.size());
+        for (ImportedRow row : batch) {
+            if (row.isRejected()) {
+                report.reject(row);
+            } else {
+                accepted.add(row.product());
+            }
+        }
+        if (accepted.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return productRepository
+            .insertAll(accepted)
+            .count()
+            .flatMap(count -> totalCountService.evict(ProductService.TABLE).thenReturn(count));
+    }
+
+    private ImportedRow validate(ImportedRow row) {
+        if (row.isRejected()) {
+            return row;
+        }
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<Product> violation : validator.validate(row.product())) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (row.product().getProductCategoryId() == null) {
+            errors.add("productCategory: must not be null");
+        }
+        if (errors.isEmpty()) {
+            return row;
+        }
+        errors.sort(null);
+        return row.reject(String.join(", ", errors));
+    }
+
+    /**
+     * Rejects the rows referring to a product category that does not exist, with one query per batch, rather than failing the
+     * insert of the whole batch on the foreign key.
+     */
+    private Mono<List<ImportedRow>> checkProductCategories(List<ImportedRow> batch) {
+        Set<Long> ids = batch
+            .stream()
+            .filter(row -> !row.isRejected())
+            .map(row -> row.product().getProductCategoryId())
+            .collect(Collectors.toSet());
+        if (ids.isEmpty()) {
+            return Mono.just(batch);
+        }
+        return productCategoryRepository
+            .findExistingIds(ids)
+            .collect(Collectors.toSet())
+            .map(existing ->
+                batch
+                    .stream()
+                    .map(row -> {
+                        if (row.isRejected() || existing.contains(row.product().getProductCategoryId())) {
+                            return row;
+                        }
+                        return row.reject("productCategory: unknown product category " + row.product().getProductCategoryId());
+                    })
+                    .toList()
+            );
+    }
+
+    private static Map<String, Integer> parseCsvHeader(String header) {
+        if (header.startsWith(BYTE_ORDER_MARK)) {
+            header = header.substring(BYTE_ORDER_MARK.length());
+        }
+        List<String> names = splitCsvLine(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        return columns;
+    }
+
+    private static ImportedRow parseCsvRow(Map<String, Integer> columns, Line line) {
+        List<String> values = splitCsvLine(line.text());
+        if (values.size() != columns.size()) {
+            return ImportedRow.rejected(line.number(), "expected " + columns.size() + " columns, found " + values.size());
+        }
+        try {
+            Product product = new Product()
+                .name(csvValue(columns, values, NAME_COLUMN, Function.identity()))
+                .description(csvValue(columns, values, DESCRIPTION_COLUMN, Function.identity()))
+                .price(csvValue(columns, values, PRICE_COLUMN, BigDecimal::new))
+                .productSize(csvValue(columns, values, PRODUCT_SIZE_COLUMN, Size::valueOf));
+            product.setProductCategoryId(csvValue(columns, values, PRODUCT_CATEGORY_ID_COLUMN, Long::valueOf));
+            return ImportedRow.accepted(line.number(), product);
+        } catch (InvalidValueException e) {
+            return ImportedRow.rejected(line.number(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return the parsed value of the column, or {@code null} if the column is absent or empty.
+     */
+    private static <T> T csvValue(Map<String, Integer> columns, List<String> values, String column, Function<String, T> parser) {
+        Integer index = columns.get(column);
+        if (index == null || values.get(index).isEmpty()) {
+            return null;
+        }
+        String value = values.get(index);
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidValueException(column + ": invalid value '" + value + "'");
+        }
+    }
+
+    /**
+     * Splits a CSV line on {@link #CSV_SEPARATOR}. Values can be quoted with {@code "} to contain the separator, a quote
+     * being escaped by doubling it; they cannot contain a line break.
+     */
+    static List<String> splitCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == CSV_SEPARATOR) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private ImportedRow parseJsonRow(Line line) {
+        try {
+            return ImportedRow.accepted(line.number(), objectMapper.readValue(line.text(), Product.class));
+        } catch (JsonProcessingException e) {
+            return ImportedRow.rejected(line.number(), "invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private record Line(long number, String text) {
+        boolean isNotBlank() {
+            return !text.isBlank();
+        }
+    }
+
+    private record ImportedRow(long line, Product product, String error) {
+        static ImportedRow accepted(long line, Product product) {
+            return new ImportedRow(line, product, null);
+        }
+
+        static ImportedRow rejected(long line, String error) {
+            return new ImportedRow(line, null, error);
+        }
+
+        boolean isRejected() {
+            return error != null;
+        }
+
+        ImportedRow reject(String error) {
+            return rejected(line, error);
+        }
+    }
+
+    private static final class ReportBuilder {
+
+        private final int maxReportedErrors;
+
+        private final List<ProductImportReport.RowError> errors = new ArrayList<>();
+
+        private long imported;
+
+        private long rejected;
+
+        ReportBuilder(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        void addImported(long count) {
+            imported += count;
+        }
+
+        void reject(ImportedRow row) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ProductImportReport.RowError(row.line(), row.error()));
+            }
+        }
+
+        ProductImportReport build() {
+            return new ProductImportReport(imported, rejected, List.copyOf(errors));
+        }
+    }
+
+    private static final class InvalidValueException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        InvalidValueException(String message) {
+            super(message, null, false, false);
+        }
+    }
+}
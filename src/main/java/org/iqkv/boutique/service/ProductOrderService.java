@@ -1,6 +1,8 @@
 package org.iqkv.boutique.service;
 
+import java.util.List;
 import org.iqkv.boutique.domain.ProductOrder;
+import org.iqkv.boutique.repository.Keyset;
 import org.iqkv.boutique.repository.ProductOrderRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,10 +21,15 @@ public class ProductOrderService {
 
     private final Logger log = LoggerFactory.getLogger(ProductOrderService.class);
 
+    static final String TABLE = "product_order";
+
     private final ProductOrderRepository productOrderRepository;
 
-    public ProductOrderService(ProductOrderRepository productOrderRepository) {
+    private final TotalCountService totalCountService;
+
+    public ProductOrderService(ProductOrderRepository productOrderRepository, TotalCountService totalCountService) {
         this.productOrderRepository = productOrderRepository;
+        this.totalCountService = totalCountService;
     }
 
     /**
@@ -33,46 +40,45 @@ public class ProductOrderService {
      */
     public Mono<ProductOrder> save(ProductOrder productOrder) {
         log.debug("Request to save ProductOrder : {}", productOrder);
-        return productOrderRepository.save(productOrder);
+        return productOrderRepository.save(productOrder).flatMap(saved -> totalCountService.evict(TABLE).thenReturn(saved));
+    }
+
+    /**
+     * Save productOrders in one transaction, with one insert statement for a batch of lines.
+     *
+     * @param productOrders the new entities to save.
+     * @return the persisted entities, with their generated ids, in the given order.
+     */
+    public Flux<ProductOrder> saveAll(List<ProductOrder> productOrders) {
+        log.debug("Request to save {} ProductOrders", productOrders.size());
+        return productOrderRepository.insertAll(productOrders).concatWith(totalCountService.evict(TABLE).then(Mono.empty()));
     }
 
     /**
      * Update a productOrder.
      *
      * @param productOrder the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the entity does not exist.
      */
     public Mono<ProductOrder> update(ProductOrder productOrder) {
         log.debug("Request to update ProductOrder : {}", productOrder);
-        return productOrderRepository.save(productOrder);
+        return productOrderRepository.update(productOrder);
     }
 
     /**
      * Partially update a productOrder.
      *
      * @param productOrder the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the entity does not exist.
      */
     public Mono<ProductOrder> partialUpdate(ProductOrder productOrder) {
         log.debug("Request to partially update ProductOrder : {}", productOrder);
 
-        return productOrderRepository
-            .findById(productOrder.getId())
-            .map(existingProductOrder -> {
-                if (productOrder.getQuantity() != null) {
-                    existingProductOrder.setQuantity(productOrder.getQuantity());
-                }
-                if (productOrder.getTotalPrice() != null) {
-                    existingProductOrder.setTotalPrice(productOrder.getTotalPrice());
-                }
-
-                return existingProductOrder;
-            })
-            .flatMap(productOrderRepository::save);
+        return productOrderRepository.partialUpdate(productOrder);
     }
 
     /**
-     * Get all the productOrders.
+     * Get all the productOrders, with their product and cart reduced to their ids.
      *
      * @return the list of entities.
      */
@@ -82,22 +88,61 @@ public class ProductOrderService {
         return productOrderRepository.findAll();
     }
 
+    /**
+     * Get all the productOrders, with their product and cart reduced to their ids.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Flux<ProductOrder> findAll(Pageable pageable) {
+        log.debug("Request to get all ProductOrders");
+        return productOrderRepository.findAllBy(pageable);
+    }
+
     /**
      * Get all the productOrders with eager load of many-to-many relationships.
      *
      * @return the list of entities.
      */
+    @Transactional(readOnly = true)
     public Flux<ProductOrder> findAllWithEagerRelationships(Pageable pageable) {
         return productOrderRepository.findAllWithEagerRelationships(pageable);
     }
 
     /**
-     * Returns the number of productOrders available.
+     * Export all the productOrders, reading them through a cursor as they are consumed, see {@link ExportService}.
+     *
+     * @param fetchSize the number of rows to fetch at a time.
+     * @param eagerload whether to load the product and cart of the productOrders, or only their ids.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Flux<ProductOrder> exportAll(int fetchSize, boolean eagerload) {
+        log.debug("Request to export all ProductOrders");
+        return eagerload ? productOrderRepository.exportAllWithEagerRelationships(fetchSize) : productOrderRepository.exportAll(fetchSize);
+    }
+
+    /**
+     * Get a page of the productOrders, positioned after the last row of the previous page.
+     *
+     * @param keyset the position, sort and size of the page.
+     * @param eagerload whether to load the product and cart of the productOrders, or only their ids.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Flux<ProductOrder> findAllAfter(Keyset keyset, boolean eagerload) {
+        log.debug("Request to get ProductOrders after : {}", keyset);
+        return eagerload ? productOrderRepository.findAllWithEagerRelationshipsAfter(keyset) : productOrderRepository.findAllAfter(keyset);
+    }
+
+    /**
+     * Returns the number of productOrders available, computed with the configured count strategy.
      * @return the number of entities in the database.
      *
      */
-    public Mono<Long> countAll() {
-        return productOrderRepository.count();
+    public Mono<TotalCount> countAll() {
+        return totalCountService.count(TABLE, productOrderRepository::count);
     }
 
     /**
@@ -112,6 +157,18 @@ public class ProductOrderService {
         return productOrderRepository.findOneWithEagerRelationships(id);
     }
 
+    /**
+     * Get the version of the "id" productOrder, without reading the entity.
+     *
+     * @param id the id of the entity.
+     * @return the version, which changes whenever the productOrder or its product and cart are written,
+     * or empty if the entity does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Mono<String> findVersion(Long id) {
+        return productOrderRepository.findVersionById(id);
+    }
+
     /**
      * Delete the productOrder by id.
      *
@@ -120,6 +177,6 @@ public class ProductOrderService {
      */
     public Mono<Void> delete(Long id) {
         log.debug("Request to delete ProductOrder : {}", id);
-        return productOrderRepository.deleteById(id);
+        return productOrderRepository.deleteById(id).then(totalCountService.evict(TABLE));
     }
 }
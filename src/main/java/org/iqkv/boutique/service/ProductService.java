@@ -1,6 +1,10 @@
 package org.iqkv.boutique.service;
 
 import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.ProductImage;
+import org.iqkv.boutique.domain.ProductImageContent;
+import org.iqkv.boutique.repository.Keyset;
+import org.iqkv.boutique.repository.ProductImageVariantRepository;
 import org.iqkv.boutique.repository.ProductRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,8 +25,28 @@ public class ProductService {
 
     private final ProductRepository productRepository;
 
-    public ProductService(ProductRepository productRepository) {
+    private final ProductImageVariantRepository productImageVariantRepository;
+
+    private final ProductThumbnailService productThumbnailService;
+
+    static final String TABLE = "product";
+
+    private final CatalogCache catalogCache;
+
+    private final TotalCountService totalCountService;
+
+    public ProductService(
+        ProductRepository productRepository,
+        ProductImageVariantRepository productImageVariantRepository,
+        ProductThumbnailService productThumbnailService,
+        CatalogCache catalogCache,
+        TotalCountService totalCountService
+    ) {
         this.productRepository = productRepository;
+        this.productImageVariantRepository = productImageVariantRepository;
+        this.productThumbnailService = productThumbnailService;
+        this.catalogCache = catalogCache;
+        this.totalCountService = totalCountService;
     }
 
     /**
@@ -33,54 +57,44 @@ public class ProductService {
      */
     public Mono<Product> save(Product product) {
         log.debug("Request to save Product : {}", product);
-        return productRepository.save(product);
+        return productRepository
+            .save(product)
+            .flatMap(saved -> totalCountService.evict(TABLE).thenReturn(saved))
+            .flatMap(saved -> productThumbnailService.refresh(saved).then(catalogCache.evictProduct(saved.getId())).thenReturn(saved));
     }
 
     /**
      * Update a product.
      *
      * @param product the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the entity does not exist.
      */
     public Mono<Product> update(Product product) {
         log.debug("Request to update Product : {}", product);
-        return productRepository.save(product);
+        return productRepository
+            .update(product)
+            .flatMap(saved -> productThumbnailService.refresh(saved).then(catalogCache.evictProduct(saved.getId())).thenReturn(saved));
     }
 
     /**
      * Partially update a product.
      *
      * @param product the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the entity does not exist.
      */
     public Mono<Product> partialUpdate(Product product) {
         log.debug("Request to partially update Product : {}", product);
 
         return productRepository
-            .findById(product.getId())
-            .map(existingProduct -> {
-                if (product.getName() != null) {
-                    existingProduct.setName(product.getName());
-                }
-                if (product.getDescription() != null) {
-                    existingProduct.setDescription(product.getDescription());
-                }
-                if (product.getPrice() != null) {
-                    existingProduct.setPrice(product.getPrice());
+            .partialUpdate(product)
+            .flatMap(saved -> {
+                if (product.getImage() == null) {
+                    return Mono.just(saved);
                 }
-                if (product.getProductSize() != null) {
-                    existingProduct.setProductSize(product.getProductSize());
-                }
-                if (product.getImage() != null) {
-                    existingProduct.setImage(product.getImage());
-                }
-                if (product.getImageContentType() != null) {
-                    existingProduct.setImageContentType(product.getImageContentType());
-                }
-
-                return existingProduct;
+                // the updated row is returned without its image, the thumbnail is scaled from the supplied one
+                return productThumbnailService.refresh(saved.image(product.getImage())).thenReturn(saved);
             })
-            .flatMap(productRepository::save);
+            .flatMap(saved -> catalogCache.evictProduct(saved.getId()).thenReturn(saved));
     }
 
     /**
@@ -95,6 +109,18 @@ public class ProductService {
         return productRepository.findAllBy(pageable);
     }
 
+    /**
+     * Get a page of the products, positioned after the last row of the previous page.
+     *
+     * @param keyset the position, sort and size of the page.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Flux<Product> findAllAfter(Keyset keyset) {
+        log.debug("Request to get Products after : {}", keyset);
+        return productRepository.findAllAfter(keyset);
+    }
+
     /**
      * Get all the products with eager load of many-to-many relationships.
      *
@@ -105,12 +131,12 @@ public class ProductService {
     }
 
     /**
-     * Returns the number of products available.
+     * Returns the number of products available, computed with the configured count strategy.
      * @return the number of entities in the database.
      *
      */
-    public Mono<Long> countAll() {
-        return productRepository.count();
+    public Mono<TotalCount> countAll() {
+        return totalCountService.count(TABLE, productRepository::count);
     }
 
     /**
@@ -122,7 +148,52 @@ public class ProductService {
     @Transactional(readOnly = true)
     public Mono<Product> findOne(Long id) {
         log.debug("Request to get Product : {}", id);
-        return productRepository.findOneWithEagerRelationships(id);
+        return catalogCache.getProduct(id, productRepository::findOneWithEagerRelationships);
+    }
+
+    /**
+     * Get the image metadata of the "id" product, without loading the image.
+     *
+     * @param id the id of the entity.
+     * @param variant the scaled variant of the image, or {@code null} for the original image.
+     * @return the image metadata, of the original image if the variant does not exist, or empty if the product has no image.
+     */
+    @Transactional(readOnly = true)
+    public Mono<ProductImage> findImage(Long id, String variant) {
+        log.debug("Request to get the {} image of Product : {}", variant, id);
+        Mono<ProductImage> original = productRepository.findImageById(id);
+        if (variant == null) {
+            return original;
+        }
+        return productImageVariantRepository.findImage(id, variant).switchIfEmpty(original);
+    }
+
+    /**
+     * Get the image of the "id" product with its bytes, read along with its metadata.
+     *
+     * @param id the id of the entity.
+     * @param variant the scaled variant of the image, or {@code null} for the original image.
+     * @return the image, or the original image if the variant does not exist, or empty if the product has no image.
+     */
+    @Transactional(readOnly = true)
+    public Mono<ProductImageContent> findImageContent(Long id, String variant) {
+        log.debug("Request to get the {} image content of Product : {}", variant, id);
+        Mono<ProductImageContent> original = productRepository.findImageContentById(id);
+        if (variant == null) {
+            return original;
+        }
+        return productImageVariantRepository.findImageContent(id, variant).switchIfEmpty(original);
+    }
+
+    /**
+     * Get the version of the "id" product, without reading the entity.
+     *
+     * @param id the id of the entity.
+     * @return the version, which changes whenever the product or its category is written, or empty if the entity does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Mono<String> findVersion(Long id) {
+        return productRepository.findVersionById(id);
     }
 
     /**
@@ -133,6 +204,9 @@ public class ProductService {
      */
     public Mono<Void> delete(Long id) {
         log.debug("Request to delete Product : {}", id);
-        return productRepository.deleteById(id);
+        return productRepository
+            .deleteById(id)
+            .then(totalCountService.evict(TABLE))
+            .then(catalogCache.evictProduct(id));
     }
 }
@@ -0,0 +1,214 @@
+package org.iqkv.boutique.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.concurrent.RejectedExecutionException;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import org.iqkv.boutique.config.ApplicationProperties;
+import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.ProductImage;
+import org.iqkv.boutique.repository.ProductImageVariantRepository;
+import org.iqkv.boutique.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Service generating the scaled variants of the product images.
+ * <p>
+ * The variants of a product are deleted in the transaction saving it, and scaled once the transaction completes, so the
+ * request does not wait for them and the previous variant is never served for a new image. Images are decoded and scaled
+ * on a bounded pool of worker threads, never on the event loop. Their dimensions are read before they are decoded, and
+ * images larger than the configured number of pixels are not decoded. Images which cannot be decoded have no variant,
+ * and are served in their original size.
+ */
+@Service
+public class ProductThumbnailService implements DisposableBean {
+
+    private final Logger log = LoggerFactory.getLogger(ProductThumbnailService.class);
+
+    private final ProductImageVariantRepository productImageVariantRepository;
+
+    private final ProductRepository productRepository;
+
+    private final int size;
+
+    private final long maxPixels;
+
+    private final boolean backfill;
+
+    private final Scheduler scheduler;
+
+    public ProductThumbnailService(
+        ApplicationProperties applicationProperties,
+        ProductImageVariantRepository productImageVariantRepository,
+        ProductRepository productRepository
+    ) {
+        this.productImageVariantRepository = productImageVariantRepository;
+        this.productRepository = productRepository;
+        ApplicationProperties.Thumbnail thumbnail = applicationProperties.getThumbnail();
+        this.size = thumbnail.getSize();
+        this.maxPixels = thumbnail.getMaxPixels();
+        this.backfill = thumbnail.isBackfill();
+        this.scheduler = Schedulers.newBoundedElastic(thumbnail.getThreads(), thumbnail.getQueueSize(), "thumbnail");
+    }
+
+    /**
+     * Replaces the variants of the image of a saved product: the variants are deleted, and the new ones are scaled in the
+     * background once the current transaction completes.
+     *
+     * @param product the saved product.
+     * @return a Mono to signal the variants are deleted.
+     */
+    public Mono<Void> refresh(Product product) {
+        Mono<Void> delete = productImageVariantRepository.deleteByProductId(product.getId());
+        if (product.getImage() == null) {
+            return delete;
+        }
+        Long id = product.getId();
+        byte[] image = product.getImage();
+        return delete.then(
+            TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .doOnNext(manager -> manager.registerSynchronization(afterCommit(() -> scaleInBackground(id, image))))
+                .switchIfEmpty(Mono.fromRunnable(() -> scaleInBackground(id, image)))
+                .onErrorResume(NoTransactionException.class, e -> Mono.fromRunnable(() -> scaleInBackground(id, image)))
+                .then()
+        );
+    }
+
+    /**
+     * Scales the images stored without thumbnail, one at a time, when the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!backfill) {
+            return;
+        }
+        backfillThumbnails().subscribe(
+            count -> log.info("Backfilled the thumbnails of {} product images", count),
+            e -> log.warn("Cannot backfill the product image thumbnails: {}", e.getMessage())
+        );
+    }
+
+    /**
+     * Scales the images stored without thumbnail, one at a time.
+     *
+     * @return a Mono emitting the number of images read.
+     */
+    Mono<Long> backfillThumbnails() {
+        return productImageVariantRepository
+            .findProductIdsWithoutVariant(ProductImage.THUMBNAIL)
+            .concatMap(id -> productRepository.findImageContentById(id).flatMap(content -> scale(id, content.bytes()).thenReturn(id)))
+            .count();
+    }
+
+    private void scaleInBackground(Long id, byte[] image) {
+        scale(id, image).subscribe(null, e -> log.warn("Cannot store the thumbnail of product {}: {}", id, e.getMessage()));
+    }
+
+    private Mono<Void> scale(Long id, byte[] image) {
+        String sourceHash = DigestUtils.md5DigestAsHex(image);
+        return Mono.fromCallable(() -> createThumbnail(image))
+            .subscribeOn(scheduler)
+            .onErrorResume(IOException.class, e -> {
+                log.warn("Cannot scale the image of product {}: {}", id, e.getMessage());
+                return Mono.empty();
+            })
+            .onErrorResume(RejectedExecutionException.class, e -> {
+                log.warn("Too many images waiting to be scaled, product {} is served without thumbnail", id);
+                return Mono.empty();
+            })
+            .flatMap(bytes -> productImageVariantRepository.save(id, ProductImage.THUMBNAIL, bytes, MediaType.IMAGE_PNG_VALUE, sourceHash));
+    }
+
+    /**
+     * Scales an image down to fit the thumbnail size, as PNG.
+     * <p>
+     * The dimensions are read from the image header first, and the image is decoded with a subsampling keeping it close to
+     * the thumbnail size.
+     *
+     * @param image the encoded image.
+     * @return the encoded thumbnail, or {@code null} if the image cannot be decoded.
+     * @throws IOException if the image is too large, or the thumbnail cannot be encoded.
+     */
+    byte[] createThumbnail(byte[] image) throws IOException {
+        BufferedImage source = read(image);
+        if (source == null) {
+            return null;
+        }
+        double scale = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(target, "png", out);
+        return out.toByteArray();
+    }
+
+    private BufferedImage read(byte[] image) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long width = reader.getWidth(0);
+                long height = reader.getHeight(0);
+                if (width * height > maxPixels) {
+                    throw new IOException("Image of " + width + "x" + height + " pixels exceeds " + maxPixels + " pixels");
+                }
+                // decode every n-th pixel only, down to no less than twice the thumbnail size, for the scaling quality
+                int subsampling = (int) Math.max(1, Math.max(width, height) / (2L * size));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static TransactionSynchronization afterCommit(Runnable action) {
+        return new TransactionSynchronization() {
+            @Override
+            public Mono<Void> afterCommit() {
+                return Mono.fromRunnable(action);
+            }
+        };
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.dispose();
+    }
+}
@@ -1,9 +1,11 @@
 package org.iqkv.boutique.service;
 
 import org.iqkv.boutique.domain.ShoppingCart;
+import org.iqkv.boutique.repository.Keyset;
 import org.iqkv.boutique.repository.ShoppingCartRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -18,10 +20,15 @@ public class ShoppingCartService {
 
     private final Logger log = LoggerFactory.getLogger(ShoppingCartService.class);
 
+    static final String TABLE = "shopping_cart";
+
     private final ShoppingCartRepository shoppingCartRepository;
 
-    public ShoppingCartService(ShoppingCartRepository shoppingCartRepository) {
+    private final TotalCountService totalCountService;
+
+    public ShoppingCartService(ShoppingCartRepository shoppingCartRepository, TotalCountService totalCountService) {
         this.shoppingCartRepository = shoppingCartRepository;
+        this.totalCountService = totalCountService;
     }
 
     /**
@@ -32,51 +39,30 @@ public class ShoppingCartService {
      */
     public Mono<ShoppingCart> save(ShoppingCart shoppingCart) {
         log.debug("Request to save ShoppingCart : {}", shoppingCart);
-        return shoppingCartRepository.save(shoppingCart);
+        return shoppingCartRepository.save(shoppingCart).flatMap(saved -> totalCountService.evict(TABLE).thenReturn(saved));
     }
 
     /**
      * Update a shoppingCart.
      *
      * @param shoppingCart the entity to save.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the entity does not exist.
      */
     public Mono<ShoppingCart> update(ShoppingCart shoppingCart) {
         log.debug("Request to update ShoppingCart : {}", shoppingCart);
-        return shoppingCartRepository.save(shoppingCart);
+        return shoppingCartRepository.update(shoppingCart);
     }
 
     /**
      * Partially update a shoppingCart.
      *
      * @param shoppingCart the entity to update partially.
-     * @return the persisted entity.
+     * @return the persisted entity, or empty if the entity does not exist.
      */
     public Mono<ShoppingCart> partialUpdate(ShoppingCart shoppingCart) {
         log.debug("Request to partially update ShoppingCart : {}", shoppingCart);
 
-        return shoppingCartRepository
-            .findById(shoppingCart.getId())
-            .map(existingShoppingCart -> {
-                if (shoppingCart.getPlacedDate() != null) {
-                    existingShoppingCart.setPlacedDate(shoppingCart.getPlacedDate());
-                }
-                if (shoppingCart.getStatus() != null) {
-                    existingShoppingCart.setStatus(shoppingCart.getStatus());
-                }
-                if (shoppingCart.getTotalPrice() != null) {
-                    existingShoppingCart.setTotalPrice(shoppingCart.getTotalPrice());
-                }
-                if (shoppingCart.getPaymentMethod() != null) {
-                    existingShoppingCart.setPaymentMethod(shoppingCart.getPaymentMethod());
-                }
-                if (shoppingCart.getPaymentReference() != null) {
-                    existingShoppingCart.setPaymentReference(shoppingCart.getPaymentReference());
-                }
-
-                return existingShoppingCart;
-            })
-            .flatMap(shoppingCartRepository::save);
+        return shoppingCartRepository.partialUpdate(shoppingCart);
     }
 
     /**
@@ -91,12 +77,48 @@ public class ShoppingCartService {
     }
 
     /**
-     * Returns the number of shoppingCarts available.
+     * Get all the shoppingCarts.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Flux<ShoppingCart> findAll(Pageable pageable) {
+        log.debug("Request to get all ShoppingCarts");
+        return shoppingCartRepository.findAllBy(pageable);
+    }
+
+    /**
+     * Export all the shoppingCarts, reading them through a cursor as they are consumed, see {@link ExportService}.
+     *
+     * @param fetchSize the number of rows to fetch at a time.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Flux<ShoppingCart> exportAll(int fetchSize) {
+        log.debug("Request to export all ShoppingCarts");
+        return shoppingCartRepository.exportAll(fetchSize);
+    }
+
+    /**
+     * Get a page of the shoppingCarts, positioned after the last row of the previous page.
+     *
+     * @param keyset the position, sort and size of the page.
+     * @return the list of entities.
+     */
+    @Transactional(readOnly = true)
+    public Flux<ShoppingCart> findAllAfter(Keyset keyset) {
+        log.debug("Request to get ShoppingCarts after : {}", keyset);
+        return shoppingCartRepository.findAllAfter(keyset);
+    }
+
+    /**
+     * Returns the number of shoppingCarts available, computed with the configured count strategy.
      * @return the number of entities in the database.
      *
      */
-    public Mono<Long> countAll() {
-        return shoppingCartRepository.count();
+    public Mono<TotalCount> countAll() {
+        return totalCountService.count(TABLE, shoppingCartRepository::count);
     }
 
     /**
@@ -111,6 +133,18 @@ public class ShoppingCartService {
         return shoppingCartRepository.findById(id);
     }
 
+    /**
+     * Get the version of the "id" shoppingCart, without reading the entity.
+     *
+     * @param id the id of the entity.
+     * @return the version, which changes whenever the shoppingCart or its customer details are written,
+     * or empty if the entity does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Mono<String> findVersion(Long id) {
+        return shoppingCartRepository.findVersionById(id);
+    }
+
     /**
      * Delete the shoppingCart by id.
      *
@@ -119,6 +153,6 @@ public class ShoppingCartService {
      */
     public Mono<Void> delete(Long id) {
         log.debug("Request to delete ShoppingCart : {}", id);
-        return shoppingCartRepository.deleteById(id);
+        return shoppingCartRepository.deleteById(id).then(totalCountService.evict(TABLE));
     }
 }
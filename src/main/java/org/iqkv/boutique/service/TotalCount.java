@@ -0,0 +1,21 @@
+package org.iqkv.boutique.service;
+
+import java.util.Locale;
+import org.iqkv.boutique.config.ApplicationProperties.Count.Strategy;
+
+/**
+ * Total number of rows of a paginated listing, and how it was computed.
+ *
+ * @param value the number of rows.
+ * @param type the strategy which computed the number, {@link Strategy#EXACT} when a cached or estimated count was not available.
+ */
+public record TotalCount(long value, Strategy type) {
+    /**
+     * Name of the type, as sent to clients.
+     *
+     * @return the lower case name of the type.
+     */
+    public String getTypeName() {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+}
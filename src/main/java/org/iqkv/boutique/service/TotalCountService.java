@@ -0,0 +1,89 @@
+package org.iqkv.boutique.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.function.Supplier;
+import org.iqkv.boutique.config.ApplicationProperties;
+import org.iqkv.boutique.config.ApplicationProperties.Count.Strategy;
+import org.iqkv.boutique.repository.TableStatisticsRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronization;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service computing the total number of rows of the paginated listings, with the configured {@link Strategy}.
+ */
+@Service
+public class TotalCountService {
+
+    private final Strategy strategy;
+
+    private final TableStatisticsRepository tableStatisticsRepository;
+
+    private final Cache<String, Long> counts;
+
+    public TotalCountService(ApplicationProperties applicationProperties, TableStatisticsRepository tableStatisticsRepository) {
+        ApplicationProperties.Count count = applicationProperties.getCount();
+        this.strategy = count.getStrategy();
+        this.tableStatisticsRepository = tableStatisticsRepository;
+        this.counts = Caffeine.newBuilder().expireAfterWrite(count.getTimeToLive()).build();
+    }
+
+    /**
+     * Count the rows of a table.
+     *
+     * @param table the name of the table.
+     * @param exactCount the exact count of the table, used by the {@link Strategy#EXACT} strategy and as a fallback.
+     * @return the total count.
+     */
+    public Mono<TotalCount> count(String table, Supplier<Mono<Long>> exactCount) {
+        return switch (strategy) {
+            case EXACT -> exact(exactCount);
+            case CACHED -> {
+                Long cached = counts.getIfPresent(table);
+                yield cached != null
+                    ? Mono.just(new TotalCount(cached, Strategy.CACHED))
+                    : exact(exactCount).doOnNext(total -> counts.put(table, total.value()));
+            }
+            case ESTIMATED -> tableStatisticsRepository
+                .estimateRowCount(table)
+                .map(estimate -> new TotalCount(estimate, Strategy.ESTIMATED))
+                .switchIfEmpty(Mono.defer(() -> exact(exactCount)));
+        };
+    }
+
+    /**
+     * Evict the cached count of a table, when a row was inserted or deleted.
+     * <p>
+     * The count is evicted both immediately and once the writing transaction completes, so a count racing with the
+     * transaction cannot keep the previous total cached.
+     *
+     * @param table the name of the table.
+     * @return a Mono to signal the eviction.
+     */
+    public Mono<Void> evict(String table) {
+        Runnable eviction = () -> counts.invalidate(table);
+        return Mono.fromRunnable(eviction).then(
+            TransactionSynchronizationManager.forCurrentTransaction()
+                .filter(TransactionSynchronizationManager::isSynchronizationActive)
+                .doOnNext(manager -> manager.registerSynchronization(afterCompletion(eviction)))
+                .onErrorResume(NoTransactionException.class, e -> Mono.empty())
+                .then()
+        );
+    }
+
+    private static Mono<TotalCount> exact(Supplier<Mono<Long>> exactCount) {
+        return exactCount.get().map(value -> new TotalCount(value, Strategy.EXACT));
+    }
+
+    private static TransactionSynchronization afterCompletion(Runnable eviction) {
+        return new TransactionSynchronization() {
+            @Override
+            public Mono<Void> afterCompletion(int status) {
+                return Mono.fromRunnable(eviction);
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package org.iqkv.boutique.service;
+
+/**
+ * Thrown when a shopping cart refers to customer details that do not exist.
+ */
+public class UnknownCustomerDetailsException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long customerDetailsId;
+
+    public UnknownCustomerDetailsException(Long customerDetailsId) {
+        super("Unknown customer details: " + customerDetailsId);
+        this.customerDetailsId = customerDetailsId;
+    }
+
+    public Long getCustomerDetailsId() {
+        return customerDetailsId;
+    }
+}
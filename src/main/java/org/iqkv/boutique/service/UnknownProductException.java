@@ -0,0 +1,22 @@
+package org.iqkv.boutique.service;
+
+import java.util.Set;
+
+/**
+ * Thrown when an order line refers to a product that does not exist.
+ */
+public class UnknownProductException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Set<Long> productIds;
+
+    public UnknownProductException(Set<Long> productIds) {
+        super("Unknown products: " + productIds);
+        this.productIds = productIds;
+    }
+
+    public Set<Long> getProductIds() {
+        return productIds;
+    }
+}
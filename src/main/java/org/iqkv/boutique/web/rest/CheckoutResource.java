@@ -0,0 +1,88 @@
+package org.iqkv.boutique.web.rest;
+
+import jakarta.validation.Valid;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import org.iqkv.boutique.domain.ProductOrder;
+import org.iqkv.boutique.domain.ShoppingCart;
+import org.iqkv.boutique.service.CheckoutService;
+import org.iqkv.boutique.service.UnknownCustomerDetailsException;
+import org.iqkv.boutique.service.UnknownProductException;
+import org.iqkv.boutique.web.rest.errors.BadRequestAlertException;
+import org.iqkv.boutique.web.rest.vm.CheckoutVM;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import tech.jhipster.web.util.HeaderUtil;
+
+/**
+ * REST controller for checking out a {@link org.iqkv.boutique.domain.ShoppingCart} with all its lines in one request.
+ */
+@RestController
+@RequestMapping("/api/checkout")
+public class CheckoutResource {
+
+    private final Logger log = LoggerFactory.getLogger(CheckoutResource.class);
+
+    private static final String ENTITY_NAME = "shoppingCart";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final CheckoutService checkoutService;
+
+    public CheckoutResource(CheckoutService checkoutService) {
+        this.checkoutService = checkoutService;
+    }
+
+    /**
+     * {@code POST  /checkout} : Create a new shoppingCart with its productOrders, priced by the server.
+     *
+     * @param checkout the customer, payment and lines of the cart.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new shoppingCart and its productOrders,
+     * or with status {@code 400 (Bad Request)} if the checkout is not valid or refers to customer details or a product that does not exist.
+     */
+    @PostMapping("")
+    public Mono<ResponseEntity<ShoppingCart>> checkout(@Valid @RequestBody CheckoutVM checkout) {
+        log.debug("REST request to check out : {}", checkout);
+        ShoppingCart shoppingCart = new ShoppingCart()
+            .paymentMethod(checkout.getPaymentMethod())
+            .paymentReference(checkout.getPaymentReference());
+        shoppingCart.setCustomerDetailsId(checkout.getCustomerDetailsId());
+        List<ProductOrder> productOrders = checkout
+            .getLines()
+            .stream()
+            .map(line -> {
+                ProductOrder productOrder = new ProductOrder().quantity(line.getQuantity());
+                productOrder.setProductId(line.getProductId());
+                return productOrder;
+            })
+            .toList();
+        return checkoutService
+            .checkout(shoppingCart, productOrders)
+            .onErrorMap(
+                UnknownCustomerDetailsException.class,
+                e -> new BadRequestAlertException("Unknown customer details " + e.getCustomerDetailsId(), "customerDetails", "idnotfound")
+            )
+            .onErrorMap(
+                UnknownProductException.class,
+                e -> new BadRequestAlertException("Unknown products " + e.getProductIds(), "product", "idnotfound")
+            )
+            .map(result -> {
+                try {
+                    return ResponseEntity.created(new URI("/api/shopping-carts/" + result.getId()))
+                        .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result);
+                } catch (URISyntaxException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+    }
+}
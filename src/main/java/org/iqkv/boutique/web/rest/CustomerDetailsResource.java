@@ -8,24 +8,24 @@ import java.util.List;
 import java.util.Objects;
 import org.iqkv.boutique.domain.CustomerDetails;
 import org.iqkv.boutique.repository.CustomerDetailsRepository;
+import org.iqkv.boutique.repository.Keyset;
 import org.iqkv.boutique.service.CustomerDetailsService;
 import org.iqkv.boutique.web.rest.errors.BadRequestAlertException;
+import org.iqkv.boutique.web.rest.util.ConditionalResponseUtil;
+import org.iqkv.boutique.web.rest.util.KeysetPaginationUtil;
+import org.iqkv.boutique.web.rest.util.TotalCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.ForwardedHeaderUtils;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link org.iqkv.boutique.domain.CustomerDetails}.
@@ -43,11 +43,8 @@ public class CustomerDetailsResource {
 
     private final CustomerDetailsService customerDetailsService;
 
-    private final CustomerDetailsRepository customerDetailsRepository;
-
-    public CustomerDetailsResource(CustomerDetailsService customerDetailsService, CustomerDetailsRepository customerDetailsRepository) {
+    public CustomerDetailsResource(CustomerDetailsService customerDetailsService) {
         this.customerDetailsService = customerDetailsService;
-        this.customerDetailsRepository = customerDetailsRepository;
     }
 
     /**
@@ -83,7 +80,7 @@ public class CustomerDetailsResource {
      * @param id the id of the customerDetails to save.
      * @param customerDetails the customerDetails to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated customerDetails,
-     * or with status {@code 400 (Bad Request)} if the customerDetails is not valid,
+     * or with status {@code 400 (Bad Request)} if the customerDetails is not valid or is not found,
      * or with status {@code 500 (Internal Server Error)} if the customerDetails couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -100,23 +97,15 @@ public class CustomerDetailsResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return customerDetailsRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                return customerDetailsService
-                    .update(customerDetails)
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(
-                        result ->
-                            ResponseEntity.ok()
-                                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-                                .body(result)
-                    );
-            });
+        return customerDetailsService
+            .update(customerDetails)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                result ->
+                    ResponseEntity.ok()
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result)
+            );
     }
 
     /**
@@ -125,8 +114,7 @@ public class CustomerDetailsResource {
      * @param id the id of the customerDetails to save.
      * @param customerDetails the customerDetails to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated customerDetails,
-     * or with status {@code 400 (Bad Request)} if the customerDetails is not valid,
-     * or with status {@code 404 (Not Found)} if the customerDetails is not found,
+     * or with status {@code 400 (Bad Request)} if the customerDetails is not valid or is not found,
      * or with status {@code 500 (Internal Server Error)} if the customerDetails couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -143,24 +131,15 @@ public class CustomerDetailsResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return customerDetailsRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                Mono<CustomerDetails> result = customerDetailsService.partialUpdate(customerDetails);
-
-                return result
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(
-                        res ->
-                            ResponseEntity.ok()
-                                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                                .body(res)
-                    );
-            });
+        return customerDetailsService
+            .partialUpdate(customerDetails)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                res ->
+                    ResponseEntity.ok()
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
+                        .body(res)
+            );
     }
 
     /**
@@ -168,14 +147,35 @@ public class CustomerDetailsResource {
      *
      * @param pageable the pagination information.
      * @param request a {@link ServerHttpRequest} request.
+     * @param after the cursor of the keyset pagination, empty for its first page; offset pagination is used when absent.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of customerDetails in body.
      */
     @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<ResponseEntity<List<CustomerDetails>>> getAllCustomerDetails(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
-        ServerHttpRequest request
+        ServerHttpRequest request,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
     ) {
         log.debug("REST request to get a page of CustomerDetails");
+        if (after != null) {
+            Keyset keyset = KeysetPaginationUtil.resolveKeyset(
+                after,
+                pageable,
+                CustomerDetailsRepository.KEYSET_SORT_PROPERTIES,
+                ENTITY_NAME
+            );
+            return customerDetailsService
+                .findAllAfter(KeysetPaginationUtil.withLookAhead(keyset))
+                .collectList()
+                .map(
+                    entities ->
+                        KeysetPaginationUtil.generateKeysetResponse(
+                            ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()).build().toUri(),
+                            keyset,
+                            entities
+                        )
+                );
+        }
         return customerDetailsService
             .countAll()
             .zipWith(customerDetailsService.findAll(pageable).collectList())
@@ -183,9 +183,11 @@ public class CustomerDetailsResource {
                 countWithEntities ->
                     ResponseEntity.ok()
                         .headers(
-                            PaginationUtil.generatePaginationHttpHeaders(
+                            TotalCountUtil.generatePaginationHttpHeaders(
                                 ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
-                                new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+                                pageable,
+                                countWithEntities.getT2(),
+                                countWithEntities.getT1()
                             )
                         )
                         .body(countWithEntities.getT2())
@@ -196,13 +198,18 @@ public class CustomerDetailsResource {
      * {@code GET  /customer-details/:id} : get the "id" customerDetails.
      *
      * @param id the id of the customerDetails to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the customerDetails, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange, to check the conditional request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the customerDetails,
+     * or with status {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<CustomerDetails>> getCustomerDetails(@PathVariable("id") Long id) {
+    public Mono<ResponseEntity<CustomerDetails>> getCustomerDetails(@PathVariable("id") Long id, ServerWebExchange exchange) {
         log.debug("REST request to get CustomerDetails : {}", id);
-        Mono<CustomerDetails> customerDetails = customerDetailsService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(customerDetails);
+        return ConditionalResponseUtil.wrapOrNotModified(
+            customerDetailsService.findVersion(id),
+            () -> customerDetailsService.findOne(id),
+            exchange
+        );
     }
 
     /**
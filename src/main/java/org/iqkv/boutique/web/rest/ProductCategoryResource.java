@@ -7,25 +7,22 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import org.iqkv.boutique.domain.ProductCategory;
-import org.iqkv.boutique.repository.ProductCategoryRepository;
 import org.iqkv.boutique.service.ProductCategoryService;
 import org.iqkv.boutique.web.rest.errors.BadRequestAlertException;
+import org.iqkv.boutique.web.rest.util.ConditionalResponseUtil;
+import org.iqkv.boutique.web.rest.util.TotalCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.ForwardedHeaderUtils;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link org.iqkv.boutique.domain.ProductCategory}.
@@ -43,11 +40,8 @@ public class ProductCategoryResource {
 
     private final ProductCategoryService productCategoryService;
 
-    private final ProductCategoryRepository productCategoryRepository;
-
-    public ProductCategoryResource(ProductCategoryService productCategoryService, ProductCategoryRepository productCategoryRepository) {
+    public ProductCategoryResource(ProductCategoryService productCategoryService) {
         this.productCategoryService = productCategoryService;
-        this.productCategoryRepository = productCategoryRepository;
     }
 
     /**
@@ -83,7 +77,7 @@ public class ProductCategoryResource {
      * @param id the id of the productCategory to save.
      * @param productCategory the productCategory to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated productCategory,
-     * or with status {@code 400 (Bad Request)} if the productCategory is not valid,
+     * or with status {@code 400 (Bad Request)} if the productCategory is not valid or is not found,
      * or with status {@code 500 (Internal Server Error)} if the productCategory couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -100,23 +94,15 @@ public class ProductCategoryResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return productCategoryRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                return productCategoryService
-                    .update(productCategory)
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(
-                        result ->
-                            ResponseEntity.ok()
-                                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-                                .body(result)
-                    );
-            });
+        return productCategoryService
+            .update(productCategory)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                result ->
+                    ResponseEntity.ok()
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result)
+            );
     }
 
     /**
@@ -125,8 +111,7 @@ public class ProductCategoryResource {
      * @param id the id of the productCategory to save.
      * @param productCategory the productCategory to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated productCategory,
-     * or with status {@code 400 (Bad Request)} if the productCategory is not valid,
-     * or with status {@code 404 (Not Found)} if the productCategory is not found,
+     * or with status {@code 400 (Bad Request)} if the productCategory is not valid or is not found,
      * or with status {@code 500 (Internal Server Error)} if the productCategory couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -143,24 +128,15 @@ public class ProductCategoryResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return productCategoryRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                Mono<ProductCategory> result = productCategoryService.partialUpdate(productCategory);
-
-                return result
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(
-                        res ->
-                            ResponseEntity.ok()
-                                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                                .body(res)
-                    );
-            });
+        return productCategoryService
+            .partialUpdate(productCategory)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                res ->
+                    ResponseEntity.ok()
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
+                        .body(res)
+            );
     }
 
     /**
@@ -183,9 +159,11 @@ public class ProductCategoryResource {
                 countWithEntities ->
                     ResponseEntity.ok()
                         .headers(
-                            PaginationUtil.generatePaginationHttpHeaders(
+                            TotalCountUtil.generatePaginationHttpHeaders(
                                 ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
-                                new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+                                pageable,
+                                countWithEntities.getT2(),
+                                countWithEntities.getT1()
                             )
                         )
                         .body(countWithEntities.getT2())
@@ -196,13 +174,18 @@ public class ProductCategoryResource {
      * {@code GET  /product-categories/:id} : get the "id" productCategory.
      *
      * @param id the id of the productCategory to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the productCategory, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange, to check the conditional request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the productCategory,
+     * or with status {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<ProductCategory>> getProductCategory(@PathVariable("id") Long id) {
+    public Mono<ResponseEntity<ProductCategory>> getProductCategory(@PathVariable("id") Long id, ServerWebExchange exchange) {
         log.debug("REST request to get ProductCategory : {}", id);
-        Mono<ProductCategory> productCategory = productCategoryService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(productCategory);
+        return ConditionalResponseUtil.wrapOrNotModified(
+            productCategoryService.findVersion(id),
+            () -> productCategoryService.findOne(id),
+            exchange
+        );
     }
 
     /**
@@ -0,0 +1,81 @@
+package org.iqkv.boutique.web.rest;
+
+import org.iqkv.boutique.service.ImportLimitExceededException;
+import org.iqkv.boutique.service.InvalidImportException;
+import org.iqkv.boutique.service.ProductImportReport;
+import org.iqkv.boutique.service.ProductImportService;
+import org.iqkv.boutique.web.rest.errors.BadRequestAlertException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for importing {@link org.iqkv.boutique.domain.Product}s in bulk, restricted to administrators.
+ */
+@RestController
+@RequestMapping("/api/admin/products")
+public class ProductImportResource {
+
+    private final Logger log = LoggerFactory.getLogger(ProductImportResource.class);
+
+    private static final String ENTITY_NAME = "product";
+
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final ProductImportService productImportService;
+
+    public ProductImportResource(ProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    /**
+     * {@code POST  /admin/products/import} : Import products from a CSV body, separated by {@code ;} with a header line.
+     * <p>
+     * The body is read line by line as it is uploaded. Invalid rows are skipped, the others are imported.
+     *
+     * @param lines the lines of the body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of imported and rejected rows and
+     * the errors of the rejected rows, or with status {@code 400 (Bad Request)} if the header misses a required column, or with
+     * status {@code 503 (Service Unavailable)} if too many imports are running.
+     */
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public Mono<ResponseEntity<ProductImportReport>> importProductsFromCsv(@RequestBody Flux<String> lines) {
+        log.debug("REST request to import Products from CSV");
+        return productImportService
+            .importCsv(lines)
+            .onErrorMap(InvalidImportException.class, e -> new BadRequestAlertException(e.getMessage(), ENTITY_NAME, "invalidimport"))
+            .onErrorMap(ImportLimitExceededException.class, ProductImportResource::serviceUnavailable)
+            .map(ResponseEntity::ok);
+    }
+
+    /**
+     * {@code POST  /admin/products/import} : Import products from an NDJSON body, one product per line.
+     * <p>
+     * The body is read line by line as it is uploaded. Invalid rows are skipped, the others are imported.
+     *
+     * @param lines the lines of the body.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of imported and rejected rows and
+     * the errors of the rejected rows, or with status {@code 503 (Service Unavailable)} if too many imports are running.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<ProductImportReport>> importProductsFromNdjson(@RequestBody Flux<String> lines) {
+        log.debug("REST request to import Products from NDJSON");
+        return productImportService
+            .importNdjson(lines)
+            .onErrorMap(ImportLimitExceededException.class, ProductImportResource::serviceUnavailable)
+            .map(ResponseEntity::ok);
+    }
+
+    private static ResponseStatusException serviceUnavailable(ImportLimitExceededException e) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+    }
+}
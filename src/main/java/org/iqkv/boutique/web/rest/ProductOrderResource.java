@@ -7,21 +7,30 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import org.iqkv.boutique.domain.ProductOrder;
+import org.iqkv.boutique.repository.Keyset;
 import org.iqkv.boutique.repository.ProductOrderRepository;
+import org.iqkv.boutique.service.ExportLimitExceededException;
+import org.iqkv.boutique.service.ExportService;
 import org.iqkv.boutique.service.ProductOrderService;
 import org.iqkv.boutique.web.rest.errors.BadRequestAlertException;
+import org.iqkv.boutique.web.rest.util.ConditionalResponseUtil;
+import org.iqkv.boutique.web.rest.util.KeysetPaginationUtil;
+import org.iqkv.boutique.web.rest.util.TotalCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.ForwardedHeaderUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link org.iqkv.boutique.domain.ProductOrder}.
@@ -34,16 +43,18 @@ public class ProductOrderResource {
 
     private static final String ENTITY_NAME = "productOrder";
 
+    static final int MAX_BATCH_SIZE = 1000;
+
     @Value("${jhipster.clientApp.name}")
     private String applicationName;
 
     private final ProductOrderService productOrderService;
 
-    private final ProductOrderRepository productOrderRepository;
+    private final ExportService exportService;
 
-    public ProductOrderResource(ProductOrderService productOrderService, ProductOrderRepository productOrderRepository) {
+    public ProductOrderResource(ProductOrderService productOrderService, ExportService exportService) {
         this.productOrderService = productOrderService;
-        this.productOrderRepository = productOrderRepository;
+        this.exportService = exportService;
     }
 
     /**
@@ -72,13 +83,44 @@ public class ProductOrderResource {
             });
     }
 
+    /**
+     * {@code POST  /product-orders/batch} : Create new productOrders, in one transaction.
+     *
+     * @param productOrders the productOrders to create, at most {@value #MAX_BATCH_SIZE}.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new productOrders, in the given order,
+     * or with status {@code 400 (Bad Request)} if a productOrder is not valid or has already an ID, or if the batch is too large.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<ProductOrder>>> createProductOrders(@Valid @RequestBody List<@Valid ProductOrder> productOrders) {
+        log.debug("REST request to save {} ProductOrders", productOrders.size());
+        if (productOrders.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestAlertException(
+                "A batch cannot have more than " + MAX_BATCH_SIZE + " productOrders",
+                ENTITY_NAME,
+                "batchtoolarge"
+            );
+        }
+        if (productOrders.stream().anyMatch(productOrder -> productOrder.getId() != null)) {
+            throw new BadRequestAlertException("A new productOrder cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        return productOrderService
+            .saveAll(productOrders)
+            .collectList()
+            .map(
+                result ->
+                    ResponseEntity.status(HttpStatus.CREATED)
+                        .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, String.valueOf(result.size())))
+                        .body(result)
+            );
+    }
+
     /**
      * {@code PUT  /product-orders/:id} : Updates an existing productOrder.
      *
      * @param id the id of the productOrder to save.
      * @param productOrder the productOrder to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated productOrder,
-     * or with status {@code 400 (Bad Request)} if the productOrder is not valid,
+     * or with status {@code 400 (Bad Request)} if the productOrder is not valid or is not found,
      * or with status {@code 500 (Internal Server Error)} if the productOrder couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -95,23 +137,15 @@ public class ProductOrderResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return productOrderRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                return productOrderService
-                    .update(productOrder)
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(
-                        result ->
-                            ResponseEntity.ok()
-                                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-                                .body(result)
-                    );
-            });
+        return productOrderService
+            .update(productOrder)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                result ->
+                    ResponseEntity.ok()
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result)
+            );
     }
 
     /**
@@ -120,8 +154,7 @@ public class ProductOrderResource {
      * @param id the id of the productOrder to save.
      * @param productOrder the productOrder to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated productOrder,
-     * or with status {@code 400 (Bad Request)} if the productOrder is not valid,
-     * or with status {@code 404 (Not Found)} if the productOrder is not found,
+     * or with status {@code 400 (Bad Request)} if the productOrder is not valid or is not found,
      * or with status {@code 500 (Internal Server Error)} if the productOrder couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -138,61 +171,106 @@ public class ProductOrderResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return productOrderRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                Mono<ProductOrder> result = productOrderService.partialUpdate(productOrder);
-
-                return result
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(
-                        res ->
-                            ResponseEntity.ok()
-                                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                                .body(res)
-                    );
-            });
+        return productOrderService
+            .partialUpdate(productOrder)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                res ->
+                    ResponseEntity.ok()
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
+                        .body(res)
+            );
     }
 
     /**
      * {@code GET  /product-orders} : get all the productOrders.
+     * <p>
+     * The productOrders of an offset page are streamed into the JSON array as they are read, after the pagination headers.
      *
-     * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
+     * @param pageable the pagination information.
+     * @param request a {@link ServerHttpRequest} request.
+     * @param eagerload flag to join the product and cart of the productOrders, otherwise only their ids are returned.
+     * @param after the cursor of the keyset pagination, empty for its first page; offset pagination is used when absent.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of productOrders in body.
      */
     @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<List<ProductOrder>> getAllProductOrders(
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+    public Mono<ResponseEntity<Flux<ProductOrder>>> getAllProductOrders(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        ServerHttpRequest request,
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
     ) {
-        log.debug("REST request to get all ProductOrders");
-        return productOrderService.findAll().collectList();
+        log.debug("REST request to get a page of ProductOrders");
+        if (after != null) {
+            Keyset keyset = KeysetPaginationUtil.resolveKeyset(after, pageable, ProductOrderRepository.KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+            return productOrderService
+                .findAllAfter(KeysetPaginationUtil.withLookAhead(keyset), eagerload)
+                .collectList()
+                .map(
+                    entities ->
+                        KeysetPaginationUtil.generateKeysetFluxResponse(
+                            ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()).build().toUri(),
+                            keyset,
+                            entities
+                        )
+                );
+        }
+        Flux<ProductOrder> page = eagerload
+            ? productOrderService.findAllWithEagerRelationships(pageable)
+            : productOrderService.findAll(pageable);
+        return productOrderService
+            .countAll()
+            .map(
+                count ->
+                    ResponseEntity.ok()
+                        .headers(
+                            TotalCountUtil.generatePaginationHttpHeaders(
+                                ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
+                                pageable,
+                                count
+                            )
+                        )
+                        .body(page)
+            );
     }
 
     /**
      * {@code GET  /product-orders} : get all the productOrders as a stream.
+     * <p>
+     * The productOrders are read through a cursor as the client consumes them. The export is refused with status
+     * {@code 503 (Service Unavailable)} when too many exports are running, and aborted when it times out.
+     * @param eagerload flag to join the product and cart of the productOrders, otherwise only their ids are returned.
      * @return the {@link Flux} of productOrders.
      */
     @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
-    public Flux<ProductOrder> getAllProductOrdersAsStream() {
+    public Flux<ProductOrder> getAllProductOrdersAsStream(
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+    ) {
         log.debug("REST request to get all ProductOrders as a stream");
-        return productOrderService.findAll();
+        return exportService
+            .export("productOrders", fetchSize -> productOrderService.exportAll(fetchSize, eagerload))
+            .onErrorMap(
+                ExportLimitExceededException.class,
+                e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e)
+            );
     }
 
     /**
      * {@code GET  /product-orders/:id} : get the "id" productOrder.
      *
      * @param id the id of the productOrder to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the productOrder, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange, to check the conditional request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the productOrder,
+     * or with status {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<ProductOrder>> getProductOrder(@PathVariable("id") Long id) {
+    public Mono<ResponseEntity<ProductOrder>> getProductOrder(@PathVariable("id") Long id, ServerWebExchange exchange) {
         log.debug("REST request to get ProductOrder : {}", id);
-        Mono<ProductOrder> productOrder = productOrderService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(productOrder);
+        return ConditionalResponseUtil.wrapOrNotModified(
+            productOrderService.findVersion(id),
+            () -> productOrderService.findOne(id),
+            exchange
+        );
     }
 
     /**
@@ -7,25 +7,32 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.ProductImage;
+import org.iqkv.boutique.repository.Keyset;
 import org.iqkv.boutique.repository.ProductRepository;
 import org.iqkv.boutique.service.ProductService;
 import org.iqkv.boutique.web.rest.errors.BadRequestAlertException;
+import org.iqkv.boutique.web.rest.util.ConditionalResponseUtil;
+import org.iqkv.boutique.web.rest.util.KeysetPaginationUtil;
+import org.iqkv.boutique.web.rest.util.TotalCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.ForwardedHeaderUtils;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.PaginationUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link org.iqkv.boutique.domain.Product}.
@@ -43,11 +50,8 @@ public class ProductResource {
 
     private final ProductService productService;
 
-    private final ProductRepository productRepository;
-
-    public ProductResource(ProductService productService, ProductRepository productRepository) {
+    public ProductResource(ProductService productService) {
         this.productService = productService;
-        this.productRepository = productRepository;
     }
 
     /**
@@ -82,7 +86,7 @@ public class ProductResource {
      * @param id the id of the product to save.
      * @param product the product to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated product,
-     * or with status {@code 400 (Bad Request)} if the product is not valid,
+     * or with status {@code 400 (Bad Request)} if the product is not valid or is not found,
      * or with status {@code 500 (Internal Server Error)} if the product couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -99,23 +103,15 @@ public class ProductResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return productRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                return productService
-                    .update(product)
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(
-                        result ->
-                            ResponseEntity.ok()
-                                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-                                .body(result)
-                    );
-            });
+        return productService
+            .update(product)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                result ->
+                    ResponseEntity.ok()
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result)
+            );
     }
 
     /**
@@ -124,8 +120,7 @@ public class ProductResource {
      * @param id the id of the product to save.
      * @param product the product to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated product,
-     * or with status {@code 400 (Bad Request)} if the product is not valid,
-     * or with status {@code 404 (Not Found)} if the product is not found,
+     * or with status {@code 400 (Bad Request)} if the product is not valid or is not found,
      * or with status {@code 500 (Internal Server Error)} if the product couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -142,24 +137,15 @@ public class ProductResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return productRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                Mono<Product> result = productService.partialUpdate(product);
-
-                return result
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(
-                        res ->
-                            ResponseEntity.ok()
-                                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                                .body(res)
-                    );
-            });
+        return productService
+            .partialUpdate(product)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                res ->
+                    ResponseEntity.ok()
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
+                        .body(res)
+            );
     }
 
     /**
@@ -168,15 +154,31 @@ public class ProductResource {
      * @param pageable the pagination information.
      * @param request a {@link ServerHttpRequest} request.
      * @param eagerload flag to eager load entities from relationships (This is applicable for many-to-many).
+     * @param after the cursor of the keyset pagination, empty for its first page; offset pagination is used when absent.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of products in body.
      */
     @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
     public Mono<ResponseEntity<List<Product>>> getAllProducts(
         @org.springdoc.core.annotations.ParameterObject Pageable pageable,
         ServerHttpRequest request,
-        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload
+        @RequestParam(name = "eagerload", required = false, defaultValue = "true") boolean eagerload,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
     ) {
         log.debug("REST request to get a page of Products");
+        if (after != null) {
+            Keyset keyset = KeysetPaginationUtil.resolveKeyset(after, pageable, ProductRepository.KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+            return productService
+                .findAllAfter(KeysetPaginationUtil.withLookAhead(keyset))
+                .collectList()
+                .map(
+                    entities ->
+                        KeysetPaginationUtil.generateKeysetResponse(
+                            ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()).build().toUri(),
+                            keyset,
+                            entities
+                        )
+                );
+        }
         return productService
             .countAll()
             .zipWith(productService.findAll(pageable).collectList())
@@ -184,9 +186,11 @@ public class ProductResource {
                 countWithEntities ->
                     ResponseEntity.ok()
                         .headers(
-                            PaginationUtil.generatePaginationHttpHeaders(
+                            TotalCountUtil.generatePaginationHttpHeaders(
                                 ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
-                                new PageImpl<>(countWithEntities.getT2(), pageable, countWithEntities.getT1())
+                                pageable,
+                                countWithEntities.getT2(),
+                                countWithEntities.getT1()
                             )
                         )
                         .body(countWithEntities.getT2())
@@ -197,13 +201,71 @@ public class ProductResource {
      * {@code GET  /products/:id} : get the "id" product.
      *
      * @param id the id of the product to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the product, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange, to check the conditional request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the product,
+     * or with status {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<Product>> getProduct(@PathVariable("id") Long id) {
+    public Mono<ResponseEntity<Product>> getProduct(@PathVariable("id") Long id, ServerWebExchange exchange) {
         log.debug("REST request to get Product : {}", id);
-        Mono<Product> product = productService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(product);
+        return ConditionalResponseUtil.wrapOrNotModified(productService.findVersion(id), () -> productService.findOne(id), exchange);
+    }
+
+    /**
+     * {@code GET  /products/:id/image} : get the image of the "id" product, as binary.
+     * <p>
+     * The strong {@code ETag} is the hash of the image, computed by the database when the image is written, and checked
+     * before the bytes are loaded. The image is then read in memory along with its content type and hash, so that the
+     * {@code ETag} always describes the returned bytes, and written to the response in buffers. {@code Range} requests are
+     * answered with {@code 206 (Partial Content)}. The {@code thumbnail} variant falls back to the original image when the
+     * image could not be scaled.
+     *
+     * @param id the id of the product whose image to retrieve.
+     * @param variant the scaled variant of the image, {@code thumbnail}, or absent for the original image.
+     * @param exchange the current exchange, to check the conditional request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the image,
+     * or with status {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/image")
+    public Mono<ResponseEntity<Resource>> getProductImage(
+        @PathVariable("id") Long id,
+        @RequestParam(name = "variant", required = false) String variant,
+        ServerWebExchange exchange
+    ) {
+        log.debug("REST request to get the image of Product : {}", id);
+        if (variant != null && !ProductImage.THUMBNAIL.equals(variant)) {
+            throw new BadRequestAlertException("Invalid image variant", ENTITY_NAME, "variantinvalid");
+        }
+        CacheControl cacheControl = CacheControl.noCache().cachePrivate();
+        return productService
+            .findImage(id, variant)
+            .flatMap(image -> {
+                if (exchange.checkNotModified(image.hash())) {
+                    return Mono.just(ResponseEntity.ok().eTag(image.hash()).cacheControl(cacheControl).<Resource>build());
+                }
+                return productService
+                    .findImageContent(id, variant)
+                    .map(content ->
+                        ResponseEntity.ok()
+                            .eTag(content.image().hash())
+                            .cacheControl(cacheControl)
+                            .contentType(toMediaType(content.image().contentType()))
+                            .<Resource>body(new ByteArrayResource(content.bytes()))
+                    );
+            })
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+
+    private MediaType toMediaType(String contentType) {
+        if (contentType == null) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        try {
+            return MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            log.warn("Invalid image content type {}, served as {}", contentType, MediaType.APPLICATION_OCTET_STREAM);
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
     }
 
     /**
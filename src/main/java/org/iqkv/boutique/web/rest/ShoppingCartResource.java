@@ -4,24 +4,32 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.List;
 import java.util.Objects;
 import org.iqkv.boutique.domain.ShoppingCart;
+import org.iqkv.boutique.repository.Keyset;
 import org.iqkv.boutique.repository.ShoppingCartRepository;
+import org.iqkv.boutique.service.ExportLimitExceededException;
+import org.iqkv.boutique.service.ExportService;
 import org.iqkv.boutique.service.ShoppingCartService;
 import org.iqkv.boutique.web.rest.errors.BadRequestAlertException;
+import org.iqkv.boutique.web.rest.util.ConditionalResponseUtil;
+import org.iqkv.boutique.web.rest.util.KeysetPaginationUtil;
+import org.iqkv.boutique.web.rest.util.TotalCountUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.ForwardedHeaderUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import tech.jhipster.web.util.HeaderUtil;
-import tech.jhipster.web.util.reactive.ResponseUtil;
 
 /**
  * REST controller for managing {@link org.iqkv.boutique.domain.ShoppingCart}.
@@ -39,11 +47,11 @@ public class ShoppingCartResource {
 
     private final ShoppingCartService shoppingCartService;
 
-    private final ShoppingCartRepository shoppingCartRepository;
+    private final ExportService exportService;
 
-    public ShoppingCartResource(ShoppingCartService shoppingCartService, ShoppingCartRepository shoppingCartRepository) {
+    public ShoppingCartResource(ShoppingCartService shoppingCartService, ExportService exportService) {
         this.shoppingCartService = shoppingCartService;
-        this.shoppingCartRepository = shoppingCartRepository;
+        this.exportService = exportService;
     }
 
     /**
@@ -78,7 +86,7 @@ public class ShoppingCartResource {
      * @param id the id of the shoppingCart to save.
      * @param shoppingCart the shoppingCart to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated shoppingCart,
-     * or with status {@code 400 (Bad Request)} if the shoppingCart is not valid,
+     * or with status {@code 400 (Bad Request)} if the shoppingCart is not valid or is not found,
      * or with status {@code 500 (Internal Server Error)} if the shoppingCart couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -95,23 +103,15 @@ public class ShoppingCartResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return shoppingCartRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                return shoppingCartService
-                    .update(shoppingCart)
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(
-                        result ->
-                            ResponseEntity.ok()
-                                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
-                                .body(result)
-                    );
-            });
+        return shoppingCartService
+            .update(shoppingCart)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                result ->
+                    ResponseEntity.ok()
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+                        .body(result)
+            );
     }
 
     /**
@@ -120,8 +120,7 @@ public class ShoppingCartResource {
      * @param id the id of the shoppingCart to save.
      * @param shoppingCart the shoppingCart to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated shoppingCart,
-     * or with status {@code 400 (Bad Request)} if the shoppingCart is not valid,
-     * or with status {@code 404 (Not Found)} if the shoppingCart is not found,
+     * or with status {@code 400 (Bad Request)} if the shoppingCart is not valid or is not found,
      * or with status {@code 500 (Internal Server Error)} if the shoppingCart couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -138,58 +137,98 @@ public class ShoppingCartResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        return shoppingCartRepository
-            .existsById(id)
-            .flatMap(exists -> {
-                if (!exists) {
-                    return Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound"));
-                }
-
-                Mono<ShoppingCart> result = shoppingCartService.partialUpdate(shoppingCart);
-
-                return result
-                    .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)))
-                    .map(
-                        res ->
-                            ResponseEntity.ok()
-                                .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
-                                .body(res)
-                    );
-            });
+        return shoppingCartService
+            .partialUpdate(shoppingCart)
+            .switchIfEmpty(Mono.error(new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound")))
+            .map(
+                res ->
+                    ResponseEntity.ok()
+                        .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, res.getId().toString()))
+                        .body(res)
+            );
     }
 
     /**
      * {@code GET  /shopping-carts} : get all the shoppingCarts.
+     * <p>
+     * The shoppingCarts of an offset page are streamed into the JSON array as they are read, after the pagination headers.
      *
+     * @param pageable the pagination information.
+     * @param request a {@link ServerHttpRequest} request.
+     * @param after the cursor of the keyset pagination, empty for its first page; offset pagination is used when absent.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of shoppingCarts in body.
      */
     @GetMapping(value = "", produces = MediaType.APPLICATION_JSON_VALUE)
-    public Mono<List<ShoppingCart>> getAllShoppingCarts() {
-        log.debug("REST request to get all ShoppingCarts");
-        return shoppingCartService.findAll().collectList();
+    public Mono<ResponseEntity<Flux<ShoppingCart>>> getAllShoppingCarts(
+        @org.springdoc.core.annotations.ParameterObject Pageable pageable,
+        ServerHttpRequest request,
+        @RequestParam(name = KeysetPaginationUtil.AFTER_PARAMETER, required = false) String after
+    ) {
+        log.debug("REST request to get a page of ShoppingCarts");
+        if (after != null) {
+            Keyset keyset = KeysetPaginationUtil.resolveKeyset(after, pageable, ShoppingCartRepository.KEYSET_SORT_PROPERTIES, ENTITY_NAME);
+            return shoppingCartService
+                .findAllAfter(KeysetPaginationUtil.withLookAhead(keyset))
+                .collectList()
+                .map(
+                    entities ->
+                        KeysetPaginationUtil.generateKeysetFluxResponse(
+                            ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()).build().toUri(),
+                            keyset,
+                            entities
+                        )
+                );
+        }
+        return shoppingCartService
+            .countAll()
+            .map(
+                count ->
+                    ResponseEntity.ok()
+                        .headers(
+                            TotalCountUtil.generatePaginationHttpHeaders(
+                                ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders()),
+                                pageable,
+                                count
+                            )
+                        )
+                        .body(shoppingCartService.findAll(pageable))
+            );
     }
 
     /**
      * {@code GET  /shopping-carts} : get all the shoppingCarts as a stream.
+     * <p>
+     * The shoppingCarts are read through a cursor as the client consumes them. The export is refused with status
+     * {@code 503 (Service Unavailable)} when too many exports are running, and aborted when it times out.
      * @return the {@link Flux} of shoppingCarts.
      */
     @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
     public Flux<ShoppingCart> getAllShoppingCartsAsStream() {
         log.debug("REST request to get all ShoppingCarts as a stream");
-        return shoppingCartService.findAll();
+        return exportService
+            .export("shoppingCarts", shoppingCartService::exportAll)
+            .onErrorMap(
+                ExportLimitExceededException.class,
+                e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e)
+            );
     }
 
     /**
      * {@code GET  /shopping-carts/:id} : get the "id" shoppingCart.
      *
      * @param id the id of the shoppingCart to retrieve.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the shoppingCart, or with status {@code 404 (Not Found)}.
+     * @param exchange the current exchange, to check the conditional request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the shoppingCart,
+     * or with status {@code 304 (Not Modified)}, or with status {@code 404 (Not Found)}.
      */
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<ShoppingCart>> getShoppingCart(@PathVariable("id") Long id) {
+    public Mono<ResponseEntity<ShoppingCart>> getShoppingCart(@PathVariable("id") Long id, ServerWebExchange exchange) {
         log.debug("REST request to get ShoppingCart : {}", id);
-        Mono<ShoppingCart> shoppingCart = shoppingCartService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(shoppingCart);
+        return ConditionalResponseUtil.wrapOrNotModified(
+            shoppingCartService.findVersion(id),
+            () -> shoppingCartService.findOne(id),
+            exchange
+        );
     }
 
     /**
@@ -0,0 +1,44 @@
+package org.iqkv.boutique.web.rest.util;
+
+import java.util.function.Supplier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Utility class for answering conditional requests with {@code 304 (Not Modified)}.
+ * <p>
+ * The weak {@code ETag} of an entity is derived from its version, read with a lightweight query, so a matching
+ * {@code If-None-Match} is answered before the entity is read and serialized.
+ */
+public final class ConditionalResponseUtil {
+
+    private ConditionalResponseUtil() {}
+
+    /**
+     * Wraps an entity in a {@link ResponseEntity} with a weak {@code ETag}, or answers {@code 304 (Not Modified)}.
+     *
+     * @param version the version of the entity, empty if the entity does not exist.
+     * @param entity the supplier of the entity, only subscribed when the entity is modified.
+     * @param exchange the current exchange, to check the conditional request.
+     * @param <X> the type of the entity.
+     * @return the response, or a {@link ResponseStatusException} with status {@code 404 (Not Found)}.
+     */
+    public static <X> Mono<ResponseEntity<X>> wrapOrNotModified(
+        Mono<String> version,
+        Supplier<Mono<X>> entity,
+        ServerWebExchange exchange
+    ) {
+        return version
+            .flatMap(value -> {
+                String eTag = "W/\"" + value + "\"";
+                if (exchange.checkNotModified(eTag)) {
+                    return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<X>build());
+                }
+                return entity.get().map(body -> ResponseEntity.ok().eTag(eTag).body(body));
+            })
+            .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND)));
+    }
+}
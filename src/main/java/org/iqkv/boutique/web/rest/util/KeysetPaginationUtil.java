@@ -0,0 +1,115 @@
+package org.iqkv.boutique.web.rest.util;
+
+import java.net.URI;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Set;
+import org.iqkv.boutique.repository.Keyset;
+import org.iqkv.boutique.web.rest.errors.BadRequestAlertException;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+
+/**
+ * Utility class for handling keyset (cursor) pagination.
+ * <p>
+ * A page is requested with the {@code after} parameter: empty for the first page, or the cursor returned in the
+ * {@code Link} header with {@code rel="next"} of the previous page. There is no total count, as counting all the rows
+ * would cost what the keyset saves.
+ */
+public final class KeysetPaginationUtil {
+
+    public static final String AFTER_PARAMETER = "after";
+
+    private static final String HEADER_LINK_FORMAT = "<{0}>; rel=\"{1}\"";
+
+    private KeysetPaginationUtil() {}
+
+    /**
+     * Resolves the keyset of the requested page.
+     *
+     * @param after the cursor sent by the client, empty for the first page.
+     * @param pageable the pagination information, its sort is only used for the first page.
+     * @param sortProperties the properties the listing can be sorted by.
+     * @param entityName the name of the entity, for the error message.
+     * @return the keyset of the page.
+     * @throws BadRequestAlertException if the cursor or the sort is not supported.
+     */
+    public static Keyset resolveKeyset(String after, Pageable pageable, Set<String> sortProperties, String entityName) {
+        Keyset keyset;
+        try {
+            if (after.isEmpty()) {
+                Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc(Keyset.ID_PROPERTY));
+                keyset = Keyset.first(order.getProperty(), order.getDirection(), pageable.getPageSize());
+            } else {
+                keyset = Keyset.fromCursor(after, pageable.getPageSize());
+            }
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor", entityName, "cursorinvalid");
+        }
+        if (!sortProperties.contains(keyset.getProperty())) {
+            throw new BadRequestAlertException("Unsupported sort for cursor pagination", entityName, "sortinvalid");
+        }
+        return keyset;
+    }
+
+    /**
+     * Builds the response of a keyset page.
+     * <p>
+     * The rows must have been fetched with one extra row, see {@link #withLookAhead(Keyset)}: when present, it is
+     * removed from the body and a {@code Link} header to the next page is added.
+     *
+     * @param uri the request uri.
+     * @param keyset the keyset of the page.
+     * @param rows the rows of the page, plus the first row of the next page if any.
+     * @param <T> the type of the rows.
+     * @return the response.
+     */
+    public static <T> ResponseEntity<List<T>> generateKeysetResponse(URI uri, Keyset keyset, List<T> rows) {
+        if (rows.size() <= keyset.getSize()) {
+            return ResponseEntity.ok().body(rows);
+        }
+        List<T> page = rows.subList(0, keyset.getSize());
+        BeanWrapper last = PropertyAccessorFactory.forBeanPropertyAccess(page.get(page.size() - 1));
+        Keyset next = keyset.next((Long) last.getPropertyValue(Keyset.ID_PROPERTY), last.getPropertyValue(keyset.getProperty()));
+        String link = UriComponentsBuilder.fromUri(uri)
+            .replaceQueryParam(AFTER_PARAMETER, next.toCursor())
+            .replaceQueryParam("size", keyset.getSize())
+            .replaceQueryParam("page")
+            .replaceQueryParam("sort")
+            .toUriString();
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LINK, MessageFormat.format(HEADER_LINK_FORMAT, link, "next"));
+        return ResponseEntity.ok().headers(headers).body(page);
+    }
+
+    /**
+     * Builds the response of a keyset page, for the listings whose offset pages stream their body.
+     *
+     * @param uri the request uri.
+     * @param keyset the keyset of the page.
+     * @param rows the rows of the page, plus the first row of the next page if any.
+     * @param <T> the type of the rows.
+     * @return the response.
+     * @see #generateKeysetResponse(URI, Keyset, List)
+     */
+    public static <T> ResponseEntity<Flux<T>> generateKeysetFluxResponse(URI uri, Keyset keyset, List<T> rows) {
+        ResponseEntity<List<T>> response = generateKeysetResponse(uri, keyset, rows);
+        return ResponseEntity.ok().headers(response.getHeaders()).body(Flux.fromIterable(response.getBody()));
+    }
+
+    /**
+     * Returns the keyset fetching one extra row, to know whether there is a next page.
+     *
+     * @param keyset the keyset of the page.
+     * @return the keyset of the select.
+     */
+    public static Keyset withLookAhead(Keyset keyset) {
+        return keyset.withSize(keyset.getSize() + 1);
+    }
+}
@@ -0,0 +1,58 @@
+package org.iqkv.boutique.web.rest.util;
+
+import java.util.List;
+import org.iqkv.boutique.service.TotalCount;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+import tech.jhipster.web.util.PaginationUtil;
+
+/**
+ * Utility class for the pagination headers of a page whose total count may be cached or estimated.
+ * <p>
+ * Next to the usual {@code X-Total-Count} and {@code Link} headers, the {@code X-Total-Count-Type} header tells the client
+ * whether the total is {@code exact}, {@code cached} or {@code estimated}, so it can present the number of pages accordingly.
+ */
+public final class TotalCountUtil {
+
+    public static final String HEADER_TOTAL_COUNT_TYPE = "X-Total-Count-Type";
+
+    private TotalCountUtil() {}
+
+    /**
+     * Generate the pagination headers of a page.
+     *
+     * @param uriBuilder the URI of the request.
+     * @param pageable the pagination information.
+     * @param content the entities of the page.
+     * @param totalCount the total number of entities.
+     * @param <T> the type of the entities.
+     * @return the {@link HttpHeaders}.
+     */
+    public static <T> HttpHeaders generatePaginationHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        Pageable pageable,
+        List<T> content,
+        TotalCount totalCount
+    ) {
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(
+            uriBuilder,
+            new PageImpl<>(content, pageable, totalCount.value())
+        );
+        headers.add(HEADER_TOTAL_COUNT_TYPE, totalCount.getTypeName());
+        return headers;
+    }
+
+    /**
+     * Generate the pagination headers of a page whose entities are streamed after the headers, so they are not known yet.
+     *
+     * @param uriBuilder the URI of the request.
+     * @param pageable the pagination information.
+     * @param totalCount the total number of entities.
+     * @return the {@link HttpHeaders}.
+     */
+    public static HttpHeaders generatePaginationHttpHeaders(UriComponentsBuilder uriBuilder, Pageable pageable, TotalCount totalCount) {
+        return generatePaginationHttpHeaders(uriBuilder, pageable, List.of(), totalCount);
+    }
+}
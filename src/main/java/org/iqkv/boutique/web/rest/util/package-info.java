@@ -0,0 +1,4 @@
+/**
+ * Rest layer utilities.
+ */
+package org.iqkv.boutique.web.rest.util;
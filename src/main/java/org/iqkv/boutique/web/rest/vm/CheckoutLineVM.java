@@ -0,0 +1,42 @@
+package org.iqkv.boutique.web.rest.vm;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * View Model object for a line of a checkout: a product and its quantity.
+ */
+public class CheckoutLineVM {
+
+    @NotNull
+    private Long productId;
+
+    @NotNull
+    @Min(1)
+    private Integer quantity;
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CheckoutLineVM{" +
+            "productId=" + productId +
+            ", quantity=" + quantity +
+            '}';
+    }
+}
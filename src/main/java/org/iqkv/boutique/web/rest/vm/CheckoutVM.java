@@ -0,0 +1,71 @@
+package org.iqkv.boutique.web.rest.vm;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.ArrayList;
+import java.util.List;
+import org.iqkv.boutique.domain.enumeration.PaymentMethod;
+
+/**
+ * View Model object for checking out a cart with all its lines; prices and totals are computed by the server.
+ */
+public class CheckoutVM {
+
+    public static final int MAX_LINES = 1000;
+
+    @NotNull
+    private Long customerDetailsId;
+
+    @NotNull
+    private PaymentMethod paymentMethod;
+
+    private String paymentReference;
+
+    @NotEmpty
+    @Size(max = MAX_LINES)
+    private List<@Valid @NotNull CheckoutLineVM> lines = new ArrayList<>();
+
+    public Long getCustomerDetailsId() {
+        return customerDetailsId;
+    }
+
+    public void setCustomerDetailsId(Long customerDetailsId) {
+        this.customerDetailsId = customerDetailsId;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public String getPaymentReference() {
+        return paymentReference;
+    }
+
+    public void setPaymentReference(String paymentReference) {
+        this.paymentReference = paymentReference;
+    }
+
+    public List<CheckoutLineVM> getLines() {
+        return lines;
+    }
+
+    public void setLines(List<CheckoutLineVM> lines) {
+        this.lines = lines;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CheckoutVM{" +
+            "customerDetailsId=" + customerDetailsId +
+            ", paymentMethod=" + paymentMethod +
+            ", lines=" + lines.size() +
+            '}';
+    }
+}
@@ -11,7 +11,7 @@ import { useAppDispatch, useAppSelector } from 'app/config/store';
 import { IProduct } from 'app/shared/model/product.model';
 import { getEntities as getProducts } from 'app/entities/product/product.reducer';
 import { IShoppingCart } from 'app/shared/model/shopping-cart.model';
-import { getEntities as getShoppingCarts } from 'app/entities/shopping-cart/shopping-cart.reducer';
+import { getAllEntities as getShoppingCarts } from 'app/entities/shopping-cart/shopping-cart.reducer';
 import { IProductOrder } from 'app/shared/model/product-order.model';
 import { getEntity, updateEntity, createEntity, reset } from './product-order.reducer';
 
@@ -31,7 +31,7 @@ export const ProductOrderUpdate = () => {
   const updateSuccess = useAppSelector(state => state.productOrder.updateSuccess);
 
   const handleClose = () => {
-    navigate('/product-order');
+    navigate('/product-order' + location.search);
   };
 
   useEffect(() => {
@@ -42,7 +42,7 @@ export const ProductOrderUpdate = () => {
     }
 
     dispatch(getProducts({}));
-    dispatch(getShoppingCarts({}));
+    dispatch(getShoppingCarts());
   }, []);
 
   useEffect(() => {
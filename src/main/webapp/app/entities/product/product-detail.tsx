@@ -1,12 +1,13 @@
 import React, { useEffect } from 'react';
 import { Link, useParams } from 'react-router-dom';
 import { Button, Row, Col } from 'reactstrap';
-import { Translate, openFile, byteSize } from 'react-jhipster';
+import { Translate } from 'react-jhipster';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 
 import { useAppDispatch, useAppSelector } from 'app/config/store';
 
 import { getEntity } from './product.reducer';
+import { ProductImage, openProductImage } from './product-image';
 
 export const ProductDetail = () => {
   const dispatch = useAppDispatch();
@@ -61,15 +62,13 @@ export const ProductDetail = () => {
             </span>
           </dt>
           <dd>
-            {productEntity.image ? (
+            {productEntity.imageSize ? (
               <div>
-                {productEntity.imageContentType ? (
-                  <a onClick={openFile(productEntity.imageContentType, productEntity.image)}>
-                    <img src={`data:${productEntity.imageContentType};base64,${productEntity.image}`} style={{ maxHeight: '30px' }} />
-                  </a>
-                ) : null}
+                <a onClick={() => openProductImage(productEntity.id)}>
+                  <ProductImage productId={productEntity.id} style={{ maxHeight: '30px' }} />
+                </a>
                 <span>
-                  {productEntity.imageContentType}, {byteSize(productEntity.image)}
+                  {productEntity.imageContentType}, {productEntity.imageSize} bytes
                 </span>
               </div>
             ) : null}
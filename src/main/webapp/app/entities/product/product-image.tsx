@@ -0,0 +1,41 @@
+import React, { useEffect, useState } from 'react';
+import axios from 'axios';
+
+const imageUrl = (productId: number, variant?: string) => `api/products/${productId}/image${variant ? `?variant=${variant}` : ''}`;
+
+/**
+ * The image endpoint requires the bearer token, which an <img> or <a> element cannot send, so the image is fetched
+ * with axios and rendered from an object URL.
+ */
+export const ProductImage = ({ productId, variant, style }: { productId: number; variant?: string; style?: React.CSSProperties }) => {
+  const [objectUrl, setObjectUrl] = useState<string>(null);
+
+  useEffect(() => {
+    let url: string = null;
+    let cancelled = false;
+    axios
+      .get<Blob>(imageUrl(productId, variant), { responseType: 'blob' })
+      .then(response => {
+        if (!cancelled) {
+          url = URL.createObjectURL(response.data);
+          setObjectUrl(url);
+        }
+      })
+      .catch(() => setObjectUrl(null));
+    return () => {
+      cancelled = true;
+      if (url) {
+        URL.revokeObjectURL(url);
+      }
+    };
+  }, [productId, variant]);
+
+  return objectUrl ? <img src={objectUrl} style={style} /> : null;
+};
+
+export const openProductImage = async (productId: number) => {
+  const response = await axios.get<Blob>(imageUrl(productId), { responseType: 'blob' });
+  const url = URL.createObjectURL(response.data);
+  window.open(url, '_blank', 'noopener,noreferrer');
+  setTimeout(() => URL.revokeObjectURL(url), 60000);
+};
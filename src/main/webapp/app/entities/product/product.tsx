@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { Link, useLocation, useNavigate } from 'react-router-dom';
 import { Button, Table } from 'reactstrap';
-import { openFile, byteSize, Translate, getPaginationState, JhiPagination, JhiItemCount } from 'react-jhipster';
+import { Translate, getPaginationState, JhiPagination, JhiItemCount } from 'react-jhipster';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { faSort, faSortUp, faSortDown } from '@fortawesome/free-solid-svg-icons';
 import { ASC, DESC, ITEMS_PER_PAGE, SORT } from 'app/shared/util/pagination.constants';
@@ -9,6 +9,7 @@ import { overridePaginationStateWithQueryParams } from 'app/shared/util/entity-u
 import { useAppDispatch, useAppSelector } from 'app/config/store';
 
 import { getEntities } from './product.reducer';
+import { ProductImage, openProductImage } from './product-image';
 
 export const Product = () => {
   const dispatch = useAppDispatch();
@@ -154,16 +155,14 @@ export const Product = () => {
                     <Translate contentKey={`boutiqueApp.Size.${product.productSize}`} />
                   </td>
                   <td>
-                    {product.image ? (
+                    {product.imageSize ? (
                       <div>
-                        {product.imageContentType ? (
-                          <a onClick={openFile(product.imageContentType, product.image)}>
-                            <img src={`data:${product.imageContentType};base64,${product.image}`} style={{ maxHeight: '30px' }} />
-                            &nbsp;
-                          </a>
-                        ) : null}
+                        <a onClick={() => openProductImage(product.id)}>
+                          <ProductImage productId={product.id} variant="thumbnail" style={{ maxHeight: '30px' }} />
+                          &nbsp;
+                        </a>
                         <span>
-                          {product.imageContentType}, {byteSize(product.image)}
+                          {product.imageContentType}, {product.imageSize} bytes
                         </span>
                       </div>
                     ) : null}
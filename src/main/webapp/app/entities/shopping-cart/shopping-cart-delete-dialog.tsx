@@ -25,7 +25,7 @@ export const ShoppingCartDeleteDialog = () => {
   const updateSuccess = useAppSelector(state => state.shoppingCart.updateSuccess);
 
   const handleClose = () => {
-    navigate('/shopping-cart');
+    navigate('/shopping-cart' + pageLocation.search);
   };
 
   useEffect(() => {
@@ -8,6 +8,7 @@ import { IShoppingCart, defaultValue } from 'app/shared/model/shopping-cart.mode
 import reducer, {
   createEntity,
   deleteEntity,
+  getAllEntities,
   getEntities,
   getEntity,
   updateEntity,
@@ -30,6 +31,7 @@ describe('Entities reducer tests', () => {
     entities: [],
     entity: defaultValue,
     updating: false,
+    totalItems: 0,
     updateSuccess: false,
   };
 
@@ -58,7 +60,7 @@ describe('Entities reducer tests', () => {
 
   describe('Requests', () => {
     it('should set state to loading', () => {
-      testMultipleTypes([getEntities.pending.type, getEntity.pending.type], {}, state => {
+      testMultipleTypes([getEntities.pending.type, getAllEntities.pending.type, getEntity.pending.type], {}, state => {
         expect(state).toMatchObject({
           errorMessage: null,
           updateSuccess: false,
@@ -116,7 +118,7 @@ describe('Entities reducer tests', () => {
 
   describe('Successes', () => {
     it('should fetch all entities', () => {
-      const payload = { data: [{ 1: 'fake1' }, { 2: 'fake2' }] };
+      const payload = { data: [{ 1: 'fake1' }, { 2: 'fake2' }], headers: { 'x-total-count': 123 } };
       expect(
         reducer(undefined, {
           type: getEntities.fulfilled.type,
@@ -125,10 +127,26 @@ describe('Entities reducer tests', () => {
       ).toEqual({
         ...initialState,
         loading: false,
+        totalItems: payload.headers['x-total-count'],
         entities: payload.data,
       });
     });
 
+    it('should fetch all the pages of entities', () => {
+      const payload = [{ 1: 'fake1' }, { 2: 'fake2' }];
+      expect(
+        reducer(undefined, {
+          type: getAllEntities.fulfilled.type,
+          payload,
+        }),
+      ).toEqual({
+        ...initialState,
+        loading: false,
+        totalItems: 2,
+        entities: payload,
+      });
+    });
+
     it('should fetch a single entity', () => {
       const payload = { data: { 1: 'fake1' } };
       expect(
@@ -199,6 +217,21 @@ describe('Entities reducer tests', () => {
       expect(getEntities.fulfilled.match(result)).toBe(true);
     });
 
+    it('dispatches FETCH_ALL_SHOPPINGCART actions, following the next page links', async () => {
+      const get = sinon.stub();
+      get
+        .onFirstCall()
+        .returns(Promise.resolve({ data: [{ id: 1 }], headers: { link: '<http://localhost/api/shopping-carts?after=1>; rel="next"' } }));
+      get.onSecondCall().returns(Promise.resolve({ data: [{ id: 2 }], headers: {} }));
+      axios.get = get;
+
+      const result = await getAllEntities()(dispatch, getState, extra);
+
+      expect(getAllEntities.fulfilled.match(result)).toBe(true);
+      expect(result.payload).toEqual([{ id: 1 }, { id: 2 }]);
+      expect(get.secondCall.args[0]).toBe('http://localhost/api/shopping-carts?after=1');
+    });
+
     it('dispatches FETCH_SHOPPINGCART actions', async () => {
       const arg = 42666;
 
@@ -1,9 +1,9 @@
 import axios from 'axios';
 import { createAsyncThunk, isFulfilled, isPending } from '@reduxjs/toolkit';
-import { ASC } from 'app/shared/util/pagination.constants';
 import { cleanEntity } from 'app/shared/util/entity-utils';
 import { IQueryParams, createEntitySlice, EntityState, serializeAxiosError } from 'app/shared/reducers/reducer.utils';
 import { IShoppingCart, defaultValue } from 'app/shared/model/shopping-cart.model';
+import { MAX_ITEMS_PER_PAGE } from 'app/shared/util/pagination.constants';
 
 const initialState: EntityState<IShoppingCart> = {
   loading: false,
@@ -11,6 +11,7 @@ const initialState: EntityState<IShoppingCart> = {
   entities: [],
   entity: defaultValue,
   updating: false,
+  totalItems: 0,
   updateSuccess: false,
 };
 
@@ -20,13 +21,29 @@ const apiUrl = 'api/shopping-carts';
 
 export const getEntities = createAsyncThunk(
   'shoppingCart/fetch_entity_list',
-  async ({ sort }: IQueryParams) => {
-    const requestUrl = `${apiUrl}?${sort ? `sort=${sort}&` : ''}cacheBuster=${new Date().getTime()}`;
+  async ({ page, size, sort }: IQueryParams) => {
+    const requestUrl = `${apiUrl}?${sort ? `page=${page}&size=${size}&sort=${sort}&` : ''}cacheBuster=${new Date().getTime()}`;
     return axios.get<IShoppingCart[]>(requestUrl);
   },
   { serializeError: serializeAxiosError },
 );
 
+// the url of the next page, from the Link header of a keyset page
+const getNextPageUrl = (link?: string): string | undefined => /<([^>]+)>; rel="next"/.exec(link ?? '')?.[1];
+
+const getAllPages = async (requestUrl: string, entities: IShoppingCart[] = []): Promise<IShoppingCart[]> => {
+  const { data, headers } = await axios.get<IShoppingCart[]>(requestUrl);
+  const nextPageUrl = getNextPageUrl(headers.link);
+  return nextPageUrl ? getAllPages(nextPageUrl, [...entities, ...data]) : [...entities, ...data];
+};
+
+// all the shoppingCarts, read page after page with the keyset pagination, to select one in a form
+export const getAllEntities = createAsyncThunk(
+  'shoppingCart/fetch_all_entities',
+  async () => getAllPages(`${apiUrl}?after=&size=${MAX_ITEMS_PER_PAGE}&sort=id,asc&cacheBuster=${new Date().getTime()}`),
+  { serializeError: serializeAxiosError },
+);
+
 export const getEntity = createAsyncThunk(
   'shoppingCart/fetch_entity',
   async (id: string | number) => {
@@ -94,28 +111,27 @@ export const ShoppingCartSlice = createEntitySlice({
         state.entity = {};
       })
       .addMatcher(isFulfilled(getEntities), (state, action) => {
-        const { data } = action.payload;
+        const { data, headers } = action.payload;
 
         return {
           ...state,
           loading: false,
-          entities: data.sort((a, b) => {
-            if (!action.meta?.arg?.sort) {
-              return 1;
-            }
-            const order = action.meta.arg.sort.split(',')[1];
-            const predicate = action.meta.arg.sort.split(',')[0];
-            return order === ASC ? (a[predicate] < b[predicate] ? -1 : 1) : b[predicate] < a[predicate] ? -1 : 1;
-          }),
+          entities: data,
+          totalItems: parseInt(headers['x-total-count'], 10),
         };
       })
+      .addCase(getAllEntities.fulfilled, (state, action) => {
+        state.loading = false;
+        state.entities = action.payload;
+        state.totalItems = action.payload.length;
+      })
       .addMatcher(isFulfilled(createEntity, updateEntity, partialUpdateEntity), (state, action) => {
         state.updating = false;
         state.loading = false;
         state.updateSuccess = true;
         state.entity = action.payload.data;
       })
-      .addMatcher(isPending(getEntities, getEntity), state => {
+      .addMatcher(isPending(getEntities, getAllEntities, getEntity), state => {
         state.errorMessage = null;
         state.updateSuccess = false;
         state.loading = true;
@@ -1,4 +1,6 @@
 export const ITEMS_PER_PAGE = 20;
+// the largest page size accepted by the server, see application.pagination.max-page-size
+export const MAX_ITEMS_PER_PAGE = 100;
 export const ASC = 'asc';
 export const DESC = 'desc';
 export const SORT = 'sort';
@@ -0,0 +1,96 @@
+package org.iqkv.boutique.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.iqkv.boutique.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class MethodTimingAspectTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ProceedingJoinPoint joinPoint;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        Signature signature = mock(Signature.class);
+        doReturn(ProductService.class).when(signature).getDeclaringType();
+        when(signature.getName()).thenReturn("findAll");
+        joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+    }
+
+    @Test
+    void shouldTimeAMonoUntilItCompletes() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(Mono.delay(Duration.ofMillis(100)));
+        Mono<?> result = (Mono<?>) new MethodTimingAspect(meterRegistry, 1).timeAround(joinPoint);
+
+        // assembling the result is not timed
+        assertThat(meterRegistry.find(MethodTimingAspect.TIMER_NAME).timer()).isNull();
+
+        result.block();
+        Timer timer = timer(MethodTimingAspect.OUTCOME_SUCCESS);
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(100);
+        // only the service level objectives are published as buckets
+        assertThat(timer.takeSnapshot().histogramCounts()).hasSize(MethodTimingAspect.SERVICE_LEVEL_OBJECTIVES.length);
+    }
+
+    @Test
+    void shouldTimeAFluxUntilItFails() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(Flux.concat(Flux.just(1), Flux.error(new IllegalStateException())));
+        Flux<?> result = (Flux<?>) new MethodTimingAspect(meterRegistry, 1).timeAround(joinPoint);
+
+        assertThatThrownBy(result::blockLast).isInstanceOf(IllegalStateException.class);
+        assertThat(timer(MethodTimingAspect.OUTCOME_ERROR).count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTimeAMonoCancelledAfterItsValueOnce() throws Throwable {
+        when(joinPoint.proceed()).thenReturn(Mono.just(1));
+        Mono<?> result = (Mono<?>) new MethodTimingAspect(meterRegistry, 1).timeAround(joinPoint);
+
+        result.flux().take(1).blockLast();
+        assertThat(meterRegistry.find(MethodTimingAspect.TIMER_NAME).timers()).hasSize(1);
+        assertThat(timer(MethodTimingAspect.OUTCOME_SUCCESS).count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTimeASynchronousResult() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("result");
+
+        assertThat(new MethodTimingAspect(meterRegistry, 1).timeAround(joinPoint)).isEqualTo("result");
+        assertThat(timer(MethodTimingAspect.OUTCOME_SUCCESS).count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotTouchTheCallsOutOfTheSample() throws Throwable {
+        Mono<Integer> mono = Mono.just(1);
+        when(joinPoint.proceed()).thenReturn(mono);
+
+        assertThat(new MethodTimingAspect(meterRegistry, 0).timeAround(joinPoint)).isSameAs(mono);
+        assertThat(meterRegistry.find(MethodTimingAspect.TIMER_NAME).timer()).isNull();
+    }
+
+    private Timer timer(String outcome) {
+        return meterRegistry
+            .get(MethodTimingAspect.TIMER_NAME)
+            .tags("class", "ProductService", "method", "findAll", "outcome", outcome)
+            .timer();
+    }
+}
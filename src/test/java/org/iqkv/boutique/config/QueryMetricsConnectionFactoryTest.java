@@ -0,0 +1,126 @@
+package org.iqkv.boutique.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class QueryMetricsConnectionFactoryTest {
+
+    private static final String SQL = "SELECT e.id, e.image FROM product e WHERE e.id = ANY($1)";
+
+    private MeterRegistry meterRegistry;
+
+    private ConnectionFactory connectionFactory;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        Row row = mock(Row.class);
+        when(row.get("image", byte[].class)).thenReturn(new byte[10]);
+        Result result = mock(Result.class);
+        when(result.map(any(BiFunction.class))).thenAnswer(invocation -> {
+            BiFunction<Row, RowMetadata, ?> mapping = invocation.getArgument(0);
+            return Flux.range(0, 2).map(i -> mapping.apply(row, mock(RowMetadata.class)));
+        });
+        Statement statement = mock(Statement.class);
+        doReturn(Flux.just(result)).when(statement).execute();
+        Connection connection = mock(Connection.class);
+        when(connection.createStatement(SQL)).thenReturn(statement);
+        ConnectionFactory delegate = mock(ConnectionFactory.class);
+        doReturn(Mono.just(connection)).when(delegate).create();
+
+        meterRegistry = new SimpleMeterRegistry();
+        connectionFactory = new QueryMetricsConnectionFactory(delegate, new QueryMetricsRecorder(meterRegistry, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void shouldRecordTheStatementOnceItsRowsAreConsumed() {
+        List<byte[]> images = Mono.from(connectionFactory.create())
+            .flatMapMany(connection ->
+                Flux.from(connection.createStatement(SQL).bind("$1", new Long[] { 1L, 2L }).execute()).concatMap(result ->
+                    result.map((row, metadata) -> row.get("image", byte[].class))
+                )
+            )
+            .collectList()
+            .block();
+
+        assertThat(images).hasSize(2);
+        String shape = QueryMetricsRecorder.shapeId("SELECT e.id, e.image FROM product e WHERE e.id = ANY(?)");
+        assertThat(
+            meterRegistry.get(QueryMetricsRecorder.DURATION_METER_NAME).tags("query", shape, "outcome", "success").timer().count()
+        ).isEqualTo(1);
+        assertThat(meterRegistry.get(QueryMetricsRecorder.ROWS_METER_NAME).tags("query", shape).summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get(QueryMetricsRecorder.FETCHED_METER_NAME).tags("query", shape).summary().totalAmount()).isEqualTo(20);
+        assertThat(meterRegistry.get(QueryMetricsRecorder.ACQUIRE_METER_NAME).tags("outcome", "success").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldMeasureTheTextInEncodedBytes() {
+        assertThat(QueryMetricsConnectionFactory.utf8Length("Hat")).isEqualTo(3);
+        assertThat(QueryMetricsConnectionFactory.utf8Length("Café")).isEqualTo(5);
+        assertThat(QueryMetricsConnectionFactory.utf8Length("10 €")).isEqualTo(6);
+        assertThat(QueryMetricsConnectionFactory.utf8Length("\uD83D\uDC52")).isEqualTo(4);
+    }
+
+    @Test
+    void shouldNotRecordTheStatementBeforeItsRowsAreConsumed() {
+        Mono.from(connectionFactory.create()).flatMapMany(connection -> connection.createStatement(SQL).execute()).blockLast();
+
+        assertThat(meterRegistry.find(QueryMetricsRecorder.DURATION_METER_NAME).timer()).isNull();
+    }
+
+    @Test
+    void shouldCapTheNumberOfTaggedShapes() {
+        meterRegistry.config().meterFilter(QueryMetricsRecorder.maximumShapes(1));
+        QueryMetricsRecorder recorder = new QueryMetricsRecorder(meterRegistry, Duration.ofSeconds(1));
+
+        recorder.record("SELECT id FROM product WHERE id = $1", 1, 1000, 1, 8, QueryMetricsRecorder.OUTCOME_SUCCESS);
+        recorder.record("SELECT id FROM product WHERE id = $2", 1, 1000, 1, 8, QueryMetricsRecorder.OUTCOME_SUCCESS);
+        recorder.record("SELECT id FROM product_category", 0, 1000, 1, 8, QueryMetricsRecorder.OUTCOME_SUCCESS);
+
+        assertThat(meterRegistry.find(QueryMetricsRecorder.DURATION_METER_NAME).timers())
+            .extracting(timer -> timer.getId().getTag("query"))
+            .containsExactly(QueryMetricsRecorder.shapeId("SELECT id FROM product WHERE id = ?"));
+        assertThat(meterRegistry.get(QueryMetricsRecorder.DURATION_METER_NAME).timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldIdentifyTheShapesWithAShortStableHash() {
+        String id = QueryMetricsRecorder.shapeId("SELECT id FROM product WHERE id = ?");
+
+        assertThat(id).hasSize(12).isEqualTo(QueryMetricsRecorder.shapeId("SELECT id FROM product WHERE id = ?"));
+        assertThat(id).isNotEqualTo(QueryMetricsRecorder.shapeId("SELECT id FROM product_category WHERE id = ?"));
+    }
+
+    @Test
+    void shouldShapeStatementsDifferingByTheirValues() {
+        assertThat(QueryMetricsRecorder.shape("SELECT * FROM product\n  WHERE name = 'it''s'  AND price > 12.50 LIMIT $1")).isEqualTo(
+            "SELECT * FROM product WHERE name = ? AND price > ? LIMIT ?"
+        );
+        assertThat(QueryMetricsRecorder.shape("INSERT INTO product_order (quantity, cart_id) VALUES ($1, $2), ($3, $4), ($5, $6)"))
+            .isEqualTo("INSERT INTO product_order (quantity, cart_id) VALUES (?, ?), ...");
+        assertThat(QueryMetricsRecorder.shape("SELECT id FROM product WHERE id IN ($1, $2,$3)")).isEqualTo(
+            "SELECT id FROM product WHERE id IN (?)"
+        );
+        assertThat(QueryMetricsRecorder.shape("SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass($1) AND t1.x = 2"))
+            .isEqualTo("SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?) AND t1.x = ?");
+    }
+}
@@ -0,0 +1,74 @@
+package org.iqkv.boutique.management;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import java.util.Optional;
+import org.iqkv.boutique.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+class R2dbcPoolHealthIndicatorTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private PoolMetrics poolMetrics;
+
+    private ConnectionPool connectionPool;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getDatabasePool().setMaxPendingAcquires(3);
+        poolMetrics = mock(PoolMetrics.class);
+        when(poolMetrics.acquiredSize()).thenReturn(10);
+        when(poolMetrics.getMaxAllocatedSize()).thenReturn(10);
+        connectionPool = mock(ConnectionPool.class);
+        when(connectionPool.getMetrics()).thenReturn(Optional.of(poolMetrics));
+    }
+
+    @Test
+    void shouldBeUpUntilTheThresholdOfPendingAcquisitions() {
+        when(poolMetrics.pendingAcquireSize()).thenReturn(3);
+
+        Health health = new R2dbcPoolHealthIndicator(connectionPool, applicationProperties).health().block();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("acquired", 10).containsEntry("pending", 3);
+    }
+
+    @Test
+    void shouldBeDownOverTheThresholdOfPendingAcquisitions() {
+        when(poolMetrics.pendingAcquireSize()).thenReturn(4);
+
+        Health health = new R2dbcPoolHealthIndicator(connectionPool, applicationProperties).health().block();
+
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+    }
+
+    @Test
+    void shouldFindThePoolBehindADecorator() {
+        when(poolMetrics.pendingAcquireSize()).thenReturn(4);
+        ConnectionFactory decorator = mock(ConnectionFactory.class, withSettings().extraInterfaces(Wrapped.class));
+        when(((Wrapped<?>) decorator).unwrap()).thenReturn(connectionPool);
+
+        Health health = new R2dbcPoolHealthIndicator(decorator, applicationProperties).health().block();
+
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+    }
+
+    @Test
+    void shouldBeUnknownWithoutAPool() {
+        Health health = new R2dbcPoolHealthIndicator(mock(ConnectionFactory.class), applicationProperties).health().block();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UNKNOWN);
+    }
+}
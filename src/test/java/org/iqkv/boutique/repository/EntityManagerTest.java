@@ -0,0 +1,201 @@
+package org.iqkv.boutique.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import java.util.List;
+import java.util.function.Function;
+import org.iqkv.boutique.domain.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.data.r2dbc.query.UpdateMapper;
+import org.springframework.data.relational.core.dialect.RenderContextFactory;
+import org.springframework.data.relational.core.sql.Column;
+import org.springframework.data.relational.core.sql.Condition;
+import org.springframework.data.relational.core.sql.Conditions;
+import org.springframework.data.relational.core.sql.Expression;
+import org.springframework.data.relational.core.sql.SQL;
+import org.springframework.data.relational.core.sql.Select;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoin;
+import org.springframework.data.relational.core.sql.SelectBuilder.SelectFromAndJoinCondition;
+import org.springframework.data.relational.core.sql.Table;
+import org.springframework.data.relational.core.sql.render.SqlRenderer;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+class EntityManagerTest {
+
+    private static final Table entityTable = Table.aliased("product", EntityManager.ENTITY_ALIAS);
+
+    private static final Condition idCondition = Conditions.isEqual(entityTable.column("id"), SQL.bindMarker(":id"));
+
+    private MeterRegistry meterRegistry;
+
+    private EntityManager entityManager;
+
+    private int renderedSelects;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        MappingR2dbcConverter converter = new MappingR2dbcConverter(
+            new R2dbcMappingContext(),
+            R2dbcCustomConversions.of(PostgresDialect.INSTANCE, List.of())
+        );
+        R2dbcEntityTemplate template = new R2dbcEntityTemplate(
+            DatabaseClient.builder()
+                .connectionFactory(mock(ConnectionFactory.class))
+                .bindMarkers(PostgresDialect.INSTANCE.getBindMarkersFactory())
+                .build(),
+            PostgresDialect.INSTANCE,
+            converter
+        );
+        entityManager = new EntityManager(
+            SqlRenderer.create(new RenderContextFactory(PostgresDialect.INSTANCE).createRenderContext()),
+            new UpdateMapper(PostgresDialect.INSTANCE, converter),
+            template,
+            meterRegistry
+        );
+        renderedSelects = 0;
+    }
+
+    private SelectFromAndJoin selectFrom() {
+        renderedSelects++;
+        return Select.builder().select(ProductSqlHelper.getColumns(entityTable, EntityManager.ENTITY_ALIAS)).from(entityTable);
+    }
+
+    @Test
+    void shouldRenderBindMarkersInsteadOfValues() {
+        String select = entityManager.createSelect("findById", this::selectFrom, Product.class, null, idCondition);
+        assertThat(select).endsWith("WHERE e.id = :id");
+
+        String page = entityManager.createSelect("findAll", this::selectFrom, Product.class, PageRequest.of(3, 20), null);
+        assertThat(page).endsWith("LIMIT :limit OFFSET :offset").doesNotContain("60");
+    }
+
+    @Test
+    void shouldRenderTheSameShapeOnlyOnce() {
+        String first = entityManager.createSelect("findAll", this::selectFrom, Product.class, PageRequest.of(0, 20), null);
+        String second = entityManager.createSelect("findAll", this::selectFrom, Product.class, PageRequest.of(5, 10), null);
+
+        assertThat(second).isSameAs(first);
+        assertThat(renderedSelects).isEqualTo(1);
+        assertThat(meterRegistry.get(EntityManager.SELECT_TEMPLATE_METER_NAME).tag("result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(EntityManager.SELECT_TEMPLATE_METER_NAME).tag("result", "hit").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRenderEachSortSeparately() {
+        PageRequest byNamePage = PageRequest.of(0, 20, Sort.by("name"));
+        PageRequest byPricePage = PageRequest.of(0, 20, Sort.by("price"));
+        String byName = entityManager.createSelect("findAll", this::selectFrom, Product.class, byNamePage, null);
+        String byPrice = entityManager.createSelect("findAll", this::selectFrom, Product.class, byPricePage, null);
+        String unpaged = entityManager.createSelect("findAll", this::selectFrom, Product.class, null, null);
+
+        assertThat(byName).contains("ORDER BY e_name ASC");
+        assertThat(byPrice).contains("ORDER BY e_price ASC");
+        assertThat(unpaged).doesNotContain("ORDER BY").doesNotContain("LIMIT");
+        assertThat(renderedSelects).isEqualTo(3);
+        assertThat(meterRegistry.get(EntityManager.SELECT_TEMPLATE_SIZE_METER_NAME).gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldCountTemplatesNotKeptOnceTheCacheIsFull() {
+        for (int shape = 0; shape < EntityManager.MAX_SELECT_TEMPLATES; shape++) {
+            entityManager.createSelect("shape" + shape, this::selectFrom, Product.class, null, null);
+        }
+        entityManager.createSelect("overflow", this::selectFrom, Product.class, null, null);
+        entityManager.createSelect("overflow", this::selectFrom, Product.class, null, null);
+
+        String name = EntityManager.SELECT_TEMPLATE_METER_NAME;
+        assertThat(meterRegistry.get(name).tag("result", "miss").counter().count()).isEqualTo(EntityManager.MAX_SELECT_TEMPLATES);
+        assertThat(meterRegistry.get(name).tag("result", "overflow").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get(EntityManager.SELECT_TEMPLATE_SIZE_METER_NAME).gauge().value()).isEqualTo(
+            EntityManager.MAX_SELECT_TEMPLATES
+        );
+    }
+
+    @Test
+    void shouldSeekAfterTheKeyset() {
+        Keyset keyset = Keyset.first("name", Sort.Direction.DESC, 20).next(42L, "Hat");
+        Condition after = EntityManager.createKeysetCondition(entityTable, keyset);
+        String select = entityManager.createSelect(keyset.getShape(), this::selectFrom, Product.class, keyset.toPageable(), after);
+
+        assertThat(select)
+            .contains("WHERE (e.name, e.id) < (:keysetValue, :keysetId)")
+            .contains("ORDER BY e_name DESC, e_id DESC")
+            .endsWith("LIMIT :limit OFFSET :offset");
+        assertThat(Keyset.fromCursor(keyset.toCursor(), 20)).hasToString(keyset.toString());
+    }
+
+    @Test
+    void shouldUpdateOnlyTheGivenColumns() {
+        List<Expression> returning = ProductSqlHelper.getSummaryColumns(entityTable, EntityManager.ENTITY_ALIAS);
+        String update = entityManager.createUpdate(Product.class, entityTable, List.of("name", "price"), returning);
+
+        assertThat(update)
+            .startsWith("UPDATE product e SET name = :name, price = :price WHERE e.id = :updateId RETURNING e.id AS e_id")
+            .contains("octet_length(e.image) AS e_image_size")
+            .doesNotContain("e.image AS");
+        assertThat(entityManager.createUpdate(Product.class, entityTable, List.of("name", "price"), returning)).isSameAs(update);
+    }
+
+    @Test
+    void shouldSelectTheUpdatedRowWithItsRelationshipsInTheSameStatement() {
+        Table productCategoryTable = Table.aliased("product_category", "productCategory");
+        Function<Table, SelectFromAndJoinCondition> selectFrom = from ->
+            Select.builder()
+                .select(ProductSqlHelper.getSummaryColumns(entityTable, EntityManager.ENTITY_ALIAS))
+                .from(from)
+                .leftOuterJoin(productCategoryTable)
+                .on(Column.create("product_category_id", entityTable))
+                .equals(Column.create("id", productCategoryTable));
+        String update = entityManager.createUpdateThenSelect(Product.class, entityTable, List.of("name"), selectFrom);
+
+        assertThat(update)
+            .startsWith("WITH updated AS (UPDATE product e SET name = :name WHERE e.id = :updateId RETURNING e.*) SELECT e.id AS e_id")
+            .contains("octet_length(e.image) AS e_image_size")
+            .endsWith("FROM updated e LEFT OUTER JOIN product_category productCategory ON e.product_category_id = productCategory.id");
+        assertThat(entityManager.createUpdateThenSelect(Product.class, entityTable, List.of("name"), selectFrom)).isSameAs(update);
+        List<Expression> returning = List.of(entityTable.column("id"));
+        assertThat(entityManager.createUpdate(Product.class, entityTable, List.of("name"), returning)).isNotEqualTo(update);
+    }
+
+    @Test
+    void shouldInsertArraysAndReturnTheIdsInTheirOrder() {
+        String insert = entityManager.createInsert(Product.class, List.of("name", "price"));
+
+        assertThat(insert)
+            .isEqualTo(
+                "WITH batch AS (SELECT nextval(pg_get_serial_sequence('product', 'id')) AS id, b.* " +
+                "FROM unnest(:name, :price) WITH ORDINALITY AS b(name, price, ordinality)), " +
+                "inserted AS (INSERT INTO product (id, name, price) SELECT id, name, price FROM batch) " +
+                "SELECT id FROM batch ORDER BY ordinality"
+            );
+        assertThat(entityManager.createInsert(Product.class, List.of("name", "price"))).isSameAs(insert);
+    }
+
+    @Test
+    void shouldReadInsteadOfUpdatingWithoutAnyValue() {
+        Product product = new Product().id(42L);
+        Product read = new Product().id(42L).name("Hat");
+
+        Product updated = entityManager
+            .updateNonNullColumns(product, entityTable, List.of("name", "price"), List.of(), (row, metadata) -> product, id ->
+                Mono.just(read)
+            )
+            .block();
+
+        assertThat(updated).isSameAs(read);
+    }
+}
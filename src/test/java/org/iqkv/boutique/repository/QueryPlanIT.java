@@ -0,0 +1,136 @@
+package org.iqkv.boutique.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.r2dbc.spi.Connection;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+import org.iqkv.boutique.IntegrationTest;
+import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.ProductOrder;
+import org.iqkv.boutique.domain.ShoppingCart;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.Query;
+import reactor.core.publisher.Mono;
+
+/**
+ * Regression check of the plans of the repository queries: each {@link Query} must be served by an index, and so must the
+ * joins of the eager selects rendered by the {@link EntityManager}.
+ * <p>
+ * The test database holds too few rows for the planner to prefer an index on its own, so sequential scans are disabled while
+ * explaining: the planner then only falls back to one when no index can serve the query. They are disabled with
+ * {@code SET LOCAL} in a transaction which is rolled back, so the setting never leaks to the pooled connection.
+ */
+@IntegrationTest
+class QueryPlanIT {
+
+    private static final String SEQ_SCAN = "Seq Scan";
+
+    @Autowired
+    private R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+
+    @Autowired
+    private ProductOrderRepository productOrderRepository;
+
+    static Stream<Method> repositoryQueries() {
+        return Stream.of(ProductRepository.class, ShoppingCartRepository.class, ProductOrderRepository.class)
+            .flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+            .filter(method -> method.isAnnotationPresent(Query.class));
+    }
+
+    @ParameterizedTest
+    @MethodSource("repositoryQueries")
+    void shouldNotScanWholeTables(Method method) throws Exception {
+        String sql = method.getAnnotation(Query.class).value().replace(":id", "1");
+
+        assertThat(seqScans(sql)).as("sequential scans of %s", method.getName()).isEmpty();
+    }
+
+    @Test
+    void shouldJoinTheRelationshipsOfOneEntityByIndex() throws Exception {
+        productRepository.findOneWithEagerRelationships(1L).block();
+        shoppingCartRepository.findById(1L).block();
+        productOrderRepository.findOneWithEagerRelationships(1L).block();
+
+        assertThat(seqScans(renderedSelect(Product.class, "findById", false))).as("sequential scans of the eager product").isEmpty();
+        assertThat(seqScans(renderedSelect(ShoppingCart.class, "findById", false))).as("sequential scans of the eager cart").isEmpty();
+        assertThat(seqScans(renderedSelect(ProductOrder.class, "findOneWithEagerRelationships", false)))
+            .as("sequential scans of the eager product order")
+            .isEmpty();
+    }
+
+    @Test
+    void shouldJoinTheRelationshipsOfAPageByIndex() throws Exception {
+        productOrderRepository.findAllWithEagerRelationships(PageRequest.of(0, 20)).collectList().block();
+
+        // the page itself may be read from the whole product order table, only its joins must be served by an index
+        assertThat(seqScans(renderedSelect(ProductOrder.class, "findAllWithEagerRelationships", true)))
+            .as("sequential scans of the joins of the eager product orders")
+            .doesNotContain("product", "shopping_cart");
+    }
+
+    private String renderedSelect(Class<?> entityType, String shape, boolean paged) {
+        String select = entityManager.findSelectTemplate(entityType, shape, paged);
+        assertThat(select).as("rendered select %s of %s", shape, entityType.getSimpleName()).isNotNull();
+        return select
+            .replace(":id", "1")
+            .replace(":" + EntityManager.LIMIT_MARKER, "20")
+            .replace(":" + EntityManager.OFFSET_MARKER, "0");
+    }
+
+    private List<String> seqScans(String sql) throws Exception {
+        String plan = r2dbcEntityTemplate.getDatabaseClient().inConnection(connection -> explain(connection, sql)).block();
+
+        List<String> seqScans = new ArrayList<>();
+        collectSeqScans(objectMapper.readTree(plan).get(0).get("Plan"), seqScans);
+        return seqScans;
+    }
+
+    private static Mono<String> explain(Connection connection, String sql) {
+        return Mono.usingWhen(
+            Mono.from(connection.beginTransaction()).thenReturn(connection),
+            transaction ->
+                execute(transaction, "SET LOCAL enable_seqscan = off").then(
+                    Mono.from(transaction.createStatement("EXPLAIN (FORMAT JSON) " + sql).execute()).flatMap(
+                        result -> Mono.from(result.map((row, metadata) -> row.get(0, String.class)))
+                    )
+                ),
+            Connection::rollbackTransaction,
+            (transaction, e) -> transaction.rollbackTransaction(),
+            Connection::rollbackTransaction
+        );
+    }
+
+    private static Mono<Long> execute(Connection connection, String sql) {
+        return Mono.from(connection.createStatement(sql).execute()).flatMap(result -> Mono.from(result.getRowsUpdated()));
+    }
+
+    private static void collectSeqScans(JsonNode node, List<String> seqScans) {
+        if (SEQ_SCAN.equals(node.path("Node Type").asText())) {
+            seqScans.add(node.path("Relation Name").asText());
+        }
+        node.path("Plans").forEach(child -> collectSeqScans(child, seqScans));
+    }
+}
@@ -0,0 +1,92 @@
+package org.iqkv.boutique.repository.rowmapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.r2dbc.spi.Row;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import org.iqkv.boutique.config.DatabaseConfiguration;
+import org.iqkv.boutique.domain.enumeration.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.convert.R2dbcCustomConversions;
+import org.springframework.data.r2dbc.dialect.PostgresDialect;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+
+class ColumnConverterTest {
+
+    private ColumnConverter columnConverter;
+
+    private Row row;
+
+    @BeforeEach
+    public void setup() {
+        R2dbcCustomConversions conversions = new DatabaseConfiguration().r2dbcCustomConversions(PostgresDialect.INSTANCE);
+        columnConverter = new ColumnConverter(conversions, new MappingR2dbcConverter(new R2dbcMappingContext(), conversions));
+        row = mock(Row.class);
+    }
+
+    @Test
+    void shouldReadDriverTypesDirectly() {
+        when(row.get("e_id", Long.class)).thenReturn(42L);
+
+        assertThat(columnConverter.fromRow(row, "e_id", Long.class)).isEqualTo(42L);
+        verify(row, never()).get(anyString());
+    }
+
+    @Test
+    void shouldReadEnumsByName() {
+        when(row.get("e_status", String.class)).thenReturn("COMPLETED");
+
+        assertThat(columnConverter.fromRow(row, "e_status", OrderStatus.class)).isEqualTo(OrderStatus.COMPLETED);
+        verify(row, never()).get(eq("e_status"), eq(OrderStatus.class));
+    }
+
+    @Test
+    void shouldReadNullEnums() {
+        assertThat(columnConverter.fromRow(row, "e_status", OrderStatus.class)).isNull();
+    }
+
+    @Test
+    void shouldRejectUnknownEnumNames() {
+        when(row.get("e_status", String.class)).thenReturn("LOST");
+
+        assertThatIllegalArgumentException().isThrownBy(() -> columnConverter.fromRow(row, "e_status", OrderStatus.class));
+    }
+
+    @Test
+    void shouldReadByIndex() {
+        when(row.get(3, Long.class)).thenReturn(42L);
+        when(row.get(4, String.class)).thenReturn("COMPLETED");
+
+        assertThat(columnConverter.fromRow(row, 3, Long.class)).isEqualTo(42L);
+        assertThat(columnConverter.fromRow(row, 4, OrderStatus.class)).isEqualTo(OrderStatus.COMPLETED);
+        verify(row, never()).get(anyString(), any(Class.class));
+    }
+
+    @Test
+    void shouldReadAbsentColumnsAsNull() {
+        assertThat(columnConverter.fromRow(row, ColumnIndexes.ABSENT, Long.class)).isNull();
+        verify(row, never()).get(anyInt(), any(Class.class));
+    }
+
+    @Test
+    void shouldConvertInstantsFromTheRawValue() {
+        LocalDateTime placedDate = LocalDateTime.of(2024, 6, 4, 16, 33);
+        when(row.get("e_placed_date")).thenReturn(placedDate);
+
+        assertThat(columnConverter.fromRow(row, "e_placed_date", Instant.class)).isEqualTo(placedDate.toInstant(ZoneOffset.UTC));
+        verify(row, never()).get(anyString(), any(Class.class));
+    }
+}
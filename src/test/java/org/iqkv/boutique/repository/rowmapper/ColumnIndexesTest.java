@@ -0,0 +1,86 @@
+package org.iqkv.boutique.repository.rowmapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ColumnIndexesTest {
+
+    private ColumnIndexes columnIndexes;
+
+    @BeforeEach
+    public void setup() {
+        columnIndexes = new ColumnIndexes("id", "name", "image");
+    }
+
+    @Test
+    void shouldResolveTheIndexesOfThePrefixedColumns() {
+        Row row = rowOf(metadataOf("e_name", "e_id", "p_id"));
+
+        assertThat(columnIndexes.resolve(row, "e")).containsExactly(1, 0, ColumnIndexes.ABSENT);
+        assertThat(columnIndexes.resolve(row, "p")).containsExactly(2, ColumnIndexes.ABSENT, ColumnIndexes.ABSENT);
+    }
+
+    @Test
+    void shouldResolveOncePerRowMetadata() {
+        RowMetadata metadata = metadataOf("e_id", "e_name", "e_image");
+
+        int[] first = columnIndexes.resolve(rowOf(metadata), "e");
+        int[] second = columnIndexes.resolve(rowOf(metadata), "e");
+
+        assertThat(second).isSameAs(first).containsExactly(0, 1, 2);
+        verify(metadata, times(1)).getColumnMetadatas();
+    }
+
+    @Test
+    void shouldResolveAgainForAnotherQuery() {
+        int[] summary = columnIndexes.resolve(rowOf(metadataOf("e_id", "e_name")), "e");
+        int[] full = columnIndexes.resolve(rowOf(metadataOf("e_image", "e_id", "e_name")), "e");
+
+        assertThat(summary).containsExactly(0, 1, ColumnIndexes.ABSENT);
+        assertThat(full).containsExactly(1, 2, 0);
+    }
+
+    @Test
+    void shouldKeepTheIndexesOfInterleavedQueries() {
+        RowMetadata summaryMetadata = metadataOf("e_id", "e_name");
+        RowMetadata fullMetadata = metadataOf("e_image", "e_id", "e_name");
+
+        int[] summary = columnIndexes.resolve(rowOf(summaryMetadata), "e");
+        int[] full = columnIndexes.resolve(rowOf(fullMetadata), "e");
+
+        assertThat(columnIndexes.resolve(rowOf(summaryMetadata), "e")).isSameAs(summary);
+        assertThat(columnIndexes.resolve(rowOf(fullMetadata), "e")).isSameAs(full);
+        verify(summaryMetadata, times(1)).getColumnMetadatas();
+        verify(fullMetadata, times(1)).getColumnMetadatas();
+    }
+
+    private static Row rowOf(RowMetadata metadata) {
+        Row row = mock(Row.class);
+        when(row.getMetadata()).thenReturn(metadata);
+        return row;
+    }
+
+    private static RowMetadata metadataOf(String... names) {
+        List<ColumnMetadata> columnMetadatas = Arrays.stream(names)
+            .map(name -> {
+                ColumnMetadata columnMetadata = mock(ColumnMetadata.class);
+                when(columnMetadata.getName()).thenReturn(name);
+                return columnMetadata;
+            })
+            .toList();
+        RowMetadata metadata = mock(RowMetadata.class);
+        when(metadata.getColumnMetadatas()).thenAnswer(invocation -> columnMetadatas);
+        return metadata;
+    }
+}
@@ -0,0 +1,93 @@
+package org.iqkv.boutique.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.iqkv.boutique.config.ApplicationProperties;
+import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.ProductCategory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class CatalogCacheTest {
+
+    private MeterRegistry meterRegistry;
+
+    private CatalogCache catalogCache;
+
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        catalogCache = new CatalogCache(new ApplicationProperties(), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    private Mono<Product> load(Long id) {
+        return Mono.fromSupplier(() -> {
+            loads.incrementAndGet();
+            return new Product().id(id);
+        });
+    }
+
+    @Test
+    void shouldLoadAProductOnlyOnce() {
+        assertThat(catalogCache.getProduct(1L, this::load).block()).isNotNull();
+        assertThat(catalogCache.getProduct(1L, this::load).block()).isNotNull();
+
+        assertThat(loads.get()).isEqualTo(1);
+        FunctionCounter hits = meterRegistry
+            .get("cache.gets")
+            .tags("cache", CatalogCache.PRODUCTS_CACHE_NAME, "result", "hit")
+            .functionCounter();
+        assertThat(hits.count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotCacheMissingProducts() {
+        assertThat(catalogCache.getProduct(1L, id -> Mono.empty()).block()).isNull();
+        assertThat(catalogCache.getProduct(1L, this::load).block()).isNotNull();
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReloadAnEvictedProduct() {
+        catalogCache.getProduct(1L, this::load).block();
+        catalogCache.evictProduct(1L).block();
+        catalogCache.getProduct(1L, this::load).block();
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictProductsWhenTheirCategoryIsWritten() {
+        catalogCache.getProduct(1L, this::load).block();
+        catalogCache.getProductCategory(2L, id -> Mono.just(new ProductCategory().id(id))).block();
+        catalogCache.evictProductCategory(2L).block();
+        catalogCache.getProduct(1L, this::load).block();
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldReturnACopyOfTheCachedProduct() {
+        ProductCategory productCategory = new ProductCategory().id(2L);
+        catalogCache.getProduct(1L, id -> load(id).map(product -> product.name("Cached").productCategory(productCategory))).block();
+
+        Product product = catalogCache.getProduct(1L, this::load).block();
+        product.name("Modified").getProductCategory().name("Modified");
+
+        Product cached = catalogCache.getProduct(1L, this::load).block();
+        assertThat(cached).isNotSameAs(product);
+        assertThat(cached.getName()).isEqualTo("Cached");
+        assertThat(cached.getProductCategory().getName()).isNull();
+        assertThat(cached.getProductCategoryId()).isEqualTo(2L);
+        assertThat(loads.get()).isEqualTo(1);
+    }
+}
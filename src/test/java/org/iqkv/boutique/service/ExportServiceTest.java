@@ -0,0 +1,78 @@
+package org.iqkv.boutique.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.iqkv.boutique.config.ApplicationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+class ExportServiceTest {
+
+    private ApplicationProperties applicationProperties;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getExport().setFetchSize(10);
+        applicationProperties.getExport().setMaxConcurrentExports(1);
+    }
+
+    @Test
+    void shouldFetchTheConfiguredNumberOfRowsAtATime() {
+        ExportService exportService = new ExportService(applicationProperties);
+        AtomicInteger fetchSize = new AtomicInteger();
+
+        Long count = exportService
+            .export("test", size -> {
+                fetchSize.set(size);
+                return Flux.range(0, 100);
+            })
+            .count()
+            .block();
+
+        assertThat(count).isEqualTo(100);
+        assertThat(fetchSize).hasValue(10);
+    }
+
+    @Test
+    void shouldRefuseExportsOverTheLimitAndReleaseThePermit() {
+        ExportService exportService = new ExportService(applicationProperties);
+        Sinks.Many<Integer> rows = Sinks.many().unicast().onBackpressureBuffer();
+
+        Disposable running = exportService.export("first", size -> rows.asFlux()).subscribe();
+        assertThatThrownBy(() -> exportService.export("second", size -> Flux.range(0, 1)).blockLast()).isInstanceOf(
+            ExportLimitExceededException.class
+        );
+
+        running.dispose();
+        assertThat(exportService.export("third", size -> Flux.range(0, 1)).count().block()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAbortAnIdleExport() {
+        applicationProperties.getExport().setIdleTimeout(Duration.ofMillis(50));
+        ExportService exportService = new ExportService(applicationProperties);
+
+        assertThatThrownBy(() -> exportService.export("idle", size -> Flux.<Integer>never()).blockLast()).hasCauseInstanceOf(
+            TimeoutException.class
+        );
+        assertThat(exportService.export("next", size -> Flux.range(0, 1)).count().block()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldAbortAnExportLastingLongerThanTheTotalTimeout() {
+        applicationProperties.getExport().setTotalTimeout(Duration.ofMillis(100));
+        ExportService exportService = new ExportService(applicationProperties);
+
+        assertThatThrownBy(
+            () -> exportService.export("slow", size -> Flux.interval(Duration.ofMillis(10))).blockLast(Duration.ofSeconds(5))
+        ).hasMessageContaining("exceeded");
+    }
+}
@@ -0,0 +1,155 @@
+package org.iqkv.boutique.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.iqkv.boutique.config.ApplicationProperties;
+import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.repository.ProductCategoryRepository;
+import org.iqkv.boutique.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+class ProductImportServiceTest {
+
+    private static final String HEADER = "id;name;description;price;product_size;image;image_content_type;product_category_id";
+
+    private ProductRepository productRepository;
+
+    private TotalCountService totalCountService;
+
+    private TransactionalOperator transactionalOperator;
+
+    private ApplicationProperties applicationProperties;
+
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getProductImport().setBatchSize(2);
+        applicationProperties.getProductImport().setMaxReportedErrors(2);
+
+        productRepository = mock(ProductRepository.class);
+        AtomicLong ids = new AtomicLong();
+        when(productRepository.insertAll(anyList())).thenAnswer(invocation ->
+            Flux.fromIterable((List<Product>) invocation.getArgument(0)).map(product -> product.id(ids.incrementAndGet()))
+        );
+        ProductCategoryRepository productCategoryRepository = mock(ProductCategoryRepository.class);
+        when(productCategoryRepository.findExistingIds(any())).thenReturn(Flux.just(1L));
+        totalCountService = mock(TotalCountService.class);
+        when(totalCountService.evict(any())).thenReturn(Mono.empty());
+        transactionalOperator = mock(TransactionalOperator.class);
+        when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        productImportService = new ProductImportService(
+            productRepository,
+            productCategoryRepository,
+            totalCountService,
+            new ObjectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            transactionalOperator,
+            applicationProperties
+        );
+    }
+
+    @Test
+    void shouldImportValidCsvRowsAndReportTheOthers() {
+        ProductImportReport report = productImportService
+            .importCsv(
+                Flux.just(
+                    HEADER,
+                    "1;hat;a \"red\" hat;12.50;M;../fake-data/blob/hipster.png;image/png;1",
+                    "2;scarf;\"wool; long\";-1;L;;;1",
+                    "",
+                    "3;gloves;;20;XS;;;1",
+                    "4;socks;;5;S;;;2",
+                    "5;belt;;15;L;;;1"
+                )
+            )
+            .block();
+
+        assertThat(report.imported()).isEqualTo(2);
+        assertThat(report.rejected()).isEqualTo(3);
+        // only the first errors are reported
+        assertThat(report.errors()).containsExactly(
+            new ProductImportReport.RowError(3, "price: must be greater than or equal to 0"),
+            new ProductImportReport.RowError(5, "product_size: invalid value 'XS'")
+        );
+        // 2 rows per batch, each in its own transaction, the batches without valid rows are not inserted
+        verify(transactionalOperator, times(3)).transactional(any(Mono.class));
+        verify(productRepository, times(2)).insertAll(anyList());
+        verify(totalCountService, times(2)).evict(ProductService.TABLE);
+    }
+
+    @Test
+    void shouldRejectACsvHeaderWithoutTheRequiredColumns() {
+        assertThatThrownBy(() -> productImportService.importCsv(Flux.just("name;description", "hat;a hat")).block()).isInstanceOf(
+            InvalidImportException.class
+        );
+        verify(productRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void shouldImportValidNdjsonRowsAndReportTheOthers() {
+        ProductImportReport report = productImportService
+            .importNdjson(
+                Flux.just(
+                    "{\"name\":\"hat\",\"price\":12.5,\"productSize\":\"M\",\"productCategory\":{\"id\":1}}",
+                    "{\"name\":\"scarf\"",
+                    "{\"name\":\"gloves\",\"price\":20,\"productSize\":\"L\"}"
+                )
+            )
+            .block();
+
+        assertThat(report.imported()).isEqualTo(1);
+        assertThat(report.rejected()).isEqualTo(2);
+        assertThat(report.errors()).extracting(ProductImportReport.RowError::line).containsExactly(2L, 3L);
+        assertThat(report.errors().get(0).message()).startsWith("invalid JSON");
+        assertThat(report.errors().get(1).message()).isEqualTo("productCategory: must not be null");
+    }
+
+    @Test
+    void shouldRefuseImportsOverTheLimitAndReleaseThePermit() {
+        applicationProperties.getProductImport().setMaxConcurrentImports(1);
+        ProductImportService limitedImportService = new ProductImportService(
+            productRepository,
+            mock(ProductCategoryRepository.class),
+            totalCountService,
+            new ObjectMapper(),
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            transactionalOperator,
+            applicationProperties
+        );
+        Sinks.Many<String> lines = Sinks.many().unicast().onBackpressureBuffer();
+
+        Disposable running = limitedImportService.importNdjson(lines.asFlux()).subscribe();
+        assertThatThrownBy(() -> limitedImportService.importNdjson(Flux.empty()).block()).isInstanceOf(ImportLimitExceededException.class);
+
+        running.dispose();
+        assertThat(limitedImportService.importNdjson(Flux.empty()).block().imported()).isZero();
+        assertThat(limitedImportService.importNdjson(Flux.empty()).block().imported()).isZero();
+    }
+
+    @Test
+    void shouldSplitQuotedCsvValues() {
+        assertThat(ProductImportService.splitCsvLine("a;\"b;c\";\"d \"\"e\"\"\";")).containsExactly("a", "b;c", "d \"e\"", "");
+    }
+}
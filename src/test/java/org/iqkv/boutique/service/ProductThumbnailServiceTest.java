@@ -0,0 +1,119 @@
+package org.iqkv.boutique.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import org.iqkv.boutique.config.ApplicationProperties;
+import org.iqkv.boutique.domain.ProductImage;
+import org.iqkv.boutique.domain.ProductImageContent;
+import org.iqkv.boutique.repository.ProductImageVariantRepository;
+import org.iqkv.boutique.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class ProductThumbnailServiceTest {
+
+    private ApplicationProperties applicationProperties;
+
+    private ProductImageVariantRepository productImageVariantRepository;
+
+    private ProductRepository productRepository;
+
+    private ProductThumbnailService productThumbnailService;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        productImageVariantRepository = mock(ProductImageVariantRepository.class);
+        productRepository = mock(ProductRepository.class);
+        productThumbnailService = new ProductThumbnailService(applicationProperties, productImageVariantRepository, productRepository);
+    }
+
+    @AfterEach
+    public void cleanup() {
+        productThumbnailService.destroy();
+    }
+
+    @Test
+    void shouldScaleDownToTheThumbnailSize() throws IOException {
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(productThumbnailService.createThumbnail(png(800, 400))));
+
+        assertThat(thumbnail.getWidth()).isEqualTo(200);
+        assertThat(thumbnail.getHeight()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldNotScaleUpSmallImages() throws IOException {
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(productThumbnailService.createThumbnail(png(20, 40))));
+
+        assertThat(thumbnail.getWidth()).isEqualTo(20);
+        assertThat(thumbnail.getHeight()).isEqualTo(40);
+    }
+
+    @Test
+    void shouldIgnoreImagesThatCannotBeDecoded() throws IOException {
+        assertThat(productThumbnailService.createThumbnail(new byte[] { 0 })).isNull();
+    }
+
+    @Test
+    void shouldScaleDownLargeImagesDecodedWithSubsampling() throws IOException {
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(productThumbnailService.createThumbnail(png(2000, 1000))));
+
+        assertThat(thumbnail.getWidth()).isEqualTo(200);
+        assertThat(thumbnail.getHeight()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldRejectImagesLargerThanTheMaximumNumberOfPixels() throws IOException {
+        applicationProperties.getThumbnail().setMaxPixels(10_000);
+        productThumbnailService.destroy();
+        productThumbnailService = new ProductThumbnailService(applicationProperties, productImageVariantRepository, productRepository);
+        byte[] image = png(200, 100);
+
+        assertThatThrownBy(() -> productThumbnailService.createThumbnail(image))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("200x100");
+    }
+
+    @Test
+    void shouldBackfillTheImagesWithoutThumbnail() throws IOException {
+        byte[] image = png(400, 400);
+        ProductImage original = new ProductImage(ProductImage.ORIGINAL, MediaType.IMAGE_PNG_VALUE, image.length, "hash");
+        when(productImageVariantRepository.findProductIdsWithoutVariant(ProductImage.THUMBNAIL)).thenReturn(Flux.just(1L, 2L));
+        when(productRepository.findImageContentById(1L)).thenReturn(Mono.just(new ProductImageContent(original, image)));
+        when(productRepository.findImageContentById(2L)).thenReturn(Mono.empty());
+        when(productImageVariantRepository.save(any(), any(), any(), any(), any())).thenReturn(Mono.empty());
+
+        assertThat(productThumbnailService.backfillThumbnails().block()).isEqualTo(1L);
+        verify(productImageVariantRepository).save(
+            eq(1L),
+            eq(ProductImage.THUMBNAIL),
+            any(),
+            eq(MediaType.IMAGE_PNG_VALUE),
+            eq(DigestUtils.md5DigestAsHex(image))
+        );
+        verify(productImageVariantRepository, never()).save(eq(2L), any(), any(), any(), any());
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,130 @@
+package org.iqkv.boutique.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.iqkv.boutique.config.ApplicationProperties;
+import org.iqkv.boutique.config.ApplicationProperties.Count.Strategy;
+import org.iqkv.boutique.repository.TableStatisticsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+class TotalCountServiceTest {
+
+    private TableStatisticsRepository tableStatisticsRepository;
+
+    private AtomicInteger exactCounts;
+
+    @BeforeEach
+    public void setup() {
+        tableStatisticsRepository = mock(TableStatisticsRepository.class);
+        exactCounts = new AtomicInteger();
+    }
+
+    private TotalCountService totalCountService(Strategy strategy) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCount().setStrategy(strategy);
+        return new TotalCountService(applicationProperties, tableStatisticsRepository);
+    }
+
+    private Mono<Long> exactCount() {
+        return Mono.fromSupplier(() -> {
+            exactCounts.incrementAndGet();
+            return 42L;
+        });
+    }
+
+    @Test
+    void shouldCountExactlyEachTime() {
+        TotalCountService totalCountService = totalCountService(Strategy.EXACT);
+
+        assertThat(totalCountService.count("product", this::exactCount).block()).isEqualTo(new TotalCount(42L, Strategy.EXACT));
+        assertThat(totalCountService.count("product", this::exactCount).block()).isEqualTo(new TotalCount(42L, Strategy.EXACT));
+        assertThat(exactCounts).hasValue(2);
+    }
+
+    @Test
+    void shouldCacheTheExactCountUntilEvicted() {
+        TotalCountService totalCountService = totalCountService(Strategy.CACHED);
+
+        assertThat(totalCountService.count("product", this::exactCount).block()).isEqualTo(new TotalCount(42L, Strategy.EXACT));
+        TotalCount cached = totalCountService.count("product", this::exactCount).block();
+        assertThat(cached).isEqualTo(new TotalCount(42L, Strategy.CACHED));
+        assertThat(cached.getTypeName()).isEqualTo("cached");
+        assertThat(exactCounts).hasValue(1);
+
+        totalCountService.evict("product").block();
+        assertThat(totalCountService.count("product", this::exactCount).block()).isEqualTo(new TotalCount(42L, Strategy.EXACT));
+        assertThat(exactCounts).hasValue(2);
+    }
+
+    @Test
+    void shouldEvictTheCountAgainOnceTheTransactionCompletes() {
+        TotalCountService totalCountService = totalCountService(Strategy.CACHED);
+        TransactionalOperator transactionalOperator = TransactionalOperator.create(new TestTransactionManager());
+
+        // a count racing with the transaction caches the total before the commit
+        totalCountService
+            .evict("product")
+            .then(totalCountService.count("product", this::exactCount))
+            .as(transactionalOperator::transactional)
+            .block();
+        assertThat(exactCounts).hasValue(1);
+
+        assertThat(totalCountService.count("product", this::exactCount).block()).isEqualTo(new TotalCount(42L, Strategy.EXACT));
+        assertThat(exactCounts).hasValue(2);
+    }
+
+    @Test
+    void shouldEstimateFromTheTableStatistics() {
+        when(tableStatisticsRepository.estimateRowCount("product")).thenReturn(Mono.just(40L));
+        TotalCountService totalCountService = totalCountService(Strategy.ESTIMATED);
+
+        assertThat(totalCountService.count("product", this::exactCount).block()).isEqualTo(new TotalCount(40L, Strategy.ESTIMATED));
+        assertThat(exactCounts).hasValue(0);
+    }
+
+    @Test
+    void shouldCountExactlyWhenTheTableWasNeverAnalyzed() {
+        when(tableStatisticsRepository.estimateRowCount("product")).thenReturn(Mono.empty());
+        TotalCountService totalCountService = totalCountService(Strategy.ESTIMATED);
+
+        assertThat(totalCountService.count("product", this::exactCount).block()).isEqualTo(new TotalCount(42L, Strategy.EXACT));
+        assertThat(exactCounts).hasValue(1);
+    }
+
+    private static class TestTransactionManager extends AbstractReactiveTransactionManager {
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(
+            TransactionSynchronizationManager synchronizationManager,
+            Object transaction,
+            TransactionDefinition definition
+        ) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager, GenericReactiveTransaction status) {
+            return Mono.empty();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package org.iqkv.boutique.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.math.BigDecimal;
+import java.util.List;
+import org.iqkv.boutique.IntegrationTest;
+import org.iqkv.boutique.domain.CustomerDetails;
+import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.domain.ProductOrder;
+import org.iqkv.boutique.domain.ShoppingCart;
+import org.iqkv.boutique.domain.enumeration.OrderStatus;
+import org.iqkv.boutique.domain.enumeration.PaymentMethod;
+import org.iqkv.boutique.repository.EntityManager;
+import org.iqkv.boutique.repository.ProductOrderRepository;
+import org.iqkv.boutique.repository.ShoppingCartRepository;
+import org.iqkv.boutique.web.rest.vm.CheckoutLineVM;
+import org.iqkv.boutique.web.rest.vm.CheckoutVM;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link CheckoutResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_ENTITY_TIMEOUT)
+@WithMockUser
+class CheckoutResourceIT {
+
+    private static final String API_URL = "/api/checkout";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private ShoppingCartRepository shoppingCartRepository;
+
+    @Autowired
+    private ProductOrderRepository productOrderRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private CustomerDetails customerDetails;
+
+    private Product hat;
+
+    private Product scarf;
+
+    @BeforeEach
+    public void initTest() {
+        customerDetails = em.insert(CustomerDetailsResourceIT.createEntity(em)).block();
+        hat = em.insert(ProductResourceIT.createEntity(em).price(new BigDecimal("12.50"))).block();
+        scarf = em.insert(ProductResourceIT.createEntity(em).price(new BigDecimal("20"))).block();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        ProductOrderResourceIT.deleteEntities(em);
+        ShoppingCartResourceIT.deleteEntities(em);
+        ProductResourceIT.deleteEntities(em);
+        CustomerDetailsResourceIT.deleteEntities(em);
+    }
+
+    @Test
+    void checkout() throws Exception {
+        long cartCountBefore = shoppingCartRepository.count().block();
+        long orderCountBefore = productOrderRepository.count().block();
+        CheckoutVM checkout = createCheckout(line(hat.getId(), 2), line(scarf.getId(), 1));
+
+        ShoppingCart returnedShoppingCart = webTestClient
+            .post()
+            .uri(API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(checkout))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBody(ShoppingCart.class)
+            .returnResult()
+            .getResponseBody();
+
+        // The totals are computed from the prices in the database
+        assertThat(returnedShoppingCart.getTotalPrice()).usingComparator(BigDecimal::compareTo).isEqualTo(new BigDecimal("45"));
+        assertThat(returnedShoppingCart.getStatus()).isEqualTo(OrderStatus.PENDING);
+        assertThat(shoppingCartRepository.count().block()).isEqualTo(cartCountBefore + 1);
+        assertThat(productOrderRepository.count().block()).isEqualTo(orderCountBefore + 2);
+
+        List<ProductOrder> persistedOrders = productOrderRepository.findByCart(returnedShoppingCart.getId()).collectList().block();
+        assertThat(persistedOrders)
+            .extracting(ProductOrder::getTotalPrice)
+            .usingElementComparator(BigDecimal::compareTo)
+            .containsExactlyInAnyOrder(new BigDecimal("25"), new BigDecimal("20"));
+        ShoppingCart persistedShoppingCart = shoppingCartRepository.findById(returnedShoppingCart.getId()).block();
+        assertThat(persistedShoppingCart.getTotalPrice()).usingComparator(BigDecimal::compareTo).isEqualTo(new BigDecimal("45"));
+    }
+
+    @Test
+    void checkoutWithUnknownProduct() throws Exception {
+        long cartCountBefore = shoppingCartRepository.count().block();
+        CheckoutVM checkout = createCheckout(line(hat.getId(), 1), line(Long.MAX_VALUE, 1));
+
+        webTestClient
+            .post()
+            .uri(API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(checkout))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        // Nothing of the checkout is persisted
+        assertThat(shoppingCartRepository.count().block()).isEqualTo(cartCountBefore);
+    }
+
+    @Test
+    void checkoutWithUnknownCustomerDetails() throws Exception {
+        long cartCountBefore = shoppingCartRepository.count().block();
+        CheckoutVM checkout = createCheckout(line(hat.getId(), 1));
+        checkout.setCustomerDetailsId(Long.MAX_VALUE);
+
+        webTestClient
+            .post()
+            .uri(API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(checkout))
+            .exchange()
+            .expectStatus()
+            .isBadRequest()
+            .expectHeader()
+            .valueEquals("X-boutiqueApp-error", "error.idnotfound")
+            .expectHeader()
+            .valueEquals("X-boutiqueApp-params", "customerDetails");
+
+        // Nothing of the checkout is persisted
+        assertThat(shoppingCartRepository.count().block()).isEqualTo(cartCountBefore);
+    }
+
+    @Test
+    void checkoutWithoutLines() throws Exception {
+        webTestClient
+            .post()
+            .uri(API_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(createCheckout()))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    private CheckoutVM createCheckout(CheckoutLineVM... lines) {
+        CheckoutVM checkout = new CheckoutVM();
+        checkout.setCustomerDetailsId(customerDetails.getId());
+        checkout.setPaymentMethod(PaymentMethod.CREDIT_CARD);
+        checkout.setLines(List.of(lines));
+        return checkout;
+    }
+
+    private static CheckoutLineVM line(Long productId, int quantity) {
+        CheckoutLineVM line = new CheckoutLineVM();
+        line.setProductId(productId);
+        line.setQuantity(quantity);
+        return line;
+    }
+}
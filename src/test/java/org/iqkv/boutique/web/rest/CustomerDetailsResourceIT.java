@@ -5,8 +5,12 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.iqkv.boutique.domain.CustomerDetailsAsserts.*;
 import static org.iqkv.boutique.web.rest.TestUtil.createUpdateProxyForBean;
+import static org.iqkv.boutique.web.rest.TestUtil.getAllKeysetPages;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.iqkv.boutique.IntegrationTest;
@@ -303,6 +307,82 @@ class CustomerDetailsResourceIT {
             .value(hasItem(DEFAULT_COUNTRY));
     }
 
+    @Test
+    void getAllCustomerDetailsAfterCursor() {
+        // Initialize the database
+        insertedCustomerDetails = customerDetailsRepository.save(customerDetails).block();
+
+        // Get the first page of the keyset pagination
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&size=1&sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(customerDetails.getId().intValue()))
+            .jsonPath("$.length()")
+            .value(is(1));
+    }
+
+    @Test
+    void getAllCustomerDetailsPagesAfterCursor() {
+        // Initialize the database, with duplicated cities so that pages also break ties on the id
+        List<CustomerDetails> customers = new ArrayList<>();
+        for (String city : List.of("Lyon", "Brest", "Lyon", "Nantes", "Brest", "Lyon")) {
+            customers.add(customerDetailsRepository.save(createEntity(em).city(city)).block());
+        }
+
+        // Follow the cursors until the last page
+        List<List<CustomerDetails>> byCity = getAllKeysetPages(
+            webTestClient,
+            ENTITY_API_URL + "?after=&size=4&sort=city,desc",
+            CustomerDetails.class
+        );
+        List<List<CustomerDetails>> byId = getAllKeysetPages(
+            webTestClient,
+            ENTITY_API_URL + "?after=&size=3&sort=id,asc",
+            CustomerDetails.class
+        );
+
+        assertThat(byCity).hasSize(2);
+        assertThat(byCity.stream().flatMap(List::stream).map(CustomerDetails::getId)).containsExactlyElementsOf(
+            customers
+                .stream()
+                .sorted(Comparator.comparing(CustomerDetails::getCity).thenComparing(CustomerDetails::getId).reversed())
+                .map(CustomerDetails::getId)
+                .toList()
+        );
+        // The last page is full, the look-ahead row tells there is no next page rather than an empty one
+        assertThat(byId).hasSize(2).allSatisfy(page -> assertThat(page).hasSize(3));
+        assertThat(byId.stream().flatMap(List::stream).map(CustomerDetails::getId)).containsExactlyElementsOf(
+            customers.stream().map(CustomerDetails::getId).sorted().toList()
+        );
+    }
+
+    @Test
+    void getAllCustomerDetailsWithInvalidCursor() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=not-a-cursor")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&sort=country,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @Test
     void getCustomerDetails() {
         // Initialize the database
@@ -0,0 +1,138 @@
+package org.iqkv.boutique.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.iqkv.boutique.IntegrationTest;
+import org.iqkv.boutique.domain.ProductCategory;
+import org.iqkv.boutique.repository.EntityManager;
+import org.iqkv.boutique.repository.ProductRepository;
+import org.iqkv.boutique.security.AuthoritiesConstants;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link ProductImportResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_ENTITY_TIMEOUT)
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+class ProductImportResourceIT {
+
+    private static final String API_URL = "/api/admin/products/import";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private ProductCategory productCategory;
+
+    @BeforeEach
+    public void initTest() {
+        productCategory = em.insert(ProductCategoryResourceIT.createEntity(em)).block();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        ProductResourceIT.deleteEntities(em);
+        ProductCategoryResourceIT.deleteEntities(em);
+    }
+
+    @Test
+    void importProductsFromCsv() {
+        long countBefore = productRepository.count().block();
+        String csv =
+            "id;name;description;price;product_size;image;image_content_type;product_category_id\n" +
+            "1;hat;a red hat;12.50;M;;;" +
+            productCategory.getId() +
+            "\n" +
+            "2;scarf;;-1;L;;;" +
+            productCategory.getId() +
+            "\n" +
+            "3;gloves;;20;L;;;" +
+            Long.MAX_VALUE +
+            "\n";
+
+        webTestClient
+            .post()
+            .uri(API_URL)
+            .contentType(MediaType.parseMediaType(ProductImportResource.TEXT_CSV_VALUE))
+            .bodyValue(csv)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.imported")
+            .value(is(1))
+            .jsonPath("$.rejected")
+            .value(is(2))
+            .jsonPath("$.errors[0].line")
+            .value(is(3))
+            .jsonPath("$.errors[1].line")
+            .value(is(4));
+
+        assertThat(productRepository.count().block()).isEqualTo(countBefore + 1);
+    }
+
+    @Test
+    void importProductsFromNdjson() {
+        long countBefore = productRepository.count().block();
+        String ndjson =
+            "{\"name\":\"hat\",\"price\":12.5,\"productSize\":\"M\",\"productCategory\":{\"id\":" +
+            productCategory.getId() +
+            "}}\n" +
+            "{\"name\":\"scarf\"\n";
+
+        webTestClient
+            .post()
+            .uri(API_URL)
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .bodyValue(ndjson)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.imported")
+            .value(is(1))
+            .jsonPath("$.rejected")
+            .value(is(1));
+
+        assertThat(productRepository.count().block()).isEqualTo(countBefore + 1);
+    }
+
+    @Test
+    void importProductsFromCsvWithoutRequiredColumns() {
+        webTestClient
+            .post()
+            .uri(API_URL)
+            .contentType(MediaType.parseMediaType(ProductImportResource.TEXT_CSV_VALUE))
+            .bodyValue("name;description\nhat;a red hat\n")
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
+    @Test
+    @WithMockUser
+    void importProductsIsForbiddenToUsers() {
+        webTestClient
+            .post()
+            .uri(API_URL)
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .bodyValue("{}\n")
+            .exchange()
+            .expectStatus()
+            .isForbidden();
+    }
+}
@@ -183,6 +183,74 @@ class ProductOrderResourceIT {
         assertSameRepositoryCount(databaseSizeBeforeCreate);
     }
 
+    @Test
+    void createProductOrdersInBatch() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        ProductOrder secondProductOrder = new ProductOrder()
+            .quantity(UPDATED_QUANTITY)
+            .totalPrice(UPDATED_TOTAL_PRICE)
+            .product(productOrder.getProduct())
+            .cart(productOrder.getCart());
+
+        List<ProductOrder> returnedProductOrders = webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(List.of(productOrder, secondProductOrder)))
+            .exchange()
+            .expectStatus()
+            .isCreated()
+            .expectBodyList(ProductOrder.class)
+            .returnResult()
+            .getResponseBody();
+
+        // Validate the ProductOrders in the database, in the order of the batch
+        assertThat(getRepositoryCount()).isEqualTo(databaseSizeBeforeCreate + 2);
+        assertThat(returnedProductOrders).hasSize(2).allMatch(returned -> returned.getId() != null);
+        assertProductOrderUpdatableFieldsEquals(productOrder, getPersistedProductOrder(returnedProductOrders.get(0)));
+        assertProductOrderUpdatableFieldsEquals(secondProductOrder, getPersistedProductOrder(returnedProductOrders.get(1)));
+    }
+
+    @Test
+    void createProductOrdersInBatchWithExistingId() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        ProductOrder existingProductOrder = new ProductOrder().id(1L).quantity(DEFAULT_QUANTITY).totalPrice(DEFAULT_TOTAL_PRICE);
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(List.of(productOrder, existingProductOrder)))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        // Validate that no ProductOrder of the batch was created
+        assertSameRepositoryCount(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    void createProductOrdersInBatchWithAnInvalidProductOrder() throws Exception {
+        long databaseSizeBeforeCreate = getRepositoryCount();
+        ProductOrder invalidProductOrder = new ProductOrder()
+            .quantity(-1)
+            .totalPrice(DEFAULT_TOTAL_PRICE)
+            .product(productOrder.getProduct())
+            .cart(productOrder.getCart());
+
+        webTestClient
+            .post()
+            .uri(ENTITY_API_URL + "/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(List.of(productOrder, invalidProductOrder)))
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        // Validate that no ProductOrder of the batch was created
+        assertSameRepositoryCount(databaseSizeBeforeCreate);
+    }
+
     @Test
     void checkQuantityIsRequired() throws Exception {
         long databaseSizeBeforeTest = getRepositoryCount();
@@ -276,6 +344,61 @@ class ProductOrderResourceIT {
             .value(hasItem(sameNumber(DEFAULT_TOTAL_PRICE)));
     }
 
+    @Test
+    void getAllProductOrdersWithAndWithoutEagerLoad() {
+        // Initialize the database
+        insertedProductOrder = productOrderRepository.save(productOrder).block();
+
+        ProductOrder eager = getAllProductOrders("?sort=id,desc&eagerload=true");
+        assertThat(eager.getProduct().getId()).isEqualTo(productOrder.getProduct().getId());
+        assertThat(eager.getProduct().getName()).isEqualTo(productOrder.getProduct().getName());
+        assertThat(eager.getCart().getId()).isEqualTo(productOrder.getCart().getId());
+        assertThat(eager.getCart().getPlacedDate()).isNotNull();
+
+        ProductOrder lean = getAllProductOrders("?sort=id,desc&eagerload=false");
+        assertThat(lean.getProduct().getId()).isEqualTo(productOrder.getProduct().getId());
+        assertThat(lean.getProduct().getName()).isNull();
+        assertThat(lean.getCart().getId()).isEqualTo(productOrder.getCart().getId());
+        assertThat(lean.getCart().getPlacedDate()).isNull();
+    }
+
+    private ProductOrder getAllProductOrders(String query) {
+        List<ProductOrder> productOrderList = webTestClient
+            .get()
+            .uri(ENTITY_API_URL + query)
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBodyList(ProductOrder.class)
+            .returnResult()
+            .getResponseBody();
+        assertThat(productOrderList).isNotNull();
+        return productOrderList.stream().filter(productOrder::equals).findFirst().orElseThrow();
+    }
+
+    @Test
+    void getAllProductOrdersAfterCursor() {
+        // Initialize the database
+        insertedProductOrder = productOrderRepository.save(productOrder).block();
+
+        // Get the first page of the keyset pagination, without the joins
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&size=1&sort=id,desc&eagerload=false")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(productOrder.getId().intValue()))
+            .jsonPath("$.length()")
+            .value(is(1));
+    }
+
     @SuppressWarnings({ "unchecked" })
     void getAllProductOrdersWithEagerRelationshipsIsEnabled() {
         when(productOrderServiceMock.findAllWithEagerRelationships(any())).thenReturn(Flux.empty());
@@ -431,7 +554,12 @@ class ProductOrderResourceIT {
             .bodyValue(om.writeValueAsBytes(partialUpdatedProductOrder))
             .exchange()
             .expectStatus()
-            .isOk();
+            .isOk()
+            .expectBody()
+            .jsonPath("$.product.id")
+            .value(is(productOrder.getProductId().intValue()))
+            .jsonPath("$.cart.id")
+            .value(is(productOrder.getCartId().intValue()));
 
         // Validate the ProductOrder in the database
 
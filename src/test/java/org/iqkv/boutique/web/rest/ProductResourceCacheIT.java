@@ -0,0 +1,80 @@
+package org.iqkv.boutique.web.rest;
+
+import static org.hamcrest.Matchers.is;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.iqkv.boutique.IntegrationTest;
+import org.iqkv.boutique.domain.Product;
+import org.iqkv.boutique.repository.EntityManager;
+import org.iqkv.boutique.repository.ProductRepository;
+import org.iqkv.boutique.service.CatalogCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/**
+ * Integration tests for the {@link ProductResource} REST controller reading through the {@link CatalogCache}, which the
+ * other integration tests disable.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "application.cache.catalog.maximum-weight=1MB")
+@AutoConfigureWebTestClient(timeout = IntegrationTest.DEFAULT_ENTITY_TIMEOUT)
+@WithMockUser
+class ProductResourceCacheIT {
+
+    private static final String ENTITY_API_URL_ID = "/api/products/{id}";
+
+    @Autowired
+    private ObjectMapper om;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    private Product product;
+
+    @BeforeEach
+    public void initTest() {
+        product = productRepository.save(ProductResourceIT.createEntity(em).name("Cached")).block();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        ProductResourceIT.deleteEntities(em);
+    }
+
+    @Test
+    void shouldServeACachedProductUntilItIsWritten() throws Exception {
+        getProduct().jsonPath("$.name").value(is("Cached"));
+
+        // written behind the service, the cached product is still served
+        productRepository.save(product.name("Written behind the cache")).block();
+        getProduct().jsonPath("$.name").value(is("Cached"));
+
+        // written through the service, the product is evicted
+        webTestClient
+            .put()
+            .uri(ENTITY_API_URL_ID, product.getId())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(om.writeValueAsBytes(product.name("Updated")))
+            .exchange()
+            .expectStatus()
+            .isOk();
+        getProduct().jsonPath("$.name").value(is("Updated"));
+    }
+
+    private WebTestClient.BodyContentSpec getProduct() {
+        return webTestClient.get().uri(ENTITY_API_URL_ID, product.getId()).exchange().expectStatus().isOk().expectBody();
+    }
+}
@@ -5,12 +5,16 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.iqkv.boutique.domain.ProductAsserts.*;
 import static org.iqkv.boutique.web.rest.TestUtil.createUpdateProxyForBean;
+import static org.iqkv.boutique.web.rest.TestUtil.getAllKeysetPages;
 import static org.iqkv.boutique.web.rest.TestUtil.sameNumber;
 import static org.mockito.Mockito.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.iqkv.boutique.IntegrationTest;
@@ -20,6 +24,7 @@ import org.iqkv.boutique.domain.enumeration.Size;
 import org.iqkv.boutique.repository.EntityManager;
 import org.iqkv.boutique.repository.ProductRepository;
 import org.iqkv.boutique.service.ProductService;
+import org.iqkv.boutique.web.rest.util.TotalCountUtil;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,9 +33,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.DigestUtils;
 import reactor.core.publisher.Flux;
 
 /**
@@ -271,6 +281,8 @@ class ProductResourceIT {
             .isOk()
             .expectHeader()
             .contentType(MediaType.APPLICATION_JSON)
+            .expectHeader()
+            .valueEquals(TotalCountUtil.HEADER_TOTAL_COUNT_TYPE, "exact")
             .expectBody()
             .jsonPath("$.[*].id")
             .value(hasItem(product.getId().intValue()))
@@ -284,8 +296,76 @@ class ProductResourceIT {
             .value(hasItem(DEFAULT_PRODUCT_SIZE.toString()))
             .jsonPath("$.[*].imageContentType")
             .value(hasItem(DEFAULT_IMAGE_CONTENT_TYPE))
-            .jsonPath("$.[*].image")
-            .value(hasItem(Base64.getEncoder().encodeToString(DEFAULT_IMAGE)));
+            .jsonPath("$.[*].imageSize")
+            .value(hasItem(DEFAULT_IMAGE.length))
+            .jsonPath("$.[0].image")
+            .doesNotExist();
+    }
+
+    @Test
+    void getAllProductsAfterCursor() {
+        // Initialize the database
+        insertedProduct = productRepository.save(product).block();
+
+        // Get the first page of the keyset pagination
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&size=1&sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(product.getId().intValue()))
+            .jsonPath("$.length()")
+            .value(is(1));
+    }
+
+    @Test
+    void getAllProductPagesAfterCursor() {
+        // Initialize the database, with duplicated names so that pages also break ties on the id
+        List<Product> products = new ArrayList<>();
+        for (String name : List.of("keyset-b", "keyset-a", "keyset-b", "keyset-c", "keyset-a")) {
+            products.add(productRepository.save(createEntity(em).name(name)).block());
+        }
+
+        // Follow the cursors until the last page
+        List<List<Product>> byName = getAllKeysetPages(webTestClient, ENTITY_API_URL + "?after=&size=2&sort=name,asc", Product.class);
+        List<List<Product>> byIdDesc = getAllKeysetPages(webTestClient, ENTITY_API_URL + "?after=&size=2&sort=id,desc", Product.class);
+
+        assertThat(byName).hasSize(3).allSatisfy(page -> assertThat(page).isNotEmpty().hasSizeLessThanOrEqualTo(2));
+        assertThat(byName.stream().flatMap(List::stream).map(Product::getId)).containsExactlyElementsOf(
+            products
+                .stream()
+                .sorted(Comparator.comparing(Product::getName).thenComparing(Product::getId))
+                .map(Product::getId)
+                .toList()
+        );
+        assertThat(byIdDesc.stream().flatMap(List::stream).map(Product::getId)).containsExactlyElementsOf(
+            products.stream().map(Product::getId).sorted(Comparator.reverseOrder()).toList()
+        );
+    }
+
+    @Test
+    void getAllProductsWithInvalidCursor() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=not-a-cursor")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&sort=price,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
     }
 
     @SuppressWarnings({ "unchecked" })
@@ -337,6 +417,139 @@ class ProductResourceIT {
             .value(is(Base64.getEncoder().encodeToString(DEFAULT_IMAGE)));
     }
 
+    @Test
+    void getProductNotModified() {
+        // Initialize the database
+        insertedProduct = productRepository.save(product).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, product.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).startsWith("W/");
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, product.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified()
+            .expectBody()
+            .isEmpty();
+
+        // Update the product, its ETag changes
+        productRepository.save(product.name(UPDATED_NAME)).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, product.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.name")
+            .value(is(UPDATED_NAME));
+    }
+
+    @Test
+    void getProductImage() {
+        // Initialize the database
+        insertedProduct = productRepository.save(product).block();
+
+        // Get the image, then revalidate it with its ETag
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/image", product.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(DEFAULT_IMAGE_CONTENT_TYPE)
+            .expectHeader()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .expectBody(byte[].class)
+            .isEqualTo(DEFAULT_IMAGE)
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+        assertThat(eTag).isEqualTo("\"" + DigestUtils.md5DigestAsHex(DEFAULT_IMAGE) + "\"");
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/image", product.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified()
+            .expectBody()
+            .isEmpty();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/image", product.getId())
+            .header(HttpHeaders.RANGE, "bytes=0-0")
+            .exchange()
+            .expectStatus()
+            .isEqualTo(HttpStatus.PARTIAL_CONTENT);
+    }
+
+    @Test
+    void getProductThumbnailOfAnImageThatCannotBeScaled() {
+        // Initialize the database
+        insertedProduct = productRepository.save(product).block();
+
+        // The thumbnail falls back to the original image
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/image?variant=thumbnail", product.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody(byte[].class)
+            .isEqualTo(DEFAULT_IMAGE);
+
+        webTestClient.get().uri(ENTITY_API_URL_ID + "/image?variant=poster", product.getId()).exchange().expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getProductImageWithInvalidContentType() {
+        // Initialize the database
+        insertedProduct = productRepository.save(product.imageContentType("not a media type")).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID + "/image", product.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .contentType(MediaType.APPLICATION_OCTET_STREAM)
+            .expectBody(byte[].class)
+            .isEqualTo(DEFAULT_IMAGE);
+    }
+
+    @Test
+    @WithAnonymousUser
+    void getProductImageUnauthenticated() {
+        // Initialize the database
+        insertedProduct = productRepository.save(product).block();
+
+        webTestClient.get().uri(ENTITY_API_URL_ID + "/image", product.getId()).exchange().expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void getNonExistingProductImage() {
+        webTestClient.get().uri(ENTITY_API_URL_ID + "/image", Long.MAX_VALUE).exchange().expectStatus().isNotFound();
+    }
+
     @Test
     void getNonExistingProduct() {
         // Get the product
@@ -1,6 +1,7 @@
 package org.iqkv.boutique.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.iqkv.boutique.domain.ShoppingCartAsserts.*;
@@ -22,14 +23,21 @@ import org.iqkv.boutique.domain.enumeration.OrderStatus;
 import org.iqkv.boutique.domain.enumeration.PaymentMethod;
 import org.iqkv.boutique.repository.EntityManager;
 import org.iqkv.boutique.repository.ShoppingCartRepository;
+import org.iqkv.boutique.service.ShoppingCartService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Sinks;
 
 /**
  * Integration tests for the {@link ShoppingCartResource} REST controller.
@@ -66,6 +74,12 @@ class ShoppingCartResourceIT {
     @Autowired
     private ShoppingCartRepository shoppingCartRepository;
 
+    @Autowired
+    private ShoppingCartService shoppingCartService;
+
+    @Autowired
+    private R2dbcEntityTemplate r2dbcEntityTemplate;
+
     @Autowired
     private EntityManager em;
 
@@ -292,6 +306,72 @@ class ShoppingCartResourceIT {
         assertShoppingCartUpdatableFieldsEquals(shoppingCart, testShoppingCart);
     }
 
+    @Test
+    void exportShoppingCartsThroughACursor() {
+        // Initialize the database, with many more shoppingCarts than fetched at a time
+        DatabaseClient databaseClient = r2dbcEntityTemplate.getDatabaseClient();
+        Long customerDetailsId = shoppingCart.getCustomerDetails().getId();
+        databaseClient
+            .sql(
+                "INSERT INTO shopping_cart (placed_date, status, total_price, payment_method, payment_reference, customer_details_id) " +
+                "SELECT now(), 'PENDING', 0, 'CREDIT_CARD', 'export-' || i, :customerDetailsId FROM generate_series(1, 1000) i"
+            )
+            .bind("customerDetailsId", customerDetailsId)
+            .then()
+            .block();
+
+        Sinks.Many<ShoppingCart> exported = Sinks.many().replay().all();
+        Sinks.Empty<Void> completed = Sinks.empty();
+        BaseSubscriber<ShoppingCart> client = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(ShoppingCart value) {
+                exported.tryEmitNext(value);
+            }
+
+            @Override
+            protected void hookOnComplete() {
+                completed.tryEmitEmpty();
+            }
+        };
+        try {
+            shoppingCartService.exportAll(2).subscribe(client);
+            exported.asFlux().next().block(Duration.ofSeconds(5));
+
+            // the rows are fetched 2 at a time through a portal: the backend of the export stays active, waiting for the next
+            // fetch, while a query which sent all its rows would have gone idle in its transaction
+            Long runningExports = databaseClient
+                .sql(
+                    "SELECT count(*) FROM pg_stat_activity WHERE pid <> pg_backend_pid() AND state = 'active' " +
+                    "AND query LIKE 'SELECT %FROM shopping_cart%'"
+                )
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .block();
+            assertThat(runningExports).isEqualTo(1);
+
+            client.request(Long.MAX_VALUE);
+            completed.asMono().block(Duration.ofSeconds(30));
+            Long exportedCount = exported
+                .asFlux()
+                .filter(exportedShoppingCart -> customerDetailsId.equals(exportedShoppingCart.getCustomerDetailsId()))
+                .count()
+                .block();
+            assertThat(exportedCount).isEqualTo(1000);
+        } finally {
+            client.dispose();
+            databaseClient
+                .sql("DELETE FROM shopping_cart WHERE customer_details_id = :customerDetailsId")
+                .bind("customerDetailsId", customerDetailsId)
+                .then()
+                .block();
+        }
+    }
+
     @Test
     void getAllShoppingCarts() {
         // Initialize the database
@@ -322,6 +402,68 @@ class ShoppingCartResourceIT {
             .value(hasItem(DEFAULT_PAYMENT_REFERENCE));
     }
 
+    @Test
+    void getAllShoppingCartsWithMaximumPageSize() {
+        // Initialize the database
+        insertedShoppingCart = shoppingCartRepository.save(shoppingCart).block();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?sort=id,desc&size=1000")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .exists("X-Total-Count")
+            .expectHeader()
+            .value(HttpHeaders.LINK, containsString("size=100>"))
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(shoppingCart.getId().intValue()));
+    }
+
+    @Test
+    void getAllShoppingCartsAfterCursor() {
+        // Initialize the database
+        insertedShoppingCart = shoppingCartRepository.save(shoppingCart).block();
+
+        // Get the first page of the keyset pagination
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&size=1&sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectHeader()
+            .doesNotExist("X-Total-Count")
+            .expectBody()
+            .jsonPath("$.[*].id")
+            .value(hasItem(shoppingCart.getId().intValue()))
+            .jsonPath("$.length()")
+            .value(is(1));
+    }
+
+    @Test
+    void getAllShoppingCartsWithInvalidCursor() {
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=not-a-cursor")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL + "?after=&sort=placedDate,asc")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus()
+            .isBadRequest();
+    }
+
     @Test
     void getShoppingCart() {
         // Initialize the database
@@ -482,6 +624,50 @@ class ShoppingCartResourceIT {
         );
     }
 
+    @Test
+    void emptyPatchShoppingCartKeepsItsVersion() throws Exception {
+        // Initialize the database
+        insertedShoppingCart = shoppingCartRepository.save(shoppingCart).block();
+
+        String eTag = webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, shoppingCart.getId())
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .returnResult()
+            .getResponseHeaders()
+            .getETag();
+
+        // Patch the shoppingCart without any value, it is returned with its customer details
+        ShoppingCart emptyShoppingCart = new ShoppingCart();
+        emptyShoppingCart.setId(shoppingCart.getId());
+
+        webTestClient
+            .patch()
+            .uri(ENTITY_API_URL_ID, shoppingCart.getId())
+            .contentType(MediaType.valueOf("application/merge-patch+json"))
+            .bodyValue(om.writeValueAsBytes(emptyShoppingCart))
+            .exchange()
+            .expectStatus()
+            .isOk()
+            .expectBody()
+            .jsonPath("$.paymentReference")
+            .value(is(DEFAULT_PAYMENT_REFERENCE))
+            .jsonPath("$.customerDetails.id")
+            .value(is(shoppingCart.getCustomerDetailsId().intValue()));
+
+        // The row is not written, its ETag does not change
+        webTestClient
+            .get()
+            .uri(ENTITY_API_URL_ID, shoppingCart.getId())
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .exchange()
+            .expectStatus()
+            .isNotModified();
+    }
+
     @Test
     void fullUpdateShoppingCartWithPatch() throws Exception {
         // Initialize the database
@@ -9,21 +9,33 @@ import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
+import java.net.URI;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeDiagnosingMatcher;
 import org.hamcrest.TypeSafeMatcher;
 import org.springframework.cglib.proxy.Enhancer;
 import org.springframework.cglib.proxy.MethodInterceptor;
 import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
 
 /**
  * Utility class for testing REST controllers.
  */
 public final class TestUtil {
 
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>; rel=\"next\"");
+
+    private static final int MAX_KEYSET_PAGES = 100;
+
     /**
      * Create a byte array with a specific size filled with specified data.
      *
@@ -183,5 +195,40 @@ public final class TestUtil {
         return (T) e.create();
     }
 
+    /**
+     * Gets all the pages of a keyset pagination, following the {@code Link} header with {@code rel="next"} of each page
+     * until the last one, which has none.
+     * @param webTestClient the client.
+     * @param uri the uri of the first page.
+     * @param clazz the type of the rows.
+     * @return the rows of each page, in order.
+     */
+    public static <T> List<List<T>> getAllKeysetPages(WebTestClient webTestClient, String uri, Class<T> clazz) {
+        List<List<T>> pages = new ArrayList<>();
+        String next = uri;
+        while (next != null) {
+            assertThat(pages).as("pages followed from %s", uri).hasSizeLessThan(MAX_KEYSET_PAGES);
+            EntityExchangeResult<List<T>> result = webTestClient
+                .get()
+                .uri(next)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBodyList(clazz)
+                .returnResult();
+            pages.add(result.getResponseBody());
+            String link = result.getResponseHeaders().getFirst(HttpHeaders.LINK);
+            next = null;
+            if (link != null) {
+                Matcher matcher = NEXT_LINK.matcher(link);
+                assertThat(matcher.matches()).as("next link %s", link).isTrue();
+                URI nextUri = URI.create(matcher.group(1));
+                next = nextUri.getRawPath() + "?" + nextUri.getRawQuery();
+            }
+        }
+        return pages;
+    }
+
     private TestUtil() {}
 }
@@ -0,0 +1,110 @@
+package org.iqkv.boutique.web.rest.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.iqkv.boutique.domain.CustomerDetails;
+import org.iqkv.boutique.repository.Keyset;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.util.UriComponentsBuilder;
+
+class KeysetPaginationUtilTest {
+
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>; rel=\"next\"");
+
+    private static final Comparator<CustomerDetails> BY_CITY = Comparator.comparing(CustomerDetails::getCity).thenComparing(
+        CustomerDetails::getId
+    );
+
+    private final List<CustomerDetails> rows = List.of(
+        customer(1L, "Lyon"),
+        customer(2L, "Saint-Denis & Co"),
+        customer(3L, "Lyon"),
+        customer(4L, "Brest"),
+        customer(5L, "Lyon"),
+        customer(6L, "Saint-Denis & Co"),
+        customer(7L, "Brest")
+    );
+
+    @Test
+    void shouldWalkEveryRowOnceAscending() {
+        List<List<CustomerDetails>> pages = walk(Sort.Direction.ASC, 2);
+
+        assertThat(pages).hasSize(4);
+        assertThat(pages.stream().flatMap(List::stream)).containsExactlyElementsOf(rows.stream().sorted(BY_CITY).toList());
+    }
+
+    @Test
+    void shouldWalkEveryRowOnceDescending() {
+        List<List<CustomerDetails>> pages = walk(Sort.Direction.DESC, 3);
+
+        assertThat(pages).hasSize(3);
+        assertThat(pages.stream().flatMap(List::stream)).containsExactlyElementsOf(rows.stream().sorted(BY_CITY.reversed()).toList());
+    }
+
+    @Test
+    void shouldNotLinkAnEmptyPageAfterAFullLastPage() {
+        List<List<CustomerDetails>> pages = walk(Sort.Direction.ASC, 7);
+
+        assertThat(pages).hasSize(1);
+        assertThat(pages.get(0)).hasSize(7);
+    }
+
+    /**
+     * Follows the next links like a client, selecting the rows of each page like the repositories do.
+     */
+    private List<List<CustomerDetails>> walk(Sort.Direction direction, int size) {
+        List<List<CustomerDetails>> pages = new ArrayList<>();
+        String after = "";
+        URI uri = URI.create("http://localhost/api/customer-details?after=&size=" + size + "&sort=city," + direction);
+        while (after != null) {
+            Keyset keyset = KeysetPaginationUtil.resolveKeyset(
+                after,
+                PageRequest.of(0, size, Sort.by(direction, "city")),
+                Set.of(Keyset.ID_PROPERTY, "city"),
+                "customerDetails"
+            );
+            ResponseEntity<List<CustomerDetails>> response = KeysetPaginationUtil.generateKeysetResponse(
+                uri,
+                keyset,
+                select(KeysetPaginationUtil.withLookAhead(keyset))
+            );
+            pages.add(response.getBody());
+            assertThat(pages).hasSizeLessThan(rows.size() + 2);
+            String link = response.getHeaders().getFirst(HttpHeaders.LINK);
+            after = null;
+            if (link != null) {
+                Matcher matcher = NEXT_LINK.matcher(link);
+                assertThat(matcher.matches()).isTrue();
+                uri = URI.create(matcher.group(1));
+                after = UriComponentsBuilder.fromUri(uri).build().getQueryParams().getFirst(KeysetPaginationUtil.AFTER_PARAMETER);
+            }
+        }
+        return pages;
+    }
+
+    private List<CustomerDetails> select(Keyset keyset) {
+        Comparator<CustomerDetails> order = keyset.getDirection().isAscending() ? BY_CITY : BY_CITY.reversed();
+        CustomerDetails last = keyset.isFirst() ? null : customer(keyset.getLastId(), keyset.getLastValue());
+        return rows
+            .stream()
+            .filter(row -> last == null || order.compare(row, last) > 0)
+            .sorted(order)
+            .limit(keyset.getSize())
+            .toList();
+    }
+
+    private static CustomerDetails customer(Long id, String city) {
+        return new CustomerDetails().id(id).city(city);
+    }
+}